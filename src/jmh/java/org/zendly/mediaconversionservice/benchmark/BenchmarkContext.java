@@ -0,0 +1,94 @@
+package org.zendly.mediaconversionservice.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.zendly.mediaconversionservice.client.HttpClientMetrics;
+import org.zendly.mediaconversionservice.concurrency.BulkheadRegistry;
+import org.zendly.mediaconversionservice.concurrency.CpuWorkerPool;
+import org.zendly.mediaconversionservice.config.BulkheadConfig;
+import org.zendly.mediaconversionservice.config.ExecutionConfig;
+import org.zendly.mediaconversionservice.config.HttpClientConfig;
+import org.zendly.mediaconversionservice.config.ImagePreprocessingConfig;
+import org.zendly.mediaconversionservice.config.MediaFetchConfig;
+import org.zendly.mediaconversionservice.config.MimeRoutingConfig;
+import org.zendly.mediaconversionservice.config.TikaForkConfig;
+import org.zendly.mediaconversionservice.config.TikaOcrConfig;
+import org.zendly.mediaconversionservice.config.TikaWarmupConfig;
+import org.zendly.mediaconversionservice.extract.DirectParserRegistry;
+import org.zendly.mediaconversionservice.extract.FastPathExtractors;
+import org.zendly.mediaconversionservice.extract.ForkedTikaParser;
+import org.zendly.mediaconversionservice.extract.SharedTikaParser;
+import org.zendly.mediaconversionservice.media.MediaFetcher;
+import org.zendly.mediaconversionservice.metrics.ConversionMetrics;
+import org.zendly.mediaconversionservice.ocr.ImagePreprocessor;
+import org.zendly.mediaconversionservice.ocr.PdfOcrEngine;
+import org.zendly.mediaconversionservice.ocr.PdfTextLayerAnalyzer;
+import org.zendly.mediaconversionservice.service.DocumentProcessingStrategy;
+import org.zendly.mediaconversionservice.service.TikaTextExtractor;
+
+/**
+ * Minimal Spring context holding the production conversion beans, bound to application.yml
+ * Only the extraction and download path is started: no web server, orchestrator client or Google clients.
+ * Deliberately not a @Configuration so the service's own component scan never picks it up.
+ */
+@EnableConfigurationProperties
+public class BenchmarkContext {
+
+    private static final Class<?>[] SOURCES = {
+            BenchmarkContext.class,
+            TikaOcrConfig.class,
+            TikaWarmupConfig.class,
+            SharedTikaParser.class,
+            DirectParserRegistry.class,
+            FastPathExtractors.class,
+            TikaForkConfig.class,
+            ForkedTikaParser.class,
+            HttpClientConfig.class,
+            HttpClientMetrics.class,
+            MediaFetchConfig.class,
+            BulkheadConfig.class,
+            BulkheadRegistry.class,
+            ExecutionConfig.class,
+            CpuWorkerPool.class,
+            DocumentProcessingStrategy.class,
+            MimeRoutingConfig.class,
+            ImagePreprocessingConfig.class,
+            ImagePreprocessor.class,
+            PdfOcrEngine.class,
+            PdfTextLayerAnalyzer.class,
+            TikaTextExtractor.class,
+            ConversionMetrics.class,
+            MediaFetcher.class
+    };
+
+    /**
+     * Start the context; the caller closes it in its trial teardown
+     * @param properties additional properties, e.g. to switch an execution mode
+     */
+    public static ConfigurableApplicationContext start(String... properties) {
+        return new SpringApplicationBuilder(SOURCES)
+                .web(WebApplicationType.NONE)
+                .properties("spring.main.banner-mode=off",
+                        "logging.level.root=WARN",
+                        // Benchmarks drive the engines harder than production admission would allow
+                        "conversion.bulkhead.enabled=false")
+                .properties(properties)
+                .run();
+    }
+
+    @Bean
+    public ObjectMapper objectMapper() {
+        return new ObjectMapper();
+    }
+
+    @Bean
+    public MeterRegistry meterRegistry() {
+        return new SimpleMeterRegistry();
+    }
+}
@@ -0,0 +1,51 @@
+package org.zendly.mediaconversionservice.benchmark;
+
+import org.zendly.mediaconversionservice.dto.DocumentResponse;
+import org.zendly.mediaconversionservice.dto.DocumentType;
+
+/**
+ * Representative samples checked in under src/jmh/resources/corpus
+ */
+public enum CorpusDocument {
+
+    DOCX("sample.docx", "application/vnd.openxmlformats-officedocument.wordprocessingml.document", DocumentType.DOCUMENT),
+    XLSX("sample.xlsx", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", DocumentType.DOCUMENT),
+    PDF("sample.pdf", "application/pdf", DocumentType.DOCUMENT),
+    TXT("sample.txt", "text/plain", DocumentType.DOCUMENT),
+    CSV("sample.csv", "text/csv", DocumentType.DOCUMENT),
+    JSON("sample.json", "application/json", DocumentType.DOCUMENT),
+    SCANNED_PDF("scanned.pdf", "application/pdf", DocumentType.DOCUMENT),
+    PNG("sample.png", "image/png", DocumentType.IMAGE),
+    WAV("sample.wav", "audio/wav", DocumentType.AUDIO);
+
+    private final String fileName;
+    private final String mimeType;
+    private final DocumentType documentType;
+
+    CorpusDocument(String fileName, String mimeType, DocumentType documentType) {
+        this.fileName = fileName;
+        this.mimeType = mimeType;
+        this.documentType = documentType;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public String getMimeType() {
+        return mimeType;
+    }
+
+    /**
+     * Document metadata as the workflow orchestrator would return it, pointing at the stub server
+     */
+    public DocumentResponse toDocumentResponse(CorpusServer server) {
+        return DocumentResponse.builder()
+                .documentId("bench-" + name().toLowerCase())
+                .originalFileName(fileName)
+                .mimeType(mimeType)
+                .documentType(documentType)
+                .downloadUrl(server.urlFor(this))
+                .build();
+    }
+}
@@ -0,0 +1,84 @@
+package org.zendly.mediaconversionservice.benchmark;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Local stand-in for the storage bucket behind pre-signed URLs
+ * Serves the corpus from memory so download benchmarks measure the client, not the disk
+ */
+public class CorpusServer implements AutoCloseable {
+
+    private static final String CORPUS_PATH = "/corpus/";
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+    private final Map<CorpusDocument, byte[]> corpus = new EnumMap<>(CorpusDocument.class);
+
+    public CorpusServer() throws IOException {
+        for (CorpusDocument document : CorpusDocument.values()) {
+            corpus.put(document, load(document));
+        }
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext(CORPUS_PATH, this::serveCorpus);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    public String urlFor(CorpusDocument document) {
+        return baseUrl() + CORPUS_PATH + document.name();
+    }
+
+    private String baseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    private void serveCorpus(HttpExchange exchange) throws IOException {
+        String name = exchange.getRequestURI().getPath().substring(CORPUS_PATH.length());
+        CorpusDocument document;
+        try {
+            document = CorpusDocument.valueOf(name);
+        } catch (IllegalArgumentException e) {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+            return;
+        }
+        exchange.getResponseHeaders().set("Content-Type", document.getMimeType());
+        send(exchange, corpus.get(document));
+    }
+
+    private static void send(HttpExchange exchange, byte[] body) throws IOException {
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static byte[] load(CorpusDocument document) {
+        try (InputStream in = CorpusServer.class.getResourceAsStream("/corpus/" + document.getFileName())) {
+            if (in == null) {
+                throw new IllegalStateException("Corpus file missing: " + document.getFileName());
+            }
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,128 @@
+package org.zendly.mediaconversionservice.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.zendly.mediaconversionservice.concurrency.CpuWorkerPool;
+import org.zendly.mediaconversionservice.constants.ApplicationConstants;
+import org.zendly.mediaconversionservice.dto.ConversionResponse;
+import org.zendly.mediaconversionservice.dto.DocumentResponse;
+import org.zendly.mediaconversionservice.media.FetchedMedia;
+import org.zendly.mediaconversionservice.media.MediaFetcher;
+import org.zendly.mediaconversionservice.service.TikaTextExtractor;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Document requests served on platform versus virtual request threads by a fixed number of concurrent clients
+ * Each request waits out a simulated orchestrator round trip, downloads the document from the stub server and
+ * extracts it the way DocumentConversionService does. Find the max sustainable rate of each mode by raising
+ * the client count ({@code -t}) until p0.99 leaves the latency target, and compare throughput at that point.
+ * VIRTUAL needs a Java 21 runtime.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+@Threads(64)
+public class ExecutionModeBenchmark {
+
+    public enum ExecutionMode {
+        PLATFORM, VIRTUAL
+    }
+
+    @Param({"PLATFORM", "VIRTUAL"})
+    public ExecutionMode mode;
+
+    @Param({"DOCX", "PDF"})
+    public CorpusDocument document;
+
+    /**
+     * Simulated orchestrator and storage latency per request
+     */
+    @Param({"50"})
+    public int ioLatencyMs;
+
+    /**
+     * Request threads in PLATFORM mode, server.tomcat.threads.max in production
+     */
+    @Param({"200"})
+    public int platformThreads;
+
+    private ConfigurableApplicationContext context;
+    private CorpusServer server;
+    private MediaFetcher mediaFetcher;
+    private TikaTextExtractor extractor;
+    private CpuWorkerPool cpuWorkerPool;
+    private DocumentResponse documentResponse;
+    private ExecutorService platformExecutor;
+    private Function<Callable<ConversionResponse>, Future<ConversionResponse>> requestExecutor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        if (mode == ExecutionMode.VIRTUAL) {
+            if (Runtime.version().feature() < 21) {
+                throw new IllegalStateException("VIRTUAL mode needs Java 21, running on " + Runtime.version());
+            }
+            context = BenchmarkContext.start("spring.threads.virtual.enabled=true");
+            VirtualThreadTaskExecutor virtualExecutor = new VirtualThreadTaskExecutor("request-");
+            requestExecutor = virtualExecutor::submit;
+        } else {
+            context = BenchmarkContext.start();
+            platformExecutor = Executors.newFixedThreadPool(platformThreads);
+            requestExecutor = platformExecutor::submit;
+        }
+        server = new CorpusServer();
+        mediaFetcher = context.getBean(MediaFetcher.class);
+        extractor = context.getBean(TikaTextExtractor.class);
+        cpuWorkerPool = context.getBean(CpuWorkerPool.class);
+        documentResponse = document.toDocumentResponse(server);
+
+        ConversionResponse probe = convert();
+        if (!ApplicationConstants.CONVERSION_SUCCESS.equals(probe.getStatus())) {
+            throw new IllegalStateException("Conversion of " + document + " failed: " + probe.getErrorMessage());
+        }
+    }
+
+    @Benchmark
+    public ConversionResponse convert() throws Exception {
+        return requestExecutor.apply(this::handleRequest).get();
+    }
+
+    private ConversionResponse handleRequest() throws Exception {
+        long startTime = System.currentTimeMillis();
+        Thread.sleep(ioLatencyMs);
+        try (FetchedMedia media = mediaFetcher.fetch(documentResponse.getDownloadUrl(), Long.MAX_VALUE)) {
+            return cpuWorkerPool.call(() -> extractor.convertWithTika(documentResponse, media, startTime));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (platformExecutor != null) {
+            platformExecutor.shutdownNow();
+        }
+        server.close();
+        context.close();
+    }
+}
@@ -0,0 +1,63 @@
+package org.zendly.mediaconversionservice.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.zendly.mediaconversionservice.media.FetchedMedia;
+import org.zendly.mediaconversionservice.media.MediaFetcher;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Download, size check and hashing of corpus documents through MediaFetcher against a local stub server
+ * The scanned PDF is larger than media.fetch.memory-threshold-kb and exercises the spool-to-disk path
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class MediaDownloadBenchmark {
+
+    @Param({"PDF", "PNG", "WAV", "SCANNED_PDF"})
+    public CorpusDocument document;
+
+    private ConfigurableApplicationContext context;
+    private CorpusServer server;
+    private MediaFetcher mediaFetcher;
+    private String url;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        context = BenchmarkContext.start();
+        server = new CorpusServer();
+        mediaFetcher = context.getBean(MediaFetcher.class);
+        url = server.urlFor(document);
+    }
+
+    @Benchmark
+    public String download() throws IOException {
+        try (FetchedMedia media = mediaFetcher.fetch(url, Long.MAX_VALUE)) {
+            return media.getSha256();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        server.close();
+        context.close();
+    }
+}
@@ -0,0 +1,80 @@
+package org.zendly.mediaconversionservice.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.zendly.mediaconversionservice.config.TikaOcrConfig;
+import org.zendly.mediaconversionservice.constants.ApplicationConstants;
+import org.zendly.mediaconversionservice.dto.ConversionResponse;
+import org.zendly.mediaconversionservice.dto.DocumentResponse;
+import org.zendly.mediaconversionservice.media.FetchedMedia;
+import org.zendly.mediaconversionservice.media.MediaFetcher;
+import org.zendly.mediaconversionservice.service.TikaTextExtractor;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OCR of a scanned PDF through TikaTextExtractor, page-parallel engine versus single-pass Tika OCR
+ * Requires the tesseract binary and the configured language data on the PATH
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1, time = 20)
+@Measurement(iterations = 3, time = 20)
+@Fork(1)
+public class OcrExtractionBenchmark {
+
+    @Param({"SCANNED_PDF"})
+    public CorpusDocument document;
+
+    @Param({"true", "false"})
+    public boolean pageParallel;
+
+    private ConfigurableApplicationContext context;
+    private CorpusServer server;
+    private TikaTextExtractor extractor;
+    private DocumentResponse documentResponse;
+    private FetchedMedia media;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        context = BenchmarkContext.start();
+        context.getBean(TikaOcrConfig.class).setPageParallelEnabled(pageParallel);
+        server = new CorpusServer();
+        extractor = context.getBean(TikaTextExtractor.class);
+        documentResponse = document.toDocumentResponse(server);
+        media = context.getBean(MediaFetcher.class).fetch(documentResponse.getDownloadUrl(), Long.MAX_VALUE);
+
+        ConversionResponse probe = extract();
+        if (!ApplicationConstants.CONVERSION_SUCCESS.equals(probe.getStatus())
+                || probe.getExtractedText().isBlank()) {
+            throw new IllegalStateException("OCR of " + document + " produced no text - is tesseract installed? "
+                    + probe.getErrorMessage());
+        }
+    }
+
+    @Benchmark
+    public ConversionResponse extract() {
+        return extractor.convertWithTika(documentResponse, media, System.currentTimeMillis());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        media.close();
+        server.close();
+        context.close();
+    }
+}
@@ -0,0 +1,60 @@
+package org.zendly.mediaconversionservice.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.zendly.mediaconversionservice.dto.ProcessingStrategy;
+import org.zendly.mediaconversionservice.service.DocumentProcessingStrategy;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Strategy routing cost per request: one lookup in the routing table built at startup
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProcessingStrategyBenchmark {
+
+    @Param({
+            "application/pdf",
+            "application/vnd.openxmlformats-officedocument.wordprocessingml.document",
+            "text/plain",
+            "text/html; charset=UTF-8",
+            "application/x-unknown"
+    })
+    public String mimeType;
+
+    private ConfigurableApplicationContext context;
+    private DocumentProcessingStrategy strategy;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        strategy = context.getBean(DocumentProcessingStrategy.class);
+    }
+
+    @Benchmark
+    public ProcessingStrategy determineProcessingStrategy() {
+        return strategy.determineProcessingStrategy(mimeType);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+}
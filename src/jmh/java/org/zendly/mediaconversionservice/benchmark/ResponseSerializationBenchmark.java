@@ -0,0 +1,97 @@
+package org.zendly.mediaconversionservice.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.zendly.mediaconversionservice.constants.ApplicationConstants;
+import org.zendly.mediaconversionservice.dto.ConversionMetadata;
+import org.zendly.mediaconversionservice.dto.ConversionResponse;
+import org.zendly.mediaconversionservice.dto.DocumentType;
+import org.zendly.mediaconversionservice.dto.PageOcrDecision;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * JSON serialization of ConversionResponse, as written to clients and to the result cache,
+ * and deserialization, as read back from the cache
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseSerializationBenchmark {
+
+    /**
+     * Length of the extracted text; 100000 is the default tika.ocr.write-limit
+     */
+    @Param({"1000", "100000"})
+    public int textLength;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private ConversionResponse response;
+    private byte[] json;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        StringBuilder text = new StringBuilder(textLength);
+        while (text.length() < textLength) {
+            text.append("Invoice ").append(text.length()).append(" payment schedule renewal notice period. ");
+        }
+        text.setLength(textLength);
+
+        List<PageOcrDecision> decisions = IntStream.rangeClosed(1, 10)
+                .mapToObj(page -> PageOcrDecision.builder()
+                        .pageNumber(page)
+                        .characterCount(1700)
+                        .glyphCoverage(1.0)
+                        .imageAreaRatio(0.0)
+                        .ocrApplied(false)
+                        .reason("TEXT_LAYER")
+                        .build())
+                .toList();
+
+        response = ConversionResponse.builder()
+                .documentId("bench-document")
+                .extractedText(text.toString())
+                .status(ApplicationConstants.CONVERSION_SUCCESS)
+                .conversionMethod(ApplicationConstants.METHOD_TIKA)
+                .metadata(ConversionMetadata.builder()
+                        .originalFileName("sample.pdf")
+                        .mimeType("application/pdf")
+                        .documentType(DocumentType.DOCUMENT)
+                        .usedOcrFallback(false)
+                        .processingNotes("Text layer used for all 10 pages (no OCR)")
+                        .pageCount(10)
+                        .ocrPageCount(0)
+                        .pageDecisions(decisions)
+                        .build())
+                .processingTimeMs(42L)
+                .build();
+        json = objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public ConversionResponse deserialize() throws IOException {
+        return objectMapper.readValue(json, ConversionResponse.class);
+    }
+}
@@ -0,0 +1,83 @@
+package org.zendly.mediaconversionservice.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.zendly.mediaconversionservice.constants.ApplicationConstants;
+import org.zendly.mediaconversionservice.dto.ConversionResponse;
+import org.zendly.mediaconversionservice.dto.DocumentResponse;
+import org.zendly.mediaconversionservice.media.FetchedMedia;
+import org.zendly.mediaconversionservice.media.MediaFetcher;
+import org.zendly.mediaconversionservice.service.TikaTextExtractor;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Text-only extraction of born-digital documents through TikaTextExtractor
+ * The PDF goes through the text-layer pre-pass and ends up with no OCR pages. directDispatch compares
+ * calling the parser registered for the declared type with auto-detecting it, which matters most for
+ * small TXT, CSV and JSON files where detection is a large share of the work. fastPath compares the
+ * built-in TXT, CSV and JSON extractors with Tika; it has no effect on the other documents
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class TikaExtractionBenchmark {
+
+    @Param({"DOCX", "XLSX", "PDF", "TXT", "CSV", "JSON"})
+    public CorpusDocument document;
+
+    @Param({"true", "false"})
+    public boolean directDispatch;
+
+    @Param({"true", "false"})
+    public boolean fastPath;
+
+    private ConfigurableApplicationContext context;
+    private CorpusServer server;
+    private TikaTextExtractor extractor;
+    private DocumentResponse documentResponse;
+    private FetchedMedia media;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        context = BenchmarkContext.start("conversion.routing.direct-dispatch=" + directDispatch,
+                "conversion.routing.fast-path=" + fastPath);
+        server = new CorpusServer();
+        extractor = context.getBean(TikaTextExtractor.class);
+        documentResponse = document.toDocumentResponse(server);
+        media = context.getBean(MediaFetcher.class).fetch(documentResponse.getDownloadUrl(), Long.MAX_VALUE);
+
+        ConversionResponse probe = extract();
+        if (!ApplicationConstants.CONVERSION_SUCCESS.equals(probe.getStatus())) {
+            throw new IllegalStateException("Extraction of " + document + " failed: " + probe.getErrorMessage());
+        }
+    }
+
+    @Benchmark
+    public ConversionResponse extract() {
+        return extractor.convertWithTika(documentResponse, media, System.currentTimeMillis());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        media.close();
+        server.close();
+        context.close();
+    }
+}
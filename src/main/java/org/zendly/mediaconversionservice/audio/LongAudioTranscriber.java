@@ -0,0 +1,170 @@
+package org.zendly.mediaconversionservice.audio;
+
+import com.google.cloud.speech.v1.LongRunningRecognizeResponse;
+import com.google.cloud.speech.v1.RecognitionAudio;
+import com.google.cloud.speech.v1.RecognitionConfig;
+import com.google.cloud.speech.v1.RecognizeResponse;
+import com.google.cloud.speech.v1.SpeechClient;
+import com.google.cloud.speech.v1.SpeechRecognitionResult;
+import com.google.protobuf.ByteString;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+import org.zendly.mediaconversionservice.config.GoogleSpeechConfig;
+import org.zendly.mediaconversionservice.media.FetchedMedia;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+/**
+ * Transcribes recordings that exceed the synchronous Speech limit
+ * PCM WAV is cut into overlapping segments at pauses and the segments are recognized concurrently,
+ * so wall-clock time is roughly one segment's recognition time per {@code parallelism} segments;
+ * other formats fall back to a single long-running recognize operation
+ */
+@Slf4j
+@Component
+public class LongAudioTranscriber {
+
+    private final SpeechClient speechClient;
+    private final ExecutorService segmentExecutor;
+    private final GoogleSpeechConfig config;
+    private final GoogleSpeechConfig.LongAudio longAudio;
+
+    public LongAudioTranscriber(SpeechClient speechClient,
+                                @Qualifier("speechSegmentExecutor") ExecutorService segmentExecutor,
+                                GoogleSpeechConfig config) {
+        this.speechClient = speechClient;
+        this.segmentExecutor = segmentExecutor;
+        this.config = config;
+        this.longAudio = config.getLongAudio();
+        log.info("Long audio transcription configured - Enabled: {}, Sync max: {}s, Segment: {}s, Overlap: {}ms, Parallelism: {}",
+                longAudio.isEnabled(), longAudio.getSyncMaxSeconds(), longAudio.getSegmentSeconds(),
+                longAudio.getOverlapMs(), longAudio.getParallelism());
+    }
+
+    /**
+     * Transcript together with how it was produced
+     * @param segments number of recognize calls the audio was split into
+     */
+    public record Transcription(String text, int segments) {
+    }
+
+    public boolean isEnabled() {
+        return longAudio.isEnabled();
+    }
+
+    /**
+     * Read the WAV header, if the content is a PCM WAV
+     */
+    public Optional<WavFormat> probeWav(FetchedMedia media) throws IOException {
+        try (InputStream in = media.openStream()) {
+            return WavFormat.parse(in, media.getSize());
+        }
+    }
+
+    /**
+     * Whether the recording is too long for one synchronous call and can be segmented
+     */
+    public boolean requiresSegmentation(WavFormat format) {
+        return longAudio.isEnabled() && format.isPcm16()
+                && format.durationMs() > longAudio.getSyncMaxSeconds() * 1000L;
+    }
+
+    /**
+     * Split a PCM WAV at silence and recognize the segments concurrently
+     * @param baseConfig language and feature settings; encoding, sample rate and channels are taken from the header
+     */
+    public Transcription transcribeSegmented(FetchedMedia media, WavFormat format, RecognitionConfig baseConfig)
+            throws IOException, InterruptedException, ExecutionException, TimeoutException {
+        List<SilenceSegmenter.Segment> segments;
+        try (InputStream in = media.openStream()) {
+            in.skipNBytes(format.dataOffset());
+            segments = new SilenceSegmenter(longAudio.getSegmentSeconds() * 1000L, longAudio.getOverlapMs(),
+                    longAudio.getSilenceSearchMs()).segment(in, format);
+        }
+        log.debug("Split {}ms of audio into {} segments", format.durationMs(), segments.size());
+
+        RecognitionConfig segmentConfig = baseConfig.toBuilder()
+                .setEncoding(RecognitionConfig.AudioEncoding.LINEAR16)
+                .setSampleRateHertz(format.sampleRate())
+                .setAudioChannelCount(format.channels())
+                .build();
+
+        // Segments are read inside the task so at most `parallelism` of them are held in memory
+        List<Future<String>> futures = new ArrayList<>(segments.size());
+        for (SilenceSegmenter.Segment segment : segments) {
+            futures.add(segmentExecutor.submit(() -> recognizeSegment(media, segment, segmentConfig)));
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(config.getTimeoutSeconds());
+        List<String> transcripts = new ArrayList<>(segments.size());
+        try {
+            for (Future<String> future : futures) {
+                transcripts.add(future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+            }
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+        return new Transcription(TranscriptMerger.merge(transcripts), segments.size());
+    }
+
+    /**
+     * Whether the recording is small enough to be sent inline to a long-running operation
+     */
+    public boolean fitsInline(FetchedMedia media) {
+        return media.getSize() <= longAudio.getInlineMaxFileSizeMb() * 1024L * 1024L;
+    }
+
+    /**
+     * Recognize the whole recording with one long-running operation, polling until it completes
+     * Inline content is limited by the API, see {@link #fitsInline}; larger recordings need to be PCM WAV
+     * so they can be segmented
+     */
+    public Transcription transcribeLongRunning(FetchedMedia media, RecognitionConfig recognitionConfig)
+            throws IOException, InterruptedException, ExecutionException, TimeoutException {
+        ByteString content;
+        try (InputStream stream = media.openStream()) {
+            content = ByteString.readFrom(stream);
+        }
+        RecognitionAudio audio = RecognitionAudio.newBuilder().setContent(content).build();
+        Future<LongRunningRecognizeResponse> future = speechClient.longRunningRecognizeAsync(recognitionConfig, audio);
+        try {
+            LongRunningRecognizeResponse response = future.get(config.getTimeoutSeconds(), TimeUnit.SECONDS);
+            return new Transcription(joinResults(response.getResultsList()), 1);
+        } finally {
+            // Stops polling the operation when the wait times out or is interrupted
+            future.cancel(true);
+        }
+    }
+
+    private String recognizeSegment(FetchedMedia media, SilenceSegmenter.Segment segment, RecognitionConfig segmentConfig)
+            throws IOException {
+        RecognitionAudio audio = RecognitionAudio.newBuilder()
+                .setContent(ByteString.copyFrom(media.readRange(segment.offset(), segment.length())))
+                .build();
+        RecognizeResponse response = speechClient.recognize(segmentConfig, audio);
+        log.debug("Recognized segment at {}ms: {} results", segment.startMs(), response.getResultsCount());
+        return joinResults(response.getResultsList());
+    }
+
+    /**
+     * Top alternative of each result, in order
+     */
+    public static String joinResults(List<SpeechRecognitionResult> results) {
+        return results.stream()
+                .filter(result -> result.getAlternativesCount() > 0)
+                .map(result -> result.getAlternatives(0).getTranscript().trim())
+                .filter(transcript -> !transcript.isEmpty())
+                .collect(Collectors.joining(" "));
+    }
+}
@@ -0,0 +1,113 @@
+package org.zendly.mediaconversionservice.audio;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits 16-bit PCM audio into overlapping segments that end at the quietest point near a target length
+ * Cutting in pauses keeps words whole; the overlap gives the recognizer context at every boundary,
+ * and the duplicated words are removed again by {@link TranscriptMerger}
+ */
+public class SilenceSegmenter {
+
+    /**
+     * Analysis frame used for energy measurement, in milliseconds
+     */
+    static final int FRAME_MS = 20;
+
+    private final long segmentMs;
+    private final long overlapMs;
+    private final long silenceSearchMs;
+
+    public SilenceSegmenter(long segmentMs, long overlapMs, long silenceSearchMs) {
+        this.segmentMs = segmentMs;
+        this.overlapMs = overlapMs;
+        this.silenceSearchMs = Math.min(silenceSearchMs, segmentMs / 2);
+    }
+
+    /**
+     * Byte range of one segment within the WAV file
+     * @param offset absolute offset of the first byte
+     * @param length length in bytes, a whole number of sample frames
+     * @param startMs position of the segment in the recording
+     */
+    public record Segment(long offset, int length, long startMs) {
+    }
+
+    /**
+     * Plan the segments for the PCM data of a WAV file
+     * @param pcm stream positioned at the first PCM sample
+     */
+    public List<Segment> segment(InputStream pcm, WavFormat format) throws IOException {
+        int frameBytes = format.sampleRate() * FRAME_MS / 1000 * format.blockAlign();
+        double[] energy = frameEnergies(pcm, format, frameBytes);
+        int totalFrames = energy.length;
+
+        int segmentFrames = (int) (segmentMs / FRAME_MS);
+        int overlapFrames = (int) (overlapMs / FRAME_MS);
+        int searchFrames = (int) (silenceSearchMs / FRAME_MS);
+
+        List<Segment> segments = new ArrayList<>();
+        int start = 0;
+        while (start < totalFrames) {
+            int end = start + segmentFrames;
+            if (end >= totalFrames) {
+                end = totalFrames;
+            } else {
+                end = quietestFrame(energy, end - searchFrames, end);
+            }
+
+            long offset = format.dataOffset() + (long) start * frameBytes;
+            long endOffset = Math.min(format.dataOffset() + format.dataLength(),
+                    format.dataOffset() + (long) end * frameBytes);
+            segments.add(new Segment(offset, (int) (endOffset - offset), (long) start * FRAME_MS));
+
+            if (end == totalFrames) {
+                break;
+            }
+            start = Math.max(start + 1, end - overlapFrames);
+        }
+        return segments;
+    }
+
+    private static int quietestFrame(double[] energy, int from, int to) {
+        int quietest = to;
+        double lowest = Double.MAX_VALUE;
+        // Scan backwards so ties resolve to the latest cut and segments stay as long as allowed
+        for (int frame = to; frame >= from; frame--) {
+            if (energy[frame] < lowest) {
+                lowest = energy[frame];
+                quietest = frame;
+            }
+        }
+        return quietest;
+    }
+
+    /**
+     * Mean squared amplitude of each analysis frame, averaged over channels
+     */
+    private static double[] frameEnergies(InputStream pcm, WavFormat format, int frameBytes) throws IOException {
+        int totalFrames = (int) ((format.dataLength() + frameBytes - 1) / frameBytes);
+        double[] energy = new double[totalFrames];
+        byte[] frame = new byte[frameBytes];
+        InputStream in = new BufferedInputStream(pcm);
+
+        for (int index = 0; index < totalFrames; index++) {
+            int read = in.readNBytes(frame, 0, frameBytes);
+            if (read <= 0) {
+                break;
+            }
+            double sum = 0;
+            int samples = read / 2;
+            for (int i = 0; i + 1 < read; i += 2) {
+                short sample = (short) ((frame[i] & 0xFF) | frame[i + 1] << 8);
+                sum += (double) sample * sample;
+            }
+            energy[index] = samples == 0 ? 0 : sum / samples;
+        }
+        return energy;
+    }
+}
@@ -0,0 +1,183 @@
+package org.zendly.mediaconversionservice.audio;
+
+import com.google.api.gax.rpc.ClientStream;
+import com.google.api.gax.rpc.ResponseObserver;
+import com.google.api.gax.rpc.StreamController;
+import com.google.cloud.speech.v1.RecognitionConfig;
+import com.google.cloud.speech.v1.SpeechClient;
+import com.google.cloud.speech.v1.StreamingRecognitionConfig;
+import com.google.cloud.speech.v1.StreamingRecognitionResult;
+import com.google.cloud.speech.v1.StreamingRecognizeRequest;
+import com.google.cloud.speech.v1.StreamingRecognizeResponse;
+import com.google.protobuf.ByteString;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.zendly.mediaconversionservice.config.GoogleSpeechConfig;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Transcribes audio while it is still downloading
+ * Chunks read from the download are forwarded to streamingRecognize as they arrive, so transfer and
+ * recognition overlap and only one chunk is held in memory. PCM WAV longer than the per-stream limit is
+ * spread over consecutive streams.
+ */
+@Slf4j
+@Component
+public class StreamingSpeechRecognizer {
+
+    /**
+     * Bytes buffered to find the start of the PCM data; headers with larger metadata chunks are sent as-is
+     */
+    private static final int HEADER_PROBE_BYTES = 64 * 1024;
+
+    private final SpeechClient speechClient;
+    private final GoogleSpeechConfig config;
+    private final GoogleSpeechConfig.Streaming streaming;
+
+    public StreamingSpeechRecognizer(SpeechClient speechClient, GoogleSpeechConfig config) {
+        this.speechClient = speechClient;
+        this.config = config;
+        this.streaming = config.getStreaming();
+        log.info("Streaming speech recognition configured - Enabled: {}, Chunk: {} bytes, Max stream: {}s",
+                streaming.isEnabled(), streaming.getChunkBytes(), streaming.getMaxStreamSeconds());
+    }
+
+    public boolean isEnabled() {
+        return streaming.isEnabled();
+    }
+
+    /**
+     * Transcribe the audio read from the given stream
+     * @param baseConfig recognition settings; for PCM WAV the sample rate and channels come from the header
+     * @throws IOException if reading the audio fails, or the recognition fails or times out
+     */
+    public String transcribe(InputStream audio, RecognitionConfig baseConfig) throws IOException {
+        long startTime = System.currentTimeMillis();
+        BufferedInputStream in = new BufferedInputStream(audio, Math.max(streaming.getChunkBytes(), HEADER_PROBE_BYTES));
+        RecognitionConfig recognitionConfig = baseConfig;
+        long bytesPerStream = Long.MAX_VALUE;
+
+        if (baseConfig.getEncoding() == RecognitionConfig.AudioEncoding.LINEAR16) {
+            // The header is not audio; parse it off the front so only PCM samples are streamed
+            in.mark(HEADER_PROBE_BYTES);
+            Optional<WavFormat> wavFormat = WavFormat.parse(in, Long.MAX_VALUE);
+            if (wavFormat.isPresent() && wavFormat.get().isPcm16()) {
+                WavFormat format = wavFormat.get();
+                recognitionConfig = baseConfig.toBuilder()
+                        .setSampleRateHertz(format.sampleRate())
+                        .setAudioChannelCount(format.channels())
+                        .build();
+                long bytesPerSecond = (long) format.sampleRate() * format.blockAlign();
+                bytesPerStream = bytesPerSecond * streaming.getMaxStreamSeconds();
+            } else {
+                in.reset();
+            }
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(config.getTimeoutSeconds());
+        byte[] chunk = new byte[streaming.getChunkBytes()];
+        List<String> transcripts = new ArrayList<>();
+        boolean endOfAudio = false;
+        while (!endOfAudio) {
+            StreamSession session = new StreamSession(startTime);
+            ClientStream<StreamingRecognizeRequest> requests = speechClient.streamingRecognizeCallable().splitCall(session);
+            requests.send(StreamingRecognizeRequest.newBuilder()
+                    .setStreamingConfig(StreamingRecognitionConfig.newBuilder().setConfig(recognitionConfig))
+                    .build());
+
+            long sent = 0;
+            try {
+                while (sent < bytesPerStream && !session.result.isDone()) {
+                    int read = in.readNBytes(chunk, 0, (int) Math.min(chunk.length, bytesPerStream - sent));
+                    if (read == 0) {
+                        endOfAudio = true;
+                        break;
+                    }
+                    requests.send(StreamingRecognizeRequest.newBuilder()
+                            .setAudioContent(ByteString.copyFrom(chunk, 0, read))
+                            .build());
+                    sent += read;
+                }
+            } catch (IOException | RuntimeException e) {
+                requests.closeSendWithError(e);
+                throw e;
+            }
+            requests.closeSend();
+            transcripts.add(await(session, deadline));
+
+            if (!endOfAudio) {
+                in.mark(1);
+                endOfAudio = in.read() == -1;
+                in.reset();
+            }
+        }
+
+        log.debug("Streaming recognition of {} streams completed in {}ms",
+                transcripts.size(), System.currentTimeMillis() - startTime);
+        return String.join(" ", transcripts.stream().filter(transcript -> !transcript.isEmpty()).toList());
+    }
+
+    private static String await(StreamSession session, long deadline) throws IOException {
+        try {
+            return session.result.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for streaming recognition");
+        } catch (ExecutionException e) {
+            throw new IOException("Streaming recognition failed: " + e.getCause().getMessage(), e.getCause());
+        } catch (TimeoutException e) {
+            throw new IOException("Streaming recognition timed out", e);
+        }
+    }
+
+    /**
+     * Collects the final results of one stream
+     */
+    private static class StreamSession implements ResponseObserver<StreamingRecognizeResponse> {
+
+        private final long startTime;
+        private final List<String> finals = new ArrayList<>();
+        private final CompletableFuture<String> result = new CompletableFuture<>();
+
+        StreamSession(long startTime) {
+            this.startTime = startTime;
+        }
+
+        @Override
+        public void onStart(StreamController controller) {
+        }
+
+        @Override
+        public void onResponse(StreamingRecognizeResponse response) {
+            for (StreamingRecognitionResult recognitionResult : response.getResultsList()) {
+                if (recognitionResult.getIsFinal() && recognitionResult.getAlternativesCount() > 0) {
+                    if (finals.isEmpty()) {
+                        log.debug("First final transcript after {}ms", System.currentTimeMillis() - startTime);
+                    }
+                    finals.add(recognitionResult.getAlternatives(0).getTranscript().trim());
+                }
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            result.completeExceptionally(t);
+        }
+
+        @Override
+        public void onComplete() {
+            result.complete(String.join(" ", finals.stream().filter(transcript -> !transcript.isEmpty()).toList()));
+        }
+    }
+}
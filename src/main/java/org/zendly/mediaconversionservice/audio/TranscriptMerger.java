@@ -0,0 +1,57 @@
+package org.zendly.mediaconversionservice.audio;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Joins transcripts of overlapping audio segments, dropping the words both sides of a boundary heard
+ */
+public final class TranscriptMerger {
+
+    /**
+     * Longest run of words searched for at a boundary; a 1.5s overlap rarely holds more than a handful
+     */
+    private static final int MAX_OVERLAP_WORDS = 12;
+
+    private TranscriptMerger() {
+    }
+
+    /**
+     * Merge segment transcripts in recording order
+     */
+    public static String merge(List<String> transcripts) {
+        List<String> words = new ArrayList<>();
+        for (String transcript : transcripts) {
+            if (transcript == null || transcript.isBlank()) {
+                continue;
+            }
+            List<String> next = Arrays.asList(transcript.trim().split("\\s+"));
+            int overlap = overlap(words, next);
+            words.addAll(next.subList(overlap, next.size()));
+        }
+        return String.join(" ", words);
+    }
+
+    /**
+     * Length of the longest suffix of {@code previous} that equals a prefix of {@code next}, ignoring case and punctuation
+     */
+    private static int overlap(List<String> previous, List<String> next) {
+        int max = Math.min(MAX_OVERLAP_WORDS, Math.min(previous.size(), next.size()));
+        for (int length = max; length > 0; length--) {
+            boolean matches = true;
+            for (int i = 0; i < length && matches; i++) {
+                matches = normalize(previous.get(previous.size() - length + i)).equals(normalize(next.get(i)));
+            }
+            if (matches) {
+                return length;
+            }
+        }
+        return 0;
+    }
+
+    private static String normalize(String word) {
+        return word.replaceAll("[\\p{Punct}]", "").toLowerCase(Locale.ROOT);
+    }
+}
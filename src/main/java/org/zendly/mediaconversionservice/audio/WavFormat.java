@@ -0,0 +1,108 @@
+package org.zendly.mediaconversionservice.audio;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+/**
+ * Layout of a RIFF/WAVE file as far as segmentation needs it
+ * @param channels number of interleaved channels
+ * @param sampleRate samples per second per channel
+ * @param bitsPerSample bits per sample per channel
+ * @param blockAlign bytes per sample frame across all channels
+ * @param dataOffset byte offset of the first PCM sample
+ * @param dataLength length of the PCM data in bytes
+ */
+public record WavFormat(int channels, int sampleRate, int bitsPerSample, int blockAlign,
+                        long dataOffset, long dataLength) {
+
+    private static final int FORMAT_PCM = 1;
+    private static final int FORMAT_EXTENSIBLE = 0xFFFE;
+
+    /**
+     * Whether the data is 16-bit PCM, the only layout sent to Speech as LINEAR16
+     */
+    public boolean isPcm16() {
+        return bitsPerSample == 16 && blockAlign == channels * 2;
+    }
+
+    /**
+     * Audio duration in milliseconds
+     */
+    public long durationMs() {
+        return dataLength / blockAlign * 1000L / sampleRate;
+    }
+
+    /**
+     * Parse the RIFF header
+     * @param inputStream stream positioned at the start of the file
+     * @param totalSize size of the whole file, used when the data chunk length is unset (streamed WAV)
+     * @return the format, or empty if the content is not an uncompressed PCM WAV
+     */
+    public static Optional<WavFormat> parse(InputStream inputStream, long totalSize) throws IOException {
+        DataInputStream in = new DataInputStream(inputStream);
+        try {
+            if (!"RIFF".equals(readTag(in))) {
+                return Optional.empty();
+            }
+            readUInt32(in);
+            if (!"WAVE".equals(readTag(in))) {
+                return Optional.empty();
+            }
+
+            long offset = 12;
+            Integer channels = null;
+            int sampleRate = 0;
+            int bitsPerSample = 0;
+            int blockAlign = 0;
+            while (true) {
+                String chunkId = readTag(in);
+                long chunkSize = readUInt32(in);
+                offset += 8;
+
+                if ("fmt ".equals(chunkId)) {
+                    int audioFormat = readUInt16(in);
+                    if (audioFormat != FORMAT_PCM && audioFormat != FORMAT_EXTENSIBLE) {
+                        return Optional.empty();
+                    }
+                    channels = readUInt16(in);
+                    sampleRate = (int) readUInt32(in);
+                    readUInt32(in);
+                    blockAlign = readUInt16(in);
+                    bitsPerSample = readUInt16(in);
+                    in.skipNBytes(chunkSize - 16 + (chunkSize & 1));
+                } else if ("data".equals(chunkId)) {
+                    if (channels == null || blockAlign == 0 || sampleRate == 0) {
+                        return Optional.empty();
+                    }
+                    long dataLength = chunkSize == 0 || chunkSize == 0xFFFFFFFFL || offset + chunkSize > totalSize
+                            ? totalSize - offset : chunkSize;
+                    return Optional.of(new WavFormat(channels, sampleRate, bitsPerSample, blockAlign, offset,
+                            dataLength - dataLength % blockAlign));
+                } else {
+                    in.skipNBytes(chunkSize + (chunkSize & 1));
+                }
+                offset += chunkSize + (chunkSize & 1);
+            }
+        } catch (EOFException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static String readTag(DataInputStream in) throws IOException {
+        byte[] tag = new byte[4];
+        in.readFully(tag);
+        return new String(tag, StandardCharsets.US_ASCII);
+    }
+
+    private static int readUInt16(DataInputStream in) throws IOException {
+        return in.readUnsignedByte() | in.readUnsignedByte() << 8;
+    }
+
+    private static long readUInt32(DataInputStream in) throws IOException {
+        return readUInt16(in) | (long) readUInt16(in) << 16;
+    }
+}
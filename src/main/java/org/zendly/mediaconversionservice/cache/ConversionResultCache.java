@@ -0,0 +1,284 @@
+package org.zendly.mediaconversionservice.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.zendly.mediaconversionservice.config.ConversionCacheConfig;
+import org.zendly.mediaconversionservice.dto.ConversionResponse;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Two-tier cache of successful conversion results keyed by content hash and conversion parameters
+ * The heap tier is an LRU bounded by serialized size; entries evicted from it are demoted to a
+ * disk tier of JSON files that are read back through memory-mapped buffers
+ */
+@Slf4j
+@Component
+public class ConversionResultCache {
+
+    private static final String FILE_SUFFIX = ".json";
+    private static final String METRIC_REQUESTS = "conversion.cache.requests";
+    private static final String METRIC_EVICTIONS = "conversion.cache.evictions";
+    private static final String METRIC_SIZE = "conversion.cache.size.bytes";
+
+    private final ConversionCacheConfig config;
+    private final ObjectMapper objectMapper;
+
+    private final LinkedHashMap<String, byte[]> memoryTier = new LinkedHashMap<>(16, 0.75f, true);
+    private long memoryBytes;
+    private final LinkedHashMap<String, Long> diskIndex = new LinkedHashMap<>(16, 0.75f, true);
+    private long diskBytes;
+    private Path diskDir;
+
+    private final Counter memoryHits;
+    private final Counter diskHits;
+    private final Counter misses;
+    private final Counter memoryEvictions;
+    private final Counter diskEvictions;
+
+    public ConversionResultCache(ConversionCacheConfig config, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.objectMapper = objectMapper;
+        this.memoryHits = Counter.builder(METRIC_REQUESTS).tag("result", "hit").tag("tier", "memory")
+                .register(meterRegistry);
+        this.diskHits = Counter.builder(METRIC_REQUESTS).tag("result", "hit").tag("tier", "disk")
+                .register(meterRegistry);
+        this.misses = Counter.builder(METRIC_REQUESTS).tag("result", "miss").tag("tier", "none")
+                .register(meterRegistry);
+        this.memoryEvictions = Counter.builder(METRIC_EVICTIONS).tag("tier", "memory").register(meterRegistry);
+        this.diskEvictions = Counter.builder(METRIC_EVICTIONS).tag("tier", "disk").register(meterRegistry);
+        Gauge.builder(METRIC_SIZE, this, cache -> cache.memoryBytes).tag("tier", "memory").register(meterRegistry);
+        Gauge.builder(METRIC_SIZE, this, cache -> cache.diskBytes).tag("tier", "disk").register(meterRegistry);
+    }
+
+    /**
+     * Prepare the disk tier, re-indexing entries left by a previous run
+     */
+    @PostConstruct
+    public void init() {
+        if (!config.isEnabled() || !config.isDiskEnabled()) {
+            return;
+        }
+        try {
+            Path dir = Paths.get(config.getDiskDir());
+            Files.createDirectories(dir);
+            try (Stream<Path> files = Files.list(dir)) {
+                files.filter(file -> file.getFileName().toString().endsWith(FILE_SUFFIX))
+                        .sorted(Comparator.comparingLong(ConversionResultCache::lastModified))
+                        .forEach(this::indexExistingFile);
+            }
+            this.diskDir = dir;
+            log.info("Conversion result disk cache ready at {} - {} entries, {} bytes",
+                    dir, diskIndex.size(), diskBytes);
+        } catch (IOException e) {
+            log.warn("Conversion result disk cache disabled, cannot use {}: {}", config.getDiskDir(), e.getMessage());
+        }
+    }
+
+    /**
+     * Build a cache key from the content hash and every parameter that influences the result
+     */
+    public static String buildKey(String contentHash, Object... parameters) {
+        StringBuilder material = new StringBuilder(contentHash);
+        for (Object parameter : parameters) {
+            material.append('|').append(parameter);
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(material.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Look up a cached result, checking the heap tier first and then the disk tier
+     * @return an independent copy of the cached response, or empty on a miss
+     */
+    public Optional<ConversionResponse> get(String key) {
+        if (!config.isEnabled()) {
+            return Optional.empty();
+        }
+        try {
+            byte[] bytes;
+            synchronized (memoryTier) {
+                bytes = memoryTier.get(key);
+            }
+            if (bytes != null) {
+                memoryHits.increment();
+                return Optional.of(objectMapper.readValue(bytes, ConversionResponse.class));
+            }
+
+            bytes = readFromDisk(key);
+            if (bytes != null) {
+                diskHits.increment();
+                putInMemory(key, bytes);
+                return Optional.of(objectMapper.readValue(bytes, ConversionResponse.class));
+            }
+        } catch (IOException e) {
+            log.warn("Failed to read cached conversion result {}: {}", key, e.getMessage());
+        }
+        misses.increment();
+        return Optional.empty();
+    }
+
+    /**
+     * Store a successful conversion result in the heap tier
+     */
+    public void put(String key, ConversionResponse response) {
+        if (!config.isEnabled()) {
+            return;
+        }
+        try {
+            putInMemory(key, objectMapper.writeValueAsBytes(response));
+        } catch (IOException e) {
+            log.warn("Failed to cache conversion result {}: {}", key, e.getMessage());
+        }
+    }
+
+    private void putInMemory(String key, byte[] bytes) {
+        long maxBytes = config.getMemoryMaxMb() * 1024L * 1024L;
+        if (bytes.length > maxBytes) {
+            writeToDisk(key, bytes);
+            return;
+        }
+
+        List<Map.Entry<String, byte[]>> evicted = new ArrayList<>();
+        synchronized (memoryTier) {
+            byte[] previous = memoryTier.put(key, bytes);
+            memoryBytes += bytes.length - (previous != null ? previous.length : 0);
+            Iterator<Map.Entry<String, byte[]>> iterator = memoryTier.entrySet().iterator();
+            while (memoryBytes > maxBytes && iterator.hasNext()) {
+                Map.Entry<String, byte[]> eldest = iterator.next();
+                iterator.remove();
+                memoryBytes -= eldest.getValue().length;
+                evicted.add(eldest);
+            }
+        }
+
+        // Demote outside the lock so disk I/O never blocks heap lookups
+        for (Map.Entry<String, byte[]> entry : evicted) {
+            memoryEvictions.increment();
+            writeToDisk(entry.getKey(), entry.getValue());
+        }
+    }
+
+    private byte[] readFromDisk(String key) throws IOException {
+        if (diskDir == null) {
+            return null;
+        }
+        synchronized (diskIndex) {
+            if (diskIndex.get(key) == null) {
+                return null;
+            }
+        }
+        Path file = diskDir.resolve(key + FILE_SUFFIX);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.get(bytes);
+            return bytes;
+        } catch (IOException e) {
+            // Entry was evicted concurrently or the file was removed externally
+            removeFromIndex(key);
+            return null;
+        }
+    }
+
+    private void writeToDisk(String key, byte[] bytes) {
+        if (diskDir == null) {
+            return;
+        }
+        long maxBytes = config.getDiskMaxMb() * 1024L * 1024L;
+        if (bytes.length > maxBytes) {
+            return;
+        }
+        Path file = diskDir.resolve(key + FILE_SUFFIX);
+        try {
+            Path tempFile = Files.createTempFile(diskDir, "entry-", ".tmp");
+            Files.write(tempFile, bytes);
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Failed to write conversion result {} to disk cache: {}", key, e.getMessage());
+            return;
+        }
+
+        List<String> evicted = new ArrayList<>();
+        synchronized (diskIndex) {
+            Long previous = diskIndex.put(key, (long) bytes.length);
+            diskBytes += bytes.length - (previous != null ? previous : 0L);
+            Iterator<Map.Entry<String, Long>> iterator = diskIndex.entrySet().iterator();
+            while (diskBytes > maxBytes && iterator.hasNext()) {
+                Map.Entry<String, Long> eldest = iterator.next();
+                if (eldest.getKey().equals(key)) {
+                    continue;
+                }
+                iterator.remove();
+                diskBytes -= eldest.getValue();
+                evicted.add(eldest.getKey());
+            }
+        }
+
+        for (String evictedKey : evicted) {
+            diskEvictions.increment();
+            try {
+                Files.deleteIfExists(diskDir.resolve(evictedKey + FILE_SUFFIX));
+            } catch (IOException e) {
+                log.warn("Failed to delete evicted disk cache entry {}: {}", evictedKey, e.getMessage());
+            }
+        }
+    }
+
+    private void removeFromIndex(String key) {
+        synchronized (diskIndex) {
+            Long size = diskIndex.remove(key);
+            if (size != null) {
+                diskBytes -= size;
+            }
+        }
+    }
+
+    private void indexExistingFile(Path file) {
+        String fileName = file.getFileName().toString();
+        String key = fileName.substring(0, fileName.length() - FILE_SUFFIX.length());
+        try {
+            long size = Files.size(file);
+            diskIndex.put(key, size);
+            diskBytes += size;
+        } catch (IOException e) {
+            log.debug("Skipping unreadable disk cache entry {}", file);
+        }
+    }
+
+    private static long lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return 0L;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package org.zendly.mediaconversionservice.client;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-host metrics of the shared HTTP client
+ * Requests are timed by client, host, status and protocol, and in-flight requests are gauged per host,
+ * which shows how many connections (HTTP/1.1) or streams (HTTP/2) each host is holding
+ */
+@Component
+public class HttpClientMetrics {
+
+    public static final String CLIENT_ORCHESTRATOR = "orchestrator";
+    public static final String CLIENT_MEDIA = "media";
+
+    private static final String METRIC_REQUESTS = "http.client.host.requests";
+    private static final String METRIC_ACTIVE = "http.client.host.active";
+    private static final String NONE = "none";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, AtomicInteger> activeByHost = new ConcurrentHashMap<>();
+
+    public HttpClientMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Start measuring a request; close the exchange once the response has been consumed
+     * @param client logical client, e.g. {@link #CLIENT_MEDIA}
+     */
+    public Exchange start(String client, URI uri) {
+        String host = uri.getHost() != null ? uri.getHost() : NONE;
+        AtomicInteger active = activeByHost.computeIfAbsent(host, key -> {
+            AtomicInteger counter = new AtomicInteger();
+            Gauge.builder(METRIC_ACTIVE, counter, AtomicInteger::get)
+                    .description("In-flight requests of the shared HTTP client")
+                    .tag("host", key)
+                    .register(meterRegistry);
+            return counter;
+        });
+        active.incrementAndGet();
+        return new Exchange(client, host, active, System.nanoTime());
+    }
+
+    /**
+     * Running measurement of one request
+     */
+    public class Exchange implements AutoCloseable {
+
+        private final String client;
+        private final String host;
+        private final AtomicInteger active;
+        private final long startNanos;
+        private String status = "IO_ERROR";
+        private String protocol = NONE;
+
+        private Exchange(String client, String host, AtomicInteger active, long startNanos) {
+            this.client = client;
+            this.host = host;
+            this.active = active;
+            this.startNanos = startNanos;
+        }
+
+        public void status(int statusCode) {
+            this.status = String.valueOf(statusCode);
+        }
+
+        public void protocol(String protocol) {
+            this.protocol = protocol;
+        }
+
+        @Override
+        public void close() {
+            active.decrementAndGet();
+            Timer.builder(METRIC_REQUESTS)
+                    .description("Requests of the shared HTTP client")
+                    .tag("client", client)
+                    .tag("host", host)
+                    .tag("status", status)
+                    .tag("protocol", protocol)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package org.zendly.mediaconversionservice.client;
+
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+
+/**
+ * Records RestTemplate calls in the shared HTTP client's per-host metrics
+ */
+public class HttpClientMetricsInterceptor implements ClientHttpRequestInterceptor {
+
+    private final HttpClientMetrics metrics;
+    private final String client;
+
+    public HttpClientMetricsInterceptor(HttpClientMetrics metrics, String client) {
+        this.metrics = metrics;
+        this.client = client;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        try (HttpClientMetrics.Exchange exchange = metrics.start(client, request.getURI())) {
+            ClientHttpResponse response = execution.execute(request, body);
+            exchange.status(response.getStatusCode().value());
+            return response;
+        }
+    }
+}
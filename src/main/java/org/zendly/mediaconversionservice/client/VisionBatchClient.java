@@ -0,0 +1,170 @@
+package org.zendly.mediaconversionservice.client;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutureCallback;
+import com.google.api.core.ApiFutures;
+import com.google.cloud.vision.v1.AnnotateImageRequest;
+import com.google.cloud.vision.v1.AnnotateImageResponse;
+import com.google.cloud.vision.v1.BatchAnnotateImagesRequest;
+import com.google.cloud.vision.v1.BatchAnnotateImagesResponse;
+import com.google.cloud.vision.v1.ImageAnnotatorClient;
+import com.google.common.util.concurrent.MoreExecutors;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.zendly.mediaconversionservice.config.GoogleVisionConfig;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micro-batching front for the Vision ImageAnnotator
+ * Concurrent image requests are collected for a short window, or until the size or byte cap is hit,
+ * and sent as a single batchAnnotateImages call; each caller gets back its own AnnotateImageResponse
+ */
+@Slf4j
+@Component
+public class VisionBatchClient {
+
+    private static final String METRIC_BATCH_SIZE = "vision.batch.size";
+
+    private final ImageAnnotatorClient visionClient;
+    private final GoogleVisionConfig.Batch config;
+    private final DistributionSummary batchSizes;
+    private final ScheduledExecutorService scheduler;
+
+    private final Object lock = new Object();
+    private List<PendingRequest> pending = new ArrayList<>();
+    private long pendingBytes;
+    private ScheduledFuture<?> scheduledFlush;
+
+    public VisionBatchClient(ImageAnnotatorClient visionClient,
+                             GoogleVisionConfig visionConfig,
+                             MeterRegistry meterRegistry) {
+        this.visionClient = visionClient;
+        this.config = visionConfig.getBatch();
+        this.batchSizes = DistributionSummary.builder(METRIC_BATCH_SIZE)
+                .description("Images per Vision batchAnnotateImages call")
+                .register(meterRegistry);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "vision-batch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        log.info("Vision batching configured - Enabled: {}, Window: {}ms, Max size: {}, Max bytes: {}",
+                config.isEnabled(), config.getWindowMs(), config.getMaxSize(), config.getMaxBytes());
+    }
+
+    private record PendingRequest(AnnotateImageRequest request, long size,
+                                  CompletableFuture<AnnotateImageResponse> future) {
+    }
+
+    /**
+     * Queue an image for annotation
+     * @return future completed with this image's response, or exceptionally if the batch call fails
+     */
+    public CompletableFuture<AnnotateImageResponse> annotate(AnnotateImageRequest request) {
+        PendingRequest pendingRequest = new PendingRequest(request, request.getSerializedSize(), new CompletableFuture<>());
+        if (!config.isEnabled()) {
+            send(List.of(pendingRequest));
+            return pendingRequest.future();
+        }
+
+        List<List<PendingRequest>> ready = new ArrayList<>(2);
+        synchronized (lock) {
+            // Never let a batch grow past the byte cap; a single oversized image still goes out on its own
+            if (!pending.isEmpty() && pendingBytes + pendingRequest.size() > config.getMaxBytes()) {
+                ready.add(drain());
+            }
+            pending.add(pendingRequest);
+            pendingBytes += pendingRequest.size();
+            if (pending.size() >= config.getMaxSize()) {
+                ready.add(drain());
+            } else if (scheduledFlush == null) {
+                scheduledFlush = scheduler.schedule(this::flush, config.getWindowMs(), TimeUnit.MILLISECONDS);
+            }
+        }
+
+        ready.forEach(this::send);
+        return pendingRequest.future();
+    }
+
+    /**
+     * Send whatever is pending, called when the batching window closes
+     */
+    private void flush() {
+        List<PendingRequest> batch;
+        synchronized (lock) {
+            batch = drain();
+        }
+        if (!batch.isEmpty()) {
+            send(batch);
+        }
+    }
+
+    /**
+     * Take the pending batch; caller must hold the lock
+     */
+    private List<PendingRequest> drain() {
+        List<PendingRequest> batch = pending;
+        pending = new ArrayList<>();
+        pendingBytes = 0;
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+        return batch;
+    }
+
+    private void send(List<PendingRequest> batch) {
+        batchSizes.record(batch.size());
+        BatchAnnotateImagesRequest.Builder batchRequest = BatchAnnotateImagesRequest.newBuilder();
+        batch.forEach(pendingRequest -> batchRequest.addRequests(pendingRequest.request()));
+
+        ApiFuture<BatchAnnotateImagesResponse> call;
+        try {
+            call = visionClient.batchAnnotateImagesCallable().futureCall(batchRequest.build());
+        } catch (RuntimeException e) {
+            batch.forEach(pendingRequest -> pendingRequest.future().completeExceptionally(e));
+            return;
+        }
+
+        ApiFutures.addCallback(call, new ApiFutureCallback<>() {
+            @Override
+            public void onSuccess(BatchAnnotateImagesResponse response) {
+                log.debug("Vision batch of {} images completed", batch.size());
+                for (int i = 0; i < batch.size(); i++) {
+                    if (i < response.getResponsesCount()) {
+                        batch.get(i).future().complete(response.getResponses(i));
+                    } else {
+                        batch.get(i).future().completeExceptionally(new IllegalStateException(
+                                "Vision API returned " + response.getResponsesCount()
+                                        + " responses for " + batch.size() + " images"));
+                    }
+                }
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                log.error("Vision batch of {} images failed: {}", batch.size(), t.getMessage());
+                batch.forEach(pendingRequest -> pendingRequest.future().completeExceptionally(t));
+            }
+        }, MoreExecutors.directExecutor());
+    }
+
+    /**
+     * Send anything still waiting for its window before the client is closed
+     */
+    @PreDestroy
+    public void shutdown() {
+        flush();
+        scheduler.shutdownNow();
+    }
+}
@@ -13,6 +13,7 @@ import org.springframework.web.client.RestTemplate;
 import org.zendly.mediaconversionservice.constants.ApplicationConstants;
 import org.zendly.mediaconversionservice.context.TenantContext;
 import org.zendly.mediaconversionservice.context.TenantContextHolder;
+import org.zendly.mediaconversionservice.dto.ConversionJobResponse;
 import org.zendly.mediaconversionservice.dto.DocumentResponse;
 import org.zendly.mediaconversionservice.dto.TenantResponse;
 import org.zendly.mediaconversionservice.exception.WorkflowOrchestratorException;
@@ -35,6 +36,8 @@ public class WorkflowOrchestratorClient {
     private String getTenantEndpoint;
     @Value("${workflow.orchestrator.document-get.endpoint}")
     private String documentGetEndpoint;
+    @Value("${workflow.orchestrator.conversion-callback.endpoint}")
+    private String conversionCallbackEndpoint;
 
 
     public WorkflowOrchestratorClient(@Qualifier("workflowOrchestratorRestTemplate") RestTemplate restTemplate) {
@@ -81,6 +84,23 @@ public class WorkflowOrchestratorClient {
         }
     }
     
+    /**
+     * Deliver a finished conversion job to the workflow orchestrator
+     */
+    public void postConversionResult(String tenantId, ConversionJobResponse job) {
+        String url = orchestratorBaseUrl + conversionCallbackEndpoint;
+        url = url.replace("{documentId}", job.getDocumentId());
+        try {
+            HttpEntity<ConversionJobResponse> entity = createHttpEntity(job, Optional.ofNullable(tenantId));
+            log.info("Posting conversion result for job: {} document: {}", job.getJobId(), job.getDocumentId());
+            restTemplate.exchange(url, HttpMethod.POST, entity, Void.class);
+            log.info("Successfully posted conversion result for job: {}", job.getJobId());
+        } catch (RestClientException e) {
+            log.error("Failed to post conversion result for job: {}", job.getJobId(), e);
+            throw new WorkflowOrchestratorException("Failed to post conversion result for job: " + job.getJobId(), e);
+        }
+    }
+    
     /**
      * Create HTTP entity with tenant header and proper content type
      */
@@ -0,0 +1,102 @@
+package org.zendly.mediaconversionservice.concurrency;
+
+import lombok.extern.slf4j.Slf4j;
+import org.zendly.mediaconversionservice.exception.BulkheadFullException;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit with a bounded wait queue for a single conversion engine
+ * Callers run on their own thread; the bulkhead only decides whether they may start now,
+ * may wait for a bounded time, or are rejected straight away because the queue is full
+ */
+@Slf4j
+public class Bulkhead {
+
+    private final ConversionEngine engine;
+    private final int maxConcurrent;
+    private final int maxQueue;
+    private final long maxWaitMs;
+    private final long retryAfterSeconds;
+    private final Semaphore permits;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+
+    public Bulkhead(ConversionEngine engine, int maxConcurrent, int maxQueue, long maxWaitMs, long retryAfterSeconds) {
+        this.engine = engine;
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueue = maxQueue;
+        this.maxWaitMs = maxWaitMs;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.permits = new Semaphore(maxConcurrent, true);
+    }
+
+    /**
+     * Handle to an acquired slot, released on close
+     */
+    public interface Permit extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    /**
+     * Acquire a slot on the engine, waiting in the bounded queue if necessary
+     * @throws BulkheadFullException if the queue is full or the wait times out
+     */
+    public Permit acquire() {
+        if (!permits.tryAcquire()) {
+            waitForPermit();
+        }
+        active.incrementAndGet();
+        AtomicInteger released = new AtomicInteger();
+        return () -> {
+            if (released.compareAndSet(0, 1)) {
+                active.decrementAndGet();
+                permits.release();
+            }
+        };
+    }
+
+    private void waitForPermit() {
+        int position = queued.incrementAndGet();
+        try {
+            if (position > maxQueue) {
+                log.warn("Rejecting {} conversion - {} running, queue full ({})", engine, active.get(), maxQueue);
+                throw new BulkheadFullException(engine, retryAfterSeconds);
+            }
+            if (!permits.tryAcquire(maxWaitMs, TimeUnit.MILLISECONDS)) {
+                log.warn("Rejecting {} conversion - no slot within {}ms", engine, maxWaitMs);
+                throw new BulkheadFullException(engine, retryAfterSeconds);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BulkheadFullException(engine, retryAfterSeconds);
+        } finally {
+            queued.decrementAndGet();
+        }
+    }
+
+    public ConversionEngine getEngine() {
+        return engine;
+    }
+
+    /**
+     * Conversions currently waiting for a slot
+     */
+    public int getQueueDepth() {
+        return queued.get();
+    }
+
+    /**
+     * Conversions currently running on the engine
+     */
+    public int getActiveCount() {
+        return active.get();
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+}
@@ -0,0 +1,69 @@
+package org.zendly.mediaconversionservice.concurrency;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.zendly.mediaconversionservice.config.BulkheadConfig;
+import org.zendly.mediaconversionservice.exception.BulkheadFullException;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * Holds one bulkhead per conversion engine and publishes their queue depth and active workers
+ */
+@Slf4j
+@Component
+public class BulkheadRegistry {
+
+    private static final String METRIC_QUEUE_DEPTH = "conversion.bulkhead.queue.depth";
+    private static final String METRIC_ACTIVE = "conversion.bulkhead.active";
+    private static final String METRIC_MAX_CONCURRENT = "conversion.bulkhead.max.concurrent";
+
+    private final BulkheadConfig config;
+    private final Map<ConversionEngine, Bulkhead> bulkheads = new EnumMap<>(ConversionEngine.class);
+
+    public BulkheadRegistry(BulkheadConfig config, MeterRegistry meterRegistry) {
+        this.config = config;
+        for (ConversionEngine engine : ConversionEngine.values()) {
+            BulkheadConfig.EngineLimits limits = config.limitsFor(engine);
+            Bulkhead bulkhead = new Bulkhead(engine, limits.getMaxConcurrent(), limits.getMaxQueue(),
+                    limits.getMaxWaitMs(), limits.getRetryAfterSeconds());
+            bulkheads.put(engine, bulkhead);
+
+            String tag = engine.name().toLowerCase();
+            Gauge.builder(METRIC_QUEUE_DEPTH, bulkhead, Bulkhead::getQueueDepth).tag("engine", tag)
+                    .register(meterRegistry);
+            Gauge.builder(METRIC_ACTIVE, bulkhead, Bulkhead::getActiveCount).tag("engine", tag)
+                    .register(meterRegistry);
+            Gauge.builder(METRIC_MAX_CONCURRENT, bulkhead, Bulkhead::getMaxConcurrent).tag("engine", tag)
+                    .register(meterRegistry);
+
+            log.info("Bulkhead {} configured - Max concurrent: {}, Max queue: {}, Max wait: {}ms",
+                    engine, limits.getMaxConcurrent(), limits.getMaxQueue(), limits.getMaxWaitMs());
+        }
+    }
+
+    /**
+     * Acquire a slot on the given engine; a no-op permit when admission control is disabled
+     * @throws BulkheadFullException if the engine's queue is full
+     */
+    public Bulkhead.Permit acquire(ConversionEngine engine) {
+        if (!config.isEnabled()) {
+            return () -> { };
+        }
+        return bulkheads.get(engine).acquire();
+    }
+
+    /**
+     * Run the work while holding a slot on the given engine
+     * @throws BulkheadFullException if the engine's queue is full
+     */
+    public <T> T execute(ConversionEngine engine, Callable<T> work) throws Exception {
+        try (Bulkhead.Permit ignored = acquire(engine)) {
+            return work.call();
+        }
+    }
+}
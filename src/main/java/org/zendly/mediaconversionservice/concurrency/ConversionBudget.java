@@ -0,0 +1,104 @@
+package org.zendly.mediaconversionservice.concurrency;
+
+/**
+ * Time budget of one running conversion
+ * The watchdog marks the budget expired and interrupts the converting thread; extraction code checks
+ * {@link #isExpired()} to stop cooperatively and keep the text produced so far.
+ */
+public class ConversionBudget implements AutoCloseable {
+
+    /**
+     * Budget of conversions that run outside the watchdog; never expires
+     */
+    public static final ConversionBudget UNBOUNDED = new ConversionBudget(null, null, null, 0, 0, null);
+
+    public static final String REASON_WALL_CLOCK = "WALL_CLOCK";
+    public static final String REASON_CPU = "CPU";
+    public static final String REASON_CANCELLED = "CANCELLED";
+
+    private final ConversionWatchdog watchdog;
+    private final Thread thread;
+    private final String mimeType;
+    private final long startNanos;
+    private final long startCpuNanos;
+    private final ConversionCancellation cancellation;
+    private volatile String expiredReason;
+    private boolean closed;
+
+    ConversionBudget(ConversionWatchdog watchdog, Thread thread, String mimeType, long startNanos, long startCpuNanos,
+                     ConversionCancellation cancellation) {
+        this.watchdog = watchdog;
+        this.thread = thread;
+        this.mimeType = mimeType;
+        this.startNanos = startNanos;
+        this.startCpuNanos = startCpuNanos;
+        this.cancellation = cancellation;
+    }
+
+    public boolean isExpired() {
+        return expiredReason != null;
+    }
+
+    /**
+     * Why the budget expired (WALL_CLOCK, CPU or CANCELLED), or null while it is still running
+     */
+    public String getExpiredReason() {
+        return expiredReason;
+    }
+
+    /**
+     * Stop the conversion because the client went away, see {@link ConversionCancellation}
+     */
+    public void cancel() {
+        expire(REASON_CANCELLED);
+    }
+
+    /**
+     * Mark the budget expired and interrupt the converting thread
+     * @return false if it had already expired
+     */
+    synchronized boolean expire(String reason) {
+        if (expiredReason != null || closed || thread == null) {
+            return false;
+        }
+        expiredReason = reason;
+        thread.interrupt();
+        return true;
+    }
+
+    Thread getThread() {
+        return thread;
+    }
+
+    String getMimeType() {
+        return mimeType;
+    }
+
+    long getStartNanos() {
+        return startNanos;
+    }
+
+    long getStartCpuNanos() {
+        return startCpuNanos;
+    }
+
+    /**
+     * End the budget; clears an interrupt raised by the watchdog so the thread can be reused
+     */
+    @Override
+    public void close() {
+        if (watchdog == null) {
+            return;
+        }
+        watchdog.release(this);
+        if (cancellation != null) {
+            cancellation.unregister(this);
+        }
+        synchronized (this) {
+            closed = true;
+            if (expiredReason != null) {
+                Thread.interrupted();
+            }
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package org.zendly.mediaconversionservice.concurrency;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cancels the conversions behind one streamed response when its client goes away
+ * Budgets the watchdog starts on a thread bound to it are registered automatically. A failed write to the
+ * guarded response stream, or the async request timing out or failing, cancels them and any started later.
+ * Conversions outside the watchdog (conversion.watchdog.enabled=false) cannot be cancelled.
+ */
+@Slf4j
+public class ConversionCancellation {
+
+    private static final ThreadLocal<ConversionCancellation> current = new ThreadLocal<>();
+
+    private final String name;
+    private final Set<ConversionBudget> budgets = ConcurrentHashMap.newKeySet();
+    private volatile boolean cancelled;
+
+    /**
+     * @param name what is being streamed, for logging
+     */
+    public ConversionCancellation(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Binding of a cancellation to a thread; closing it restores the previous binding
+     */
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+
+    /**
+     * Bind to the current thread so conversions it starts are cancelled with this response
+     */
+    public Scope bind() {
+        ConversionCancellation previous = current.get();
+        current.set(this);
+        return () -> {
+            if (previous != null) {
+                current.set(previous);
+            } else {
+                current.remove();
+            }
+        };
+    }
+
+    /**
+     * Cancellation bound to the current thread, or null
+     */
+    static ConversionCancellation current() {
+        return current.get();
+    }
+
+    void register(ConversionBudget budget) {
+        budgets.add(budget);
+        if (cancelled) {
+            budget.cancel();
+        }
+    }
+
+    void unregister(ConversionBudget budget) {
+        budgets.remove(budget);
+    }
+
+    /**
+     * Stop every running conversion of this response and any it starts from now on
+     */
+    public void cancel() {
+        if (cancelled) {
+            return;
+        }
+        cancelled = true;
+        log.warn("Client of {} went away, cancelling {} running conversions", name, budgets.size());
+        budgets.forEach(ConversionBudget::cancel);
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Response stream that cancels on the first failed write or flush
+     */
+    public OutputStream guard(OutputStream outputStream) {
+        return new FilterOutputStream(outputStream) {
+
+            @Override
+            public void write(int b) throws IOException {
+                try {
+                    out.write(b);
+                } catch (IOException e) {
+                    cancel();
+                    throw e;
+                }
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                try {
+                    out.write(b, off, len);
+                } catch (IOException e) {
+                    cancel();
+                    throw e;
+                }
+            }
+
+            @Override
+            public void flush() throws IOException {
+                try {
+                    out.flush();
+                } catch (IOException e) {
+                    cancel();
+                    throw e;
+                }
+            }
+        };
+    }
+
+    /**
+     * Async request interceptor that cancels when the request times out or the container reports an error,
+     * e.g. a disconnect noticed while no write was in progress
+     */
+    public CallableProcessingInterceptor asyncInterceptor() {
+        return new CallableProcessingInterceptor() {
+
+            @Override
+            public <T> Object handleTimeout(NativeWebRequest request, Callable<T> task) {
+                cancel();
+                return RESULT_NONE;
+            }
+
+            @Override
+            public <T> Object handleError(NativeWebRequest request, Callable<T> task, Throwable t) {
+                cancel();
+                return RESULT_NONE;
+            }
+        };
+    }
+}
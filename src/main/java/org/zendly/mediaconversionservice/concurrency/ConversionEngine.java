@@ -0,0 +1,11 @@
+package org.zendly.mediaconversionservice.concurrency;
+
+/**
+ * Conversion engines isolated from each other by their own bulkhead
+ */
+public enum ConversionEngine {
+    TEXT,
+    OCR,
+    VISION,
+    SPEECH
+}
@@ -0,0 +1,145 @@
+package org.zendly.mediaconversionservice.concurrency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.zendly.mediaconversionservice.config.ConversionWatchdogConfig;
+import org.zendly.mediaconversionservice.metrics.ConversionMetrics;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Enforces a wall-clock and CPU-time budget on every running conversion, whatever the engine
+ * A background check interrupts conversions that overrun; the budget of the current thread is
+ * available through {@link #currentBudget()} so extractors can stop cooperatively and return partial text
+ */
+@Slf4j
+@Component
+public class ConversionWatchdog {
+
+    private static final String METRIC_TIMEOUTS = "conversion.timeouts";
+
+    private static final ThreadLocal<ConversionBudget> currentBudget = new ThreadLocal<>();
+
+    private final ConversionWatchdogConfig config;
+    private final MeterRegistry meterRegistry;
+    private final ConversionMetrics conversionMetrics;
+    private final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+    private final boolean cpuTimeSupported;
+    private final Set<ConversionBudget> running = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService scheduler;
+
+    public ConversionWatchdog(ConversionWatchdogConfig config, MeterRegistry meterRegistry,
+                              ConversionMetrics conversionMetrics) {
+        this.config = config;
+        this.meterRegistry = meterRegistry;
+        this.conversionMetrics = conversionMetrics;
+        this.cpuTimeSupported = threadMXBean.isThreadCpuTimeSupported();
+        if (cpuTimeSupported && !threadMXBean.isThreadCpuTimeEnabled()) {
+            threadMXBean.setThreadCpuTimeEnabled(true);
+        }
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "conversion-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (config.isEnabled()) {
+            scheduler.scheduleWithFixedDelay(this::check, config.getCheckIntervalMs(), config.getCheckIntervalMs(),
+                    TimeUnit.MILLISECONDS);
+        }
+        log.info("Conversion watchdog configured - Enabled: {}, Wall clock: {}s, CPU: {}s (supported: {})",
+                config.isEnabled(), config.getWallClockSeconds(), config.getCpuSeconds(), cpuTimeSupported);
+    }
+
+    /**
+     * Budget of the conversion running on the current thread, or {@link ConversionBudget#UNBOUNDED}
+     */
+    public static ConversionBudget currentBudget() {
+        ConversionBudget budget = currentBudget.get();
+        return budget != null ? budget : ConversionBudget.UNBOUNDED;
+    }
+
+    /**
+     * Start the budget of a conversion running on the current thread; close it when the conversion ends
+     * Nested calls on the same thread share the outer budget. A budget started on a thread bound to a
+     * {@link ConversionCancellation} is cancelled with it
+     * @param mimeType used to tag timeout metrics
+     */
+    public ConversionBudget start(String mimeType) {
+        if (!config.isEnabled() || currentBudget.get() != null) {
+            return ConversionBudget.UNBOUNDED;
+        }
+        Thread thread = Thread.currentThread();
+        ConversionCancellation cancellation = ConversionCancellation.current();
+        ConversionBudget budget = new ConversionBudget(this, thread, mimeType, System.nanoTime(), cpuTime(thread),
+                cancellation);
+        running.add(budget);
+        currentBudget.set(budget);
+        if (cancellation != null) {
+            cancellation.register(budget);
+        }
+        return budget;
+    }
+
+    void release(ConversionBudget budget) {
+        running.remove(budget);
+        if (currentBudget.get() == budget) {
+            currentBudget.remove();
+        }
+    }
+
+    private void check() {
+        long now = System.nanoTime();
+        long wallLimit = TimeUnit.SECONDS.toNanos(config.getWallClockSeconds());
+        long cpuLimit = TimeUnit.SECONDS.toNanos(config.getCpuSeconds());
+        for (ConversionBudget budget : running) {
+            try {
+                String reason = null;
+                if (now - budget.getStartNanos() > wallLimit) {
+                    reason = ConversionBudget.REASON_WALL_CLOCK;
+                } else if (cpuLimit > 0 && budget.getStartCpuNanos() >= 0) {
+                    long cpu = cpuTime(budget.getThread());
+                    if (cpu >= 0 && cpu - budget.getStartCpuNanos() > cpuLimit) {
+                        reason = ConversionBudget.REASON_CPU;
+                    }
+                }
+                if (reason != null && budget.expire(reason)) {
+                    onExpired(budget, reason);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Conversion watchdog check failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void onExpired(ConversionBudget budget, String reason) {
+        log.warn("Conversion on thread {} ({}) exceeded its {} budget, interrupting",
+                budget.getThread().getName(), budget.getMimeType(), reason);
+        Counter.builder(METRIC_TIMEOUTS)
+                .description("Conversions stopped by the watchdog")
+                .tag("mime_type", conversionMetrics.mimeTypeTag(budget.getMimeType()))
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * CPU time of the thread in ns, or -1 when not measurable (e.g. virtual threads)
+     */
+    private long cpuTime(Thread thread) {
+        return cpuTimeSupported ? threadMXBean.getThreadCpuTime(thread.getId()) : -1;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
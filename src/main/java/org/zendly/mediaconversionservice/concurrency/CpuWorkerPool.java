@@ -0,0 +1,111 @@
+package org.zendly.mediaconversionservice.concurrency;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.zendly.mediaconversionservice.config.BulkheadConfig;
+import org.zendly.mediaconversionservice.config.ExecutionConfig;
+import org.zendly.mediaconversionservice.context.TenantContext;
+import org.zendly.mediaconversionservice.context.TenantContextHolder;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded platform workers for CPU-bound extraction while requests run on virtual threads
+ * A virtual thread parsing a document holds its carrier until the parse ends, so on a single core one
+ * large PDF would stall every waiting download and RPC. With virtual threads active, extraction is
+ * handed to these workers and the request's virtual thread just waits; otherwise tasks run inline.
+ * Workers also keep the watchdog's CPU-time budget measurable, which it is not for virtual threads.
+ */
+@Slf4j
+@Component
+public class CpuWorkerPool {
+
+    private final boolean offloading;
+    private final ExecutorService executor;
+
+    public CpuWorkerPool(ExecutionConfig config,
+                         BulkheadConfig bulkheadConfig,
+                         @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreadsEnabled) {
+        int javaVersion = Runtime.version().feature();
+        boolean virtualThreadsActive = virtualThreadsEnabled && javaVersion >= 21;
+        if (virtualThreadsEnabled && !virtualThreadsActive) {
+            log.warn("Virtual threads requested but Java {} does not support them, requests run on platform threads",
+                    javaVersion);
+        }
+        this.offloading = virtualThreadsActive && config.isOffloadCpuWork();
+
+        // By default one worker per TEXT and OCR permit, so the bulkheads stay the point where excess load is rejected
+        int workers = config.getCpuWorkers() > 0 ? config.getCpuWorkers()
+                : bulkheadConfig.getText().getMaxConcurrent() + bulkheadConfig.getOcr().getMaxConcurrent();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = offloading
+                ? new ThreadPoolExecutor(workers, workers, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                        runnable -> {
+                            Thread thread = new Thread(runnable, "cpu-worker-" + threadCount.incrementAndGet());
+                            thread.setDaemon(true);
+                            return thread;
+                        })
+                : null;
+
+        log.info("Execution mode configured - Virtual threads: {}, CPU work offloaded: {}, CPU workers: {}",
+                virtualThreadsActive, offloading, offloading ? workers : 0);
+    }
+
+    public boolean isOffloading() {
+        return offloading;
+    }
+
+    /**
+     * Run a CPU-bound task, on a platform worker when offloading and inline otherwise
+     * The tenant context and conversion cancellation are carried over to the worker; interrupting the caller
+     * cancels the task
+     */
+    public <T> T call(Callable<T> task) throws Exception {
+        if (!offloading) {
+            return task.call();
+        }
+        TenantContext tenantContext = TenantContextHolder.getContext();
+        ConversionCancellation cancellation = ConversionCancellation.current();
+        Future<T> future = executor.submit(() -> {
+            if (tenantContext != null) {
+                TenantContextHolder.setContext(tenantContext);
+            }
+            try (ConversionCancellation.Scope scope = cancellation != null ? cancellation.bind() : () -> { }) {
+                return task.call();
+            } finally {
+                TenantContextHolder.clear();
+            }
+        });
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw e;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package org.zendly.mediaconversionservice.concurrency;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Deduplicates concurrent work for the same key
+ * The first caller runs the work; callers arriving while it is in flight wait for and share its result.
+ * Callers bound to a {@link ConversionCancellation} neither lead nor join a shared run: their client going
+ * away must cancel only their own conversion, not one other callers are waiting for.
+ * @param <K> key type
+ * @param <V> result type
+ */
+@Slf4j
+public class RequestCoalescer<K, V> {
+
+    private final String name;
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    public RequestCoalescer(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Run the work for the key, or join the run already in flight
+     * @throws RuntimeException whatever the shared run threw
+     * @throws CancellationException if the thread is interrupted while waiting for a shared run
+     */
+    public V execute(K key, Supplier<V> work) {
+        if (ConversionCancellation.current() != null) {
+            return work.get();
+        }
+
+        CompletableFuture<V> created = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, created);
+
+        if (existing != null) {
+            log.info("Coalescing {} request for key: {}", name, key);
+            return join(existing);
+        }
+
+        try {
+            V result = work.get();
+            created.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            created.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, created);
+        }
+    }
+
+    /**
+     * Number of keys currently in flight
+     */
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private V join(CompletableFuture<V> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for a shared " + name + " run");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new CompletionException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package org.zendly.mediaconversionservice.config;
+
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Configuration for batch conversion (POST /api/documents/batch-convert)
+ */
+@Slf4j
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "conversion.batch")
+public class BatchConversionConfig {
+
+    /**
+     * Maximum document IDs accepted in one batch
+     */
+    private int maxDocuments = 50;
+
+    /**
+     * Conversions of one batch running at once, unless the request asks for fewer
+     */
+    private int parallelism = 4;
+
+    /**
+     * Upper bound on the parallelism a request may ask for
+     */
+    private int maxParallelism = 8;
+
+    /**
+     * Worker threads shared by all batches, for metadata lookups and conversions
+     */
+    private int poolSize = 16;
+
+    /**
+     * Bounded pool running the documents of all batches; engine admission still goes through the bulkheads
+     */
+    @Bean(name = "batchConversionExecutor", destroyMethod = "shutdownNow")
+    public ExecutorService batchConversionExecutor() {
+        int workers = Math.max(1, poolSize);
+        AtomicInteger threadCount = new AtomicInteger();
+        log.info("Batch conversion configured - Max documents: {}, Parallelism: {} (max {}), Pool size: {}",
+                maxDocuments, parallelism, maxParallelism, workers);
+        return new ThreadPoolExecutor(workers, workers, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "batch-conversion-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+}
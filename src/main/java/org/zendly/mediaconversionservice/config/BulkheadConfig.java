@@ -0,0 +1,88 @@
+package org.zendly.mediaconversionservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.zendly.mediaconversionservice.concurrency.ConversionEngine;
+
+/**
+ * Configuration for the per-engine bulkheads
+ * Each engine gets its own concurrency limit and wait queue so a burst on one engine
+ * (e.g. scanned PDFs saturating Tesseract) cannot starve the others
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "conversion.bulkhead")
+public class BulkheadConfig {
+
+    /**
+     * Enable/disable admission control
+     */
+    private boolean enabled = true;
+
+    /**
+     * Tika text extraction (DOCX, born-digital PDFs, text formats)
+     */
+    private EngineLimits text = new EngineLimits(8, 32, 2000, 2);
+
+    /**
+     * Tesseract OCR
+     */
+    private EngineLimits ocr = new EngineLimits(1, 4, 5000, 10);
+
+    /**
+     * Google Vision API; images in flight at once, so below google.vision.batch.max-size it caps the batch size
+     */
+    private EngineLimits vision = new EngineLimits(16, 32, 2000, 2);
+
+    /**
+     * Google Speech-to-Text API
+     */
+    private EngineLimits speech = new EngineLimits(4, 8, 5000, 10);
+
+    /**
+     * Limits for the given engine
+     */
+    public EngineLimits limitsFor(ConversionEngine engine) {
+        return switch (engine) {
+            case TEXT -> text;
+            case OCR -> ocr;
+            case VISION -> vision;
+            case SPEECH -> speech;
+        };
+    }
+
+    @Data
+    public static class EngineLimits {
+
+        /**
+         * Conversions allowed to run on the engine at once
+         */
+        private int maxConcurrent;
+
+        /**
+         * Conversions allowed to wait for the engine; arrivals beyond this are rejected with 429
+         */
+        private int maxQueue;
+
+        /**
+         * How long a queued conversion waits for the engine before it is rejected
+         */
+        private long maxWaitMs;
+
+        /**
+         * Retry-After hint returned with 429 responses, in seconds
+         */
+        private long retryAfterSeconds;
+
+        public EngineLimits() {
+        }
+
+        public EngineLimits(int maxConcurrent, int maxQueue, long maxWaitMs, long retryAfterSeconds) {
+            this.maxConcurrent = maxConcurrent;
+            this.maxQueue = maxQueue;
+            this.maxWaitMs = maxWaitMs;
+            this.retryAfterSeconds = retryAfterSeconds;
+        }
+    }
+}
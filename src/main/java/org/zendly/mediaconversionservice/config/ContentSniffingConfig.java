@@ -0,0 +1,29 @@
+package org.zendly.mediaconversionservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration for detecting the real content type from the first bytes of a download
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "conversion.sniffing")
+public class ContentSniffingConfig {
+
+    /**
+     * Detect the content type of every download and compare it with the declared MIME type
+     */
+    private boolean enabled = true;
+
+    /**
+     * Bytes read from the start of the content for detection; nothing beyond this is buffered
+     */
+    private int sniffBytes = 16 * 1024;
+
+    /**
+     * Route by the detected type; when false mismatches are only recorded
+     */
+    private boolean reroute = true;
+}
@@ -0,0 +1,39 @@
+package org.zendly.mediaconversionservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration for the content-addressed conversion result cache
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "conversion.cache")
+public class ConversionCacheConfig {
+
+    /**
+     * Enable/disable result caching
+     */
+    private boolean enabled = true;
+
+    /**
+     * Maximum serialized size of results kept in heap, in MB
+     */
+    private int memoryMaxMb = 32;
+
+    /**
+     * Enable/disable the on-disk tier
+     */
+    private boolean diskEnabled = true;
+
+    /**
+     * Directory for the on-disk tier
+     */
+    private String diskDir = "/tmp/conversion/results";
+
+    /**
+     * Maximum total size of the on-disk tier, in MB
+     */
+    private int diskMaxMb = 256;
+}
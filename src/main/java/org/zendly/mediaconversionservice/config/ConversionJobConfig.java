@@ -0,0 +1,71 @@
+package org.zendly.mediaconversionservice.config;
+
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Configuration for asynchronous conversion jobs
+ */
+@Slf4j
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "conversion.jobs")
+public class ConversionJobConfig {
+
+    /**
+     * Worker threads kept alive for conversion jobs
+     */
+    private int corePoolSize = 2;
+
+    /**
+     * Upper bound on concurrent conversion jobs
+     */
+    private int maxPoolSize = 4;
+
+    /**
+     * Jobs waiting for a worker; submissions beyond this are rejected
+     */
+    private int queueCapacity = 50;
+
+    /**
+     * How long finished jobs stay available for polling
+     */
+    private int retentionMinutes = 30;
+
+    /**
+     * Maximum number of jobs tracked at once (pending, running and finished)
+     */
+    private int maxTrackedJobs = 1000;
+
+    /**
+     * Post finished jobs to the workflow orchestrator unless the request overrides it
+     */
+    private boolean callbackEnabled = false;
+
+    /**
+     * Retry-After sent with 429 when a job is rejected, in seconds
+     */
+    private int retryAfterSeconds = 5;
+
+    /**
+     * Bounded executor running conversion jobs off the request threads
+     */
+    @Bean(name = "conversionJobExecutor")
+    public ThreadPoolTaskExecutor conversionJobExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(corePoolSize);
+        executor.setMaxPoolSize(maxPoolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("conversion-job-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+
+        log.info("Conversion job executor configured - Core: {}, Max: {}, Queue: {}",
+                corePoolSize, maxPoolSize, queueCapacity);
+        return executor;
+    }
+}
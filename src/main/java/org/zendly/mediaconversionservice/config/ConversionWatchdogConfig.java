@@ -0,0 +1,34 @@
+package org.zendly.mediaconversionservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration for the per-conversion time budget enforced by the watchdog
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "conversion.watchdog")
+public class ConversionWatchdogConfig {
+
+    /**
+     * Enable/disable budget enforcement
+     */
+    private boolean enabled = true;
+
+    /**
+     * Wall-clock budget of one conversion, in seconds
+     */
+    private int wallClockSeconds = 120;
+
+    /**
+     * CPU-time budget of the converting thread, in seconds; 0 disables the CPU check
+     */
+    private int cpuSeconds = 90;
+
+    /**
+     * How often running conversions are checked, in ms
+     */
+    private long checkIntervalMs = 250;
+}
@@ -0,0 +1,88 @@
+package org.zendly.mediaconversionservice.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.zendly.mediaconversionservice.dto.DocumentResponse;
+import org.zendly.mediaconversionservice.media.PresignedUrlExpiry;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuration for caching document metadata fetched from the workflow orchestrator
+ */
+@Slf4j
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "document.cache")
+public class DocumentCacheConfig {
+
+    /**
+     * Enable/disable document metadata caching
+     */
+    private boolean enabled = true;
+
+    /**
+     * Upper bound on how long metadata is cached, in seconds
+     */
+    private int ttlSeconds = 60;
+
+    /**
+     * Maximum number of cached documents
+     */
+    private int maxSize = 1000;
+
+    /**
+     * Entries expire this many seconds before their pre-signed download URL does
+     */
+    private int urlExpiryMarginSeconds = 30;
+
+    /**
+     * Document metadata cache keyed by tenant and document ID
+     * Each entry lives for the configured TTL or until shortly before its download URL expires, whichever is sooner
+     */
+    @Bean
+    public Cache<String, DocumentResponse> documentMetadataCache(MeterRegistry meterRegistry) {
+        Cache<String, DocumentResponse> cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new DownloadUrlAwareExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "documentCache");
+
+        log.info("Document metadata cache configured - Enabled: {}, TTL: {}s, Max size: {}, URL expiry margin: {}s",
+                enabled, ttlSeconds, maxSize, urlExpiryMarginSeconds);
+        return cache;
+    }
+
+    private class DownloadUrlAwareExpiry implements Expiry<String, DocumentResponse> {
+
+        @Override
+        public long expireAfterCreate(String key, DocumentResponse value, long currentTime) {
+            long lifetimeSeconds = PresignedUrlExpiry.expiresAt(value.getDownloadUrl())
+                    .map(expiry -> Duration.between(Instant.now(), expiry).getSeconds() - urlExpiryMarginSeconds)
+                    .map(untilExpiry -> Math.max(0L, Math.min(ttlSeconds, untilExpiry)))
+                    .orElse((long) ttlSeconds);
+            return TimeUnit.SECONDS.toNanos(lifetimeSeconds);
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, DocumentResponse value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, DocumentResponse value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
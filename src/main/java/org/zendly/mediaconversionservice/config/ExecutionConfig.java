@@ -0,0 +1,26 @@
+package org.zendly.mediaconversionservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration for the virtual-thread execution mode
+ * The mode itself is switched with {@code spring.threads.virtual.enabled} and needs Java 21; these settings
+ * control how CPU-bound extraction is kept off the virtual-thread carriers while it is active
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "conversion.execution")
+public class ExecutionConfig {
+
+    /**
+     * Run Tika and Tesseract work on bounded platform workers when requests run on virtual threads
+     */
+    private boolean offloadCpuWork = true;
+
+    /**
+     * Platform workers for CPU-bound extraction, 0 to match the TEXT and OCR bulkhead limits
+     */
+    private int cpuWorkers = 0;
+}
@@ -14,6 +14,11 @@ import org.springframework.context.annotation.Configuration;
 
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Configuration for Google Cloud Speech-to-Text API
@@ -30,6 +35,16 @@ public class GoogleSpeechConfig {
     private int timeoutSeconds = 300;
     private String languageCode = "en-US";
 
+    /**
+     * Segmented and long-running recognition for audio beyond the synchronous limit
+     */
+    private LongAudio longAudio = new LongAudio();
+
+    /**
+     * Streaming recognition that forwards audio while it downloads
+     */
+    private Streaming streaming = new Streaming();
+
     private SpeechClient speechClient;
 
     @Bean
@@ -60,6 +75,21 @@ public class GoogleSpeechConfig {
         }
     }
 
+    /**
+     * Bounded pool that recognizes the segments of long recordings concurrently
+     */
+    @Bean(name = "speechSegmentExecutor", destroyMethod = "shutdownNow")
+    public ExecutorService speechSegmentExecutor() {
+        int workers = Math.max(1, longAudio.getParallelism());
+        AtomicInteger threadCount = new AtomicInteger();
+        return new ThreadPoolExecutor(workers, workers, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "speech-segment-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
     @PreDestroy
     public void cleanup() {
         if (speechClient != null) {
@@ -71,4 +101,70 @@ public class GoogleSpeechConfig {
             }
         }
     }
+
+    @Data
+    public static class LongAudio {
+
+        /**
+         * Transcribe audio longer than the synchronous limit instead of rejecting it
+         */
+        private boolean enabled = true;
+
+        /**
+         * Download limit for PCM WAV, which is segmented, and for streaming recognition
+         */
+        private int maxFileSizeMb = 100;
+
+        /**
+         * Download limit for other formats, sent inline to a long-running operation; the API rejects
+         * inline audio above about 10 MB
+         */
+        private int inlineMaxFileSizeMb = 10;
+
+        /**
+         * WAV recordings up to this duration go through a single synchronous call
+         */
+        private int syncMaxSeconds = 55;
+
+        /**
+         * Target segment length; each segment must stay under the synchronous limit
+         */
+        private int segmentSeconds = 50;
+
+        /**
+         * Audio shared by neighbouring segments so words at a cut are heard whole by one side
+         */
+        private long overlapMs = 1500;
+
+        /**
+         * Window before the target cut searched for the quietest point
+         */
+        private long silenceSearchMs = 5000;
+
+        /**
+         * Segments recognized concurrently across all requests
+         */
+        private int parallelism = 4;
+    }
+
+    @Data
+    public static class Streaming {
+
+        /**
+         * Pipe audio from the download URL straight into streamingRecognize instead of downloading it first
+         * Results of streamed conversions are not cached, since the content hash is only known at the end
+         */
+        private boolean enabled = false;
+
+        /**
+         * Audio bytes per streaming request; the API rejects messages over 25 KB
+         */
+        private int chunkBytes = 16 * 1024;
+
+        /**
+         * Audio per stream before a new one is opened; the API ends streams after about 5 minutes
+         * Only applied to PCM WAV, where the byte rate is known from the header
+         */
+        private int maxStreamSeconds = 290;
+    }
 }
@@ -1,9 +1,12 @@
 package org.zendly.mediaconversionservice.config;
 
 import com.google.api.gax.core.FixedCredentialsProvider;
+import com.google.api.gax.core.NoCredentialsProvider;
+import com.google.api.gax.grpc.InstantiatingGrpcChannelProvider;
 import com.google.auth.oauth2.ServiceAccountCredentials;
 import com.google.cloud.vision.v1.ImageAnnotatorClient;
 import com.google.cloud.vision.v1.ImageAnnotatorSettings;
+import io.grpc.ManagedChannelBuilder;
 import jakarta.annotation.PreDestroy;
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
@@ -29,6 +32,16 @@ public class GoogleVisionConfig {
     private int maxFileSizeMb = 5;
     private int timeoutSeconds = 30;
 
+    /**
+     * Plaintext host:port of a local Vision emulator or fake gRPC server; empty uses the real API
+     */
+    private String endpoint;
+
+    /**
+     * Micro-batching of concurrent annotate calls
+     */
+    private Batch batch = new Batch();
+
     private ImageAnnotatorClient imageAnnotatorClient;
 
     @Bean
@@ -37,8 +50,15 @@ public class GoogleVisionConfig {
         try {
             ImageAnnotatorSettings.Builder settingsBuilder = ImageAnnotatorSettings.newBuilder();
 
-            // Try credentials path first, fallback to Application Default Credentials
-            if (credentialsPath != null && !credentialsPath.isEmpty()) {
+            if (endpoint != null && !endpoint.isEmpty()) {
+                settingsBuilder.setEndpoint(endpoint)
+                        .setCredentialsProvider(NoCredentialsProvider.create())
+                        .setTransportChannelProvider(InstantiatingGrpcChannelProvider.newBuilder()
+                                .setEndpoint(endpoint)
+                                .setChannelConfigurator(ManagedChannelBuilder::usePlaintext)
+                                .build());
+                log.info("Google Vision API initialized against local endpoint: {}", endpoint);
+            } else if (credentialsPath != null && !credentialsPath.isEmpty()) {
                 try {
                     ServiceAccountCredentials credentials = ServiceAccountCredentials
                             .fromStream(new FileInputStream(credentialsPath));
@@ -70,4 +90,28 @@ public class GoogleVisionConfig {
             }
         }
     }
+
+    @Data
+    public static class Batch {
+
+        /**
+         * Collect concurrent images into shared batchAnnotateImages calls
+         */
+        private boolean enabled = true;
+
+        /**
+         * How long the first image in a batch waits for others to join, in ms
+         */
+        private long windowMs = 20;
+
+        /**
+         * Images per call; the API accepts at most 16, and batches never exceed the Vision bulkhead limit
+         */
+        private int maxSize = 16;
+
+        /**
+         * Upper bound on the serialized size of a batch, in bytes
+         */
+        private long maxBytes = 8 * 1024 * 1024;
+    }
 }
@@ -0,0 +1,44 @@
+package org.zendly.mediaconversionservice.config;
+
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+/**
+ * Configuration for the HTTP client shared by orchestrator calls and media downloads
+ * One client means one connection pool: connections (and their TLS sessions) to the orchestrator and to the
+ * storage host are reused across documents, and TLS connections negotiate HTTP/2 where the server offers it.
+ * Pool settings of the JDK client are JVM-wide system properties read when its classes initialise, so they
+ * are set as JVM options (jdk.httpclient.keepalive.timeout in the Dockerfile's JAVA_OPTS), not here.
+ */
+@Slf4j
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "http.client")
+public class HttpClientConfig {
+
+    /**
+     * Negotiate HTTP/2 via ALPN, falling back to HTTP/1.1 for servers without it
+     */
+    private boolean http2Enabled = true;
+
+    private int connectTimeoutMs = 10000;
+
+    @Bean(name = "sharedHttpClient")
+    public HttpClient sharedHttpClient() {
+        HttpClient client = HttpClient.newBuilder()
+                .version(http2Enabled ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+
+        log.info("Shared HTTP client configured - HTTP/2: {}, Connect timeout: {}ms",
+                http2Enabled, connectTimeoutMs);
+        return client;
+    }
+}
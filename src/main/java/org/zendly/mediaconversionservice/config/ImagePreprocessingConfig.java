@@ -0,0 +1,89 @@
+package org.zendly.mediaconversionservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration for the in-JVM image preprocessing applied before Tesseract and Google Vision
+ * Replaces Tika's ImageMagick-based preprocessing, which needs an external binary per image
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "image.preprocessing")
+public class ImagePreprocessingConfig {
+
+    /**
+     * Preprocess scanned PDF pages and images before OCR
+     */
+    private boolean enabled = true;
+
+    /**
+     * Resolution images are reduced to, assuming they show a full page
+     */
+    private int targetDpi = 300;
+
+    /**
+     * Long edge of the page assumed when converting the target DPI to pixels (A4 = 11.7in)
+     */
+    private double pageLongEdgeInches = 11.7;
+
+    /**
+     * Convert to black and white with a local (adaptive) threshold, which copes with shadows in photos
+     */
+    private boolean binarize = true;
+
+    /**
+     * A pixel is ink when it is this many percent darker than the mean of its neighbourhood
+     */
+    private int thresholdSensitivityPercent = 15;
+
+    /**
+     * Detect and correct page rotation
+     */
+    private boolean deskew = true;
+
+    /**
+     * Largest rotation searched for, in degrees either way
+     */
+    private double maxSkewDegrees = 5.0;
+
+    /**
+     * Rotations smaller than this are left alone, in degrees
+     */
+    private double minSkewDegrees = 0.2;
+
+    /**
+     * Trim blank margins and dark scanner borders
+     */
+    private boolean cropBorders = true;
+
+    /**
+     * White margin kept around the content after cropping, in pixels
+     */
+    private int cropMarginPx = 16;
+
+    /**
+     * Images with more pixels than this are sent unprocessed rather than decoded
+     */
+    private long maxInputPixels = 100_000_000L;
+
+    /**
+     * Working buffers kept for reuse between images; more concurrent images allocate short-lived ones
+     * Each set holds two gray planes of a full page (about 9 MB at 300 DPI), so keep this near the OCR
+     * and Vision concurrency rather than the worst case
+     */
+    private int bufferPoolSize = 2;
+
+    /**
+     * Buffers unused for longer than this are dropped instead of reused, in seconds
+     */
+    private long bufferIdleSeconds = 60;
+
+    /**
+     * Longest edge of a preprocessed image, in pixels
+     */
+    public int getMaxLongEdgePx() {
+        return (int) Math.round(targetDpi * pageLongEdgeInches);
+    }
+}
@@ -0,0 +1,30 @@
+package org.zendly.mediaconversionservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration for downloading media objects from pre-signed storage URLs
+ * Downloads use the shared HTTP client, see {@link HttpClientConfig}
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "media.fetch")
+public class MediaFetchConfig {
+
+    /**
+     * Objects up to this size are kept in memory, larger ones are spooled to a temp file
+     */
+    private int memoryThresholdKb = 512;
+
+    /**
+     * Directory used for spooled downloads
+     */
+    private String tempDir = "/tmp/conversion";
+
+    /**
+     * Time allowed until the response headers arrive; a stalled body is bounded by the conversion watchdog
+     */
+    private int readTimeoutMs = 60000;
+}
@@ -0,0 +1,63 @@
+package org.zendly.mediaconversionservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.zendly.mediaconversionservice.dto.OcrPolicy;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-MIME-type overrides of how documents are parsed
+ * Entries are merged over the built-in routes (text-based formats without OCR, PDFs with OCR)
+ * when the routing table is built at startup
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "conversion.routing")
+public class MimeRoutingConfig {
+
+    /**
+     * Parse known types with the parser registered for them instead of detecting the type again
+     */
+    private boolean directDispatch = true;
+
+    /**
+     * Extract plain text, CSV, JSON and XML with built-in streaming readers instead of Tika
+     */
+    private boolean fastPath = true;
+
+    /**
+     * Rules keyed by MIME type; keys containing '/' or '.' need the "[type/subtype]" form in YAML
+     */
+    private Map<String, Rule> types = new LinkedHashMap<>();
+
+    /**
+     * Parser hints for one MIME type; unset fields keep the built-in value
+     */
+    @Data
+    public static class Rule {
+
+        /**
+         * Tika parser class to dispatch to directly, or "auto" to always detect the type; defaults to the
+         * parser Tika registers for the type
+         */
+        private String parser;
+
+        /**
+         * When the document is OCRed
+         */
+        private OcrPolicy ocr;
+
+        /**
+         * Ignore attachments, embedded files and inline images instead of extracting their text
+         */
+        private Boolean skipEmbedded;
+
+        /**
+         * Characters extracted before the text is cut off (-1 = unlimited); defaults to tika.ocr.write-limit
+         */
+        private Integer writeLimit;
+    }
+}
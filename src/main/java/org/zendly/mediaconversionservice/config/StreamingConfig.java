@@ -0,0 +1,50 @@
+package org.zendly.mediaconversionservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Configuration for streaming responses (StreamingResponseBody)
+ * Streams are written from a dedicated bounded pool instead of Spring's unbounded fallback executor
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "conversion.streaming")
+public class StreamingConfig implements WebMvcConfigurer {
+
+    /**
+     * Concurrent streaming responses
+     */
+    private int poolSize = 4;
+
+    /**
+     * Streams waiting for a writer thread
+     */
+    private int queueCapacity = 20;
+
+    /**
+     * Maximum time a single streaming response may take, in seconds
+     */
+    private int timeoutSeconds = 300;
+
+    @Bean(name = "streamingResponseExecutor")
+    public ThreadPoolTaskExecutor streamingResponseExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("stream-");
+        return executor;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(streamingResponseExecutor());
+        configurer.setDefaultTimeout(timeoutSeconds * 1000L);
+    }
+}
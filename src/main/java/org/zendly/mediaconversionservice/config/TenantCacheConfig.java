@@ -1,19 +1,25 @@
 package org.zendly.mediaconversionservice.config;
 
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.context.properties.ConfigurationProperties;
-import org.springframework.cache.CacheManager;
-import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.zendly.mediaconversionservice.context.TenantContext;
+import org.zendly.mediaconversionservice.context.TenantContextLoader;
+
+import java.time.Duration;
 
 /**
  * Configuration for tenant caching to reduce API calls to WorkflowOrchestratorService
  */
+@Slf4j
 @Data
 @Configuration
-@EnableCaching
 @ConfigurationProperties(prefix = "tenant.cache")
 public class TenantCacheConfig {
 
@@ -39,10 +45,28 @@ public class TenantCacheConfig {
     private double refreshAheadFactor = 0.8;
 
     /**
-     * Cache manager bean for tenant caching
+     * Size-bounded, expiring tenant cache
+     * Concurrent misses for the same tenant share a single load, and entries past the
+     * refresh-ahead point are reloaded in the background on their next access
      */
     @Bean
-    public CacheManager tenantCacheManager() {
-        return new ConcurrentMapCacheManager("tenantCache");
+    public LoadingCache<String, TenantContext> tenantContextCache(TenantContextLoader loader,
+                                                                  MeterRegistry meterRegistry) {
+        Duration ttl = Duration.ofMinutes(ttlMinutes);
+        Caffeine<Object, Object> builder = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats();
+
+        if (refreshAheadFactor > 0.0 && refreshAheadFactor < 1.0) {
+            builder.refreshAfterWrite(Duration.ofMillis((long) (ttl.toMillis() * refreshAheadFactor)));
+        }
+
+        LoadingCache<String, TenantContext> cache = builder.build(loader);
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "tenantCache");
+
+        log.info("Tenant cache configured - Enabled: {}, TTL: {}m, Max size: {}, Refresh ahead factor: {}",
+                enabled, ttlMinutes, maxSize, refreshAheadFactor);
+        return cache;
     }
 }
@@ -0,0 +1,56 @@
+package org.zendly.mediaconversionservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration for running Tika parses in forked child JVMs
+ * A crash, OOM or hang while parsing one document then only kills that document's worker
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "tika.fork")
+public class TikaForkConfig {
+
+    /**
+     * Parse in forked workers instead of in the service JVM
+     */
+    private boolean enabled = false;
+
+    /**
+     * Number of worker JVMs kept alive
+     */
+    private int poolSize = 2;
+
+    /**
+     * Heap cap of each worker, in MB
+     */
+    private int workerHeapMb = 384;
+
+    /**
+     * A parse running longer than this kills its worker, in ms
+     */
+    private long parseTimeoutMs = 60000;
+
+    /**
+     * Idle workers are shut down after this long, in ms
+     */
+    private long idleTimeoutMs = 300000;
+
+    /**
+     * Workers are replaced after this many documents to bound leaks and fragmentation
+     */
+    private int maxDocumentsPerWorker = 100;
+
+    /**
+     * Java executable used to start workers
+     */
+    private String javaCommand = "java";
+
+    /**
+     * Directory of jars for the worker classpath (e.g. the extracted application libs);
+     * when empty, workers load parser classes from the service over the fork channel
+     */
+    private String tikaBin;
+}
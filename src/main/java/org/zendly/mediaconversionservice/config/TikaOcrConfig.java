@@ -1,7 +1,6 @@
 package org.zendly.mediaconversionservice.config;
 
 import lombok.Data;
-import org.apache.tika.parser.AutoDetectParser;
 import org.apache.tika.parser.ParseContext;
 import org.apache.tika.parser.ocr.TesseractOCRConfig;
 import org.apache.tika.parser.pdf.PDFParserConfig;
@@ -10,6 +9,12 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * Configuration properties for Tika OCR settings
  */
@@ -50,7 +55,8 @@ public class TikaOcrConfig {
     private int maxFileSizeMb = 5;
 
     /**
-     * Enable image preprocessing (rotation detection, normalization)
+     * Enable Tika's ImageMagick-based preprocessing (rotation detection, normalization)
+     * Ignored while image.preprocessing.enabled is set, which does the same work in the JVM
      */
     private boolean enableImagePreprocessing = true;
 
@@ -72,9 +78,61 @@ public class TikaOcrConfig {
 
     private int writeLimit = 100000;
 
-    @Bean
-    public AutoDetectParser getAutoDetectParser() {
-        return new AutoDetectParser();
+    /**
+     * OCR scanned PDFs page by page on a pool of Tesseract workers
+     */
+    private boolean pageParallelEnabled = true;
+
+    /**
+     * Number of Tesseract workers; 0 means one per available core
+     */
+    private int ocrParallelism = 0;
+
+    /**
+     * Inspect each PDF page's text layer and OCR only the pages that need it
+     */
+    private boolean textLayerDetectionEnabled = true;
+
+    /**
+     * Pages with fewer extracted characters than this are OCRed
+     */
+    private int minPageChars = 32;
+
+    /**
+     * Pages where fewer than this fraction of glyphs map to Unicode are OCRed (0.0-1.0)
+     */
+    private double minGlyphCoverage = 0.9;
+
+    /**
+     * Pages where images cover at least this fraction of the page are treated as scans (0.0-1.0)
+     */
+    private double scannedImageAreaRatio = 0.5;
+
+    /**
+     * Image-dominated pages with fewer characters than this are OCRed
+     */
+    private int scannedPageMinChars = 200;
+
+    /**
+     * Resolved number of Tesseract workers
+     */
+    public int getEffectiveOcrParallelism() {
+        return ocrParallelism > 0 ? ocrParallelism : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Bounded pool of Tesseract workers used for page-parallel PDF OCR
+     */
+    @Bean(name = "ocrWorkerExecutor", destroyMethod = "shutdownNow")
+    public ExecutorService ocrWorkerExecutor() {
+        int workers = getEffectiveOcrParallelism();
+        AtomicInteger threadCount = new AtomicInteger();
+        return new ThreadPoolExecutor(workers, workers, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "ocr-worker-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
     }
 
     @Bean("parseContext")
@@ -87,7 +145,7 @@ public class TikaOcrConfig {
     }
 
     @Bean
-    public TesseractOCRConfig createTesseractOCRConfig() {
+    public TesseractOCRConfig createTesseractOCRConfig(ImagePreprocessingConfig imagePreprocessingConfig) {
         TesseractOCRConfig config = new TesseractOCRConfig();
 
         if (isEnabled()) {
@@ -96,7 +154,7 @@ public class TikaOcrConfig {
             config.setTimeoutSeconds(getTimeoutSeconds());
             config.setMaxFileSizeToOcr(getMaxFileSizeMb() * 1024L * 1024L);
             config.setDensity(getRenderDpi());
-            config.setEnableImagePreprocessing(isEnableImagePreprocessing());
+            config.setEnableImagePreprocessing(isEnableImagePreprocessing() && !imagePreprocessingConfig.isEnabled());
         } else {
             config.setSkipOcr(true);
         }
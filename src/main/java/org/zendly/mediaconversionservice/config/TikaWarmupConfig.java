@@ -0,0 +1,19 @@
+package org.zendly.mediaconversionservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration for warming the shared Tika parser at startup
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "tika.warmup")
+public class TikaWarmupConfig {
+
+    /**
+     * Parse an embedded sample of every supported format at startup to load parser classes up front
+     */
+    private boolean enabled = true;
+}
@@ -40,6 +40,16 @@ public class ApplicationConstants {
     public static final String MIME_TYPE_OGG = "audio/ogg";
     public static final String MIME_TYPE_AMR = "audio/amr";
 
+    public static final String[] AUDIO_MIME_TYPES = {
+        MIME_TYPE_MP3,
+        MIME_TYPE_WAV,
+        MIME_TYPE_M4A,
+        MIME_TYPE_FLAC,
+        MIME_TYPE_ACC,
+        MIME_TYPE_OGG,
+        MIME_TYPE_AMR
+    };
+
     
     // Conversion methods
     public static final String METHOD_TIKA = "APACHE_TIKA";
@@ -51,6 +61,7 @@ public class ApplicationConstants {
     public static final String ERROR_UNSUPPORTED_FORMAT = "Unsupported document format";
     public static final String ERROR_CONVERSION_FAILED = "Document conversion failed";
     public static final String ERROR_FILE_TOO_LARGE = "File size exceeds maximum limit";
+    public static final String ERROR_CONVERSION_TIMEOUT = "Conversion exceeded its time budget";
     
     // Processing strategy constants
     public static final String PROCESSING_TEXT_ONLY = "TEXT_ONLY";
@@ -0,0 +1,50 @@
+package org.zendly.mediaconversionservice.context;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.zendly.mediaconversionservice.dto.TenantResponse;
+import org.zendly.mediaconversionservice.service.WorkflowOrchestratorService;
+
+/**
+ * Loads tenant context from the workflow orchestrator
+ * Used by the tenant cache for initial loads and refresh-ahead reloads
+ */
+@Slf4j
+@Component
+public class TenantContextLoader implements CacheLoader<String, TenantContext> {
+
+    private final WorkflowOrchestratorService workflowOrchestratorService;
+
+    public TenantContextLoader(WorkflowOrchestratorService workflowOrchestratorService) {
+        this.workflowOrchestratorService = workflowOrchestratorService;
+    }
+
+    /**
+     * Fetch tenant context by tenant ID
+     * @param tenantId the tenant identifier
+     * @return tenant context, or null if the orchestrator returned no tenant
+     */
+    @Override
+    public TenantContext load(String tenantId) {
+        try {
+            log.debug("Fetching tenant context from API for: {}", tenantId);
+            TenantResponse tenant = workflowOrchestratorService.getTenantById(tenantId);
+            if (tenant == null) {
+                log.warn("Orchestrator returned no tenant for: {}", tenantId);
+                return null;
+            }
+            log.debug("Resolved tenant context from API: {}", tenantId);
+            return new TenantContext(
+                tenant.getTenantId(),
+                tenant.getDbName(),
+                tenant.getConnectionString(),
+                Boolean.TRUE.equals(tenant.getIsActive())
+            );
+
+        } catch (Exception e) {
+            log.error("Error resolving tenant context for {}: {}", tenantId, e.getMessage(), e);
+            throw new RuntimeException("Error resolving tenant context for tenant " + tenantId, e);
+        }
+    }
+}
@@ -5,7 +5,7 @@ import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
-import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
 
 /**
  * Interceptor to populate tenant context for each HTTP request
@@ -13,7 +13,7 @@ import org.springframework.web.servlet.HandlerInterceptor;
  */
 @Component
 @Slf4j
-public class TenantInterceptor implements HandlerInterceptor {
+public class TenantInterceptor implements AsyncHandlerInterceptor {
     
     private final TenantResolver tenantResolver;
     
@@ -82,6 +82,16 @@ public class TenantInterceptor implements HandlerInterceptor {
         }
     }
     
+    /**
+     * Async requests (streaming responses) release the request thread before completion;
+     * clear its tenant context here, as afterCompletion runs later on a different thread
+     */
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) throws Exception {
+        TenantContextHolder.clear();
+    }
+    
     /**
      * Check if the request URI is an admin endpoint that should skip tenant validation
      * @param requestURI the request URI
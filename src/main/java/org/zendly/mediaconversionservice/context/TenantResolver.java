@@ -1,13 +1,14 @@
 package org.zendly.mediaconversionservice.context;
 
+import com.github.benmanes.caffeine.cache.LoadingCache;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Component;
-import org.zendly.mediaconversionservice.dto.TenantResponse;
-import org.zendly.mediaconversionservice.service.WorkflowOrchestratorService;
+import org.zendly.mediaconversionservice.config.TenantCacheConfig;
+import org.zendly.mediaconversionservice.metrics.ConversionMetrics;
+import org.zendly.mediaconversionservice.metrics.ConversionStage;
 
 /**
  * Service to resolve tenant information from HTTP requests
@@ -19,11 +20,20 @@ public class TenantResolver {
 
     @Value("${message-converter.tenant.header.name}")
     private String tenantHeader;
-    private final WorkflowOrchestratorService workflowOrchestratorService;
+    private final LoadingCache<String, TenantContext> tenantContextCache;
+    private final TenantContextLoader tenantContextLoader;
+    private final TenantCacheConfig tenantCacheConfig;
+    private final ConversionMetrics conversionMetrics;
     
     @Autowired
-    public TenantResolver(WorkflowOrchestratorService workflowOrchestratorService) {
-        this.workflowOrchestratorService = workflowOrchestratorService;
+    public TenantResolver(LoadingCache<String, TenantContext> tenantContextCache,
+                          TenantContextLoader tenantContextLoader,
+                          TenantCacheConfig tenantCacheConfig,
+                          ConversionMetrics conversionMetrics) {
+        this.tenantContextCache = tenantContextCache;
+        this.tenantContextLoader = tenantContextLoader;
+        this.tenantCacheConfig = tenantCacheConfig;
+        this.conversionMetrics = conversionMetrics;
     }
 
     public TenantContext resolveTenantContext(HttpServletRequest request) {
@@ -37,27 +47,25 @@ public class TenantResolver {
     }
 
     /**
-     * Resolve tenant context by tenant ID (internal method)
-     * Uses caching to reduce API calls to WorkflowOrchestratorService
+     * Resolve tenant context by tenant ID
+     * Served from the tenant cache; concurrent misses for the same tenant share one orchestrator call.
+     * The stage is tagged with the tenant only once it resolves, since the ID comes straight from a header.
      * @param tenantId the tenant identifier
      * @return tenant context if resolved successfully, null otherwise
      */
-    @Cacheable(value = "tenantCache", key = "#tenantId", unless = "#result == null")
     public TenantContext resolveTenantContext(final String tenantId) {
-        try {
-            log.debug("Fetching tenant context from API for: {}", tenantId);
-            TenantResponse tenant = workflowOrchestratorService.getTenantById(tenantId);
-            log.debug("Resolved tenant context from API: {}", tenantId);
-            return new TenantContext(
-                tenant.getTenantId(),
-                tenant.getDbName(),
-                tenant.getConnectionString(),
-                tenant.getIsActive()
-            );
-            
-        } catch (Exception e) {
-            log.error("Error resolving tenant context for {}: {}", tenantId, e.getMessage(), e);
-            throw new RuntimeException("Error resolving tenant context for tenant " +tenantId,e);
+        try (ConversionMetrics.StageTimer timer = conversionMetrics.startStage(ConversionStage.TENANT_RESOLUTION,
+                ConversionMetrics.TENANT_UNKNOWN, null, null)) {
+            TenantContext context = tenantCacheConfig.isEnabled()
+                    ? tenantContextCache.get(tenantId)
+                    : tenantContextLoader.load(tenantId);
+            if (context == null) {
+                timer.outcome(ConversionMetrics.OUTCOME_FAILURE);
+                return null;
+            }
+            timer.tenant(tenantId);
+            timer.success();
+            return context;
         }
     }
 
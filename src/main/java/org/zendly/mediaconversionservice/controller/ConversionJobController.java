@@ -0,0 +1,75 @@
+package org.zendly.mediaconversionservice.controller;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.zendly.mediaconversionservice.config.ConversionJobConfig;
+import org.zendly.mediaconversionservice.dto.ConversionJobResponse;
+import org.zendly.mediaconversionservice.exception.JobRejectedException;
+import org.zendly.mediaconversionservice.service.ConversionJobService;
+
+/**
+ * REST Controller for asynchronous conversion jobs
+ * Submission returns immediately; results are polled or delivered to the orchestrator
+ */
+@RestController
+@RequestMapping("/api")
+@Slf4j
+@Validated
+public class ConversionJobController {
+
+    private final ConversionJobService conversionJobService;
+    private final ConversionJobConfig config;
+
+    public ConversionJobController(ConversionJobService conversionJobService, ConversionJobConfig config) {
+        this.conversionJobService = conversionJobService;
+        this.config = config;
+    }
+
+    /**
+     * Queue a conversion job for a document
+     * Returns 202 with the job id and a Location header pointing at the status endpoint
+     */
+    @PostMapping("/documents/{documentId}/conversions")
+    public ResponseEntity<ConversionJobResponse> submitConversion(
+            @PathVariable String documentId,
+            @RequestParam(name = "callback", required = false) Boolean callback,
+            @RequestHeader("X-Tenant-ID") String tenantId) {
+        log.info("Submitting conversion job for document: {} tenant: {}", documentId, tenantId);
+        try {
+            ConversionJobResponse job = conversionJobService.submit(documentId, callback);
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .header(HttpHeaders.LOCATION, "/api/conversions/" + job.getJobId())
+                    .body(job);
+        } catch (JobRejectedException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(config.getRetryAfterSeconds()))
+                    .body(ConversionJobResponse.builder()
+                            .documentId(documentId)
+                            .errorMessage(e.getMessage())
+                            .build());
+        }
+    }
+
+    /**
+     * Poll the state of a conversion job
+     * Jobs are tracked in the memory of the instance that accepted them, so behind a load balancer
+     * another instance answers 404; use the orchestrator callback there
+     */
+    @GetMapping("/conversions/{jobId}")
+    public ResponseEntity<ConversionJobResponse> getConversion(@PathVariable String jobId) {
+        return conversionJobService.getJob(jobId)
+                .map(ResponseEntity::ok)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Conversion job not found: " + jobId));
+    }
+}
@@ -1,20 +1,47 @@
 package org.zendly.mediaconversionservice.controller;
 
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncUtils;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.zendly.mediaconversionservice.concurrency.Bulkhead;
+import org.zendly.mediaconversionservice.concurrency.BulkheadRegistry;
+import org.zendly.mediaconversionservice.concurrency.ConversionBudget;
+import org.zendly.mediaconversionservice.concurrency.ConversionCancellation;
+import org.zendly.mediaconversionservice.concurrency.ConversionWatchdog;
+import org.zendly.mediaconversionservice.constants.ApplicationConstants;
+import org.zendly.mediaconversionservice.context.TenantContext;
+import org.zendly.mediaconversionservice.context.TenantContextHolder;
+import org.zendly.mediaconversionservice.dto.BatchConversionRequest;
 import org.zendly.mediaconversionservice.dto.ConversionResponse;
 import org.zendly.mediaconversionservice.dto.DocumentResponse;
+import org.zendly.mediaconversionservice.dto.DocumentType;
+import org.zendly.mediaconversionservice.dto.TextStreamFormat;
+import org.zendly.mediaconversionservice.exception.BulkheadFullException;
+import org.zendly.mediaconversionservice.exception.MediaTooLargeException;
+import org.zendly.mediaconversionservice.media.FetchedMedia;
+import org.zendly.mediaconversionservice.service.BatchConversionService;
 import org.zendly.mediaconversionservice.service.DocumentConversionService;
+import org.zendly.mediaconversionservice.service.TikaTextExtractor;
 import org.zendly.mediaconversionservice.service.WorkflowOrchestratorService;
 
+import java.io.IOException;
+import java.util.List;
+
 /**
  * REST Controller for document conversion operations
  * Single responsibility: take a media input → produce structured text output
@@ -27,11 +54,23 @@ public class DocumentConverterController {
 
     private final WorkflowOrchestratorService workflowOrchestratorService;
     private final DocumentConversionService documentConversionService;
+    private final TikaTextExtractor tikaTextExtractor;
+    private final BulkheadRegistry bulkheads;
+    private final ConversionWatchdog watchdog;
+    private final BatchConversionService batchConversionService;
 
     public DocumentConverterController(WorkflowOrchestratorService workflowOrchestratorService,
-                                     DocumentConversionService documentConversionService) {
+                                     DocumentConversionService documentConversionService,
+                                     TikaTextExtractor tikaTextExtractor,
+                                     BulkheadRegistry bulkheads,
+                                     ConversionWatchdog watchdog,
+                                     BatchConversionService batchConversionService) {
         this.workflowOrchestratorService = workflowOrchestratorService;
         this.documentConversionService = documentConversionService;
+        this.tikaTextExtractor = tikaTextExtractor;
+        this.bulkheads = bulkheads;
+        this.watchdog = watchdog;
+        this.batchConversionService = batchConversionService;
     }
 
     /**
@@ -74,6 +113,15 @@ public class DocumentConverterController {
         } catch (ResponseStatusException e) {
             // Re-throw ResponseStatusException as-is
             throw e;
+        } catch (BulkheadFullException e) {
+            log.warn("Conversion of document: {} rejected - {}", documentId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(ConversionResponse.builder()
+                            .documentId(documentId)
+                            .status(ApplicationConstants.CONVERSION_FAILED)
+                            .errorMessage(e.getMessage())
+                            .build());
         } catch (RuntimeException e) {
             log.error("Error converting document: {} for tenant: {}", documentId, tenantId, e);
             
@@ -91,4 +139,137 @@ public class DocumentConverterController {
                     "Unexpected error during conversion: " + e.getMessage());
         }
     }
+
+    /**
+     * Stream the extracted text of a document as it is parsed
+     * format=text returns chunked text/plain; format=ndjson returns one JSON object per page/section.
+     * The download happens before the response is committed so errors still map to status codes.
+     * The parse is cancelled when the client goes away.
+     */
+    @GetMapping("/{documentId}/text")
+    public ResponseEntity<StreamingResponseBody> streamDocumentText(
+            @PathVariable String documentId,
+            @RequestParam(name = "format", defaultValue = "text") String format,
+            @RequestHeader("X-Tenant-ID") String tenantId,
+            HttpServletRequest request) {
+        log.info("Streaming document text: {} for tenant: {} format: {}", documentId, tenantId, format);
+
+        TextStreamFormat streamFormat;
+        try {
+            streamFormat = TextStreamFormat.fromValue(format);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported stream format: " + format);
+        }
+
+        DocumentResponse documentResponse = workflowOrchestratorService.getDocument(documentId);
+        if (documentResponse == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Document not found: " + documentId);
+        }
+        if (documentResponse.getDocumentType() != DocumentType.DOCUMENT) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Streaming is only supported for documents, got: " + documentResponse.getDocumentType());
+        }
+
+        // Admit before downloading; the slot is held until the stream completes
+        Bulkhead.Permit permit;
+        try {
+            permit = bulkheads.acquire(tikaTextExtractor.streamingEngine(documentResponse));
+        } catch (BulkheadFullException e) {
+            log.warn("Streaming of document: {} rejected - {}", documentId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .build();
+        }
+
+        FetchedMedia media;
+        try {
+            media = documentConversionService.fetchMedia(documentResponse);
+        } catch (MediaTooLargeException e) {
+            permit.close();
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, e.getMessage());
+        } catch (IOException e) {
+            permit.close();
+            log.error("Error downloading document {}: {}", documentId, e.getMessage());
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Document not found: " + documentId);
+        } catch (RuntimeException e) {
+            permit.close();
+            throw e;
+        }
+
+        // The body is written on an async thread, so the tenant travels with it
+        TenantContext tenantContext = TenantContextHolder.getContext();
+        ConversionCancellation cancellation = cancelOnDisconnect(request, "text stream of document " + documentId);
+        StreamingResponseBody body = outputStream -> {
+            if (tenantContext != null) {
+                TenantContextHolder.setContext(tenantContext);
+            }
+            try (permit; media; ConversionCancellation.Scope scope = cancellation.bind();
+                 ConversionBudget budget = watchdog.start(documentResponse.getMimeType())) {
+                tikaTextExtractor.streamText(documentResponse, media, cancellation.guard(outputStream), streamFormat);
+            } catch (IOException e) {
+                throw e;
+            } catch (Exception e) {
+                // Headers are already committed; the truncated body is the only signal left
+                log.error("Error streaming document {}: {}", documentId, e.getMessage(), e);
+                throw new IOException("Error streaming document: " + documentId, e);
+            } finally {
+                TenantContextHolder.clear();
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(streamFormat.getContentType()))
+                .body(body);
+    }
+
+    /**
+     * Convert several documents in one request
+     * Returns application/x-ndjson with one ConversionResponse per line, in completion order rather than
+     * request order. Documents that fail, or whose metadata cannot be found, get a CONVERSION_FAILED line.
+     * Running conversions are cancelled when the client goes away.
+     */
+    @PostMapping("/batch-convert")
+    public ResponseEntity<StreamingResponseBody> convertBatch(
+            @RequestBody BatchConversionRequest request,
+            @RequestHeader("X-Tenant-ID") String tenantId,
+            HttpServletRequest servletRequest) {
+        List<String> documentIds;
+        try {
+            documentIds = batchConversionService.validate(request.getDocumentIds());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        int parallelism = batchConversionService.effectiveParallelism(request.getParallelism());
+        log.info("Converting batch of {} documents for tenant: {} parallelism: {}",
+                documentIds.size(), tenantId, parallelism);
+
+        List<BatchConversionService.BatchDocument> documents;
+        try {
+            documents = batchConversionService.resolveDocuments(documentIds);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Interrupted while resolving batch");
+        }
+
+        // The body is written on an async thread, so the tenant travels with it
+        TenantContext tenantContext = TenantContextHolder.getContext();
+        ConversionCancellation cancellation = cancelOnDisconnect(servletRequest,
+                "batch of " + documents.size() + " documents");
+        StreamingResponseBody body = outputStream ->
+                batchConversionService.streamBatch(documents, parallelism, tenantContext, cancellation, outputStream);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(TextStreamFormat.NDJSON.getContentType()))
+                .body(body);
+    }
+
+    /**
+     * Cancellation for a streamed response, triggered when its async request times out or fails
+     */
+    private static ConversionCancellation cancelOnDisconnect(HttpServletRequest request, String name) {
+        ConversionCancellation cancellation = new ConversionCancellation(name);
+        WebAsyncUtils.getAsyncManager(request)
+                .registerCallableInterceptor(ConversionCancellation.class.getName(), cancellation.asyncInterceptor());
+        return cancellation;
+    }
 }
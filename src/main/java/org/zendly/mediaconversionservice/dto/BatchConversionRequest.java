@@ -0,0 +1,28 @@
+package org.zendly.mediaconversionservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Request model for converting several documents in one call
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchConversionRequest {
+
+    /**
+     * Documents to convert; duplicates are converted once
+     */
+    private List<String> documentIds;
+
+    /**
+     * Conversions to run at once, null for the configured default
+     */
+    private Integer parallelism;
+}
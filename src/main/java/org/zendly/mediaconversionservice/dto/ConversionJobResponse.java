@@ -0,0 +1,48 @@
+package org.zendly.mediaconversionservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Response model for asynchronous conversion jobs
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConversionJobResponse {
+
+    /**
+     * Unique job identifier
+     */
+    private String jobId;
+
+    /**
+     * Document being converted
+     */
+    private String documentId;
+
+    /**
+     * Current job state
+     */
+    private ConversionJobStatus status;
+
+    /**
+     * Submission, start and completion timestamps (epoch millis)
+     */
+    private Long submittedAt;
+    private Long startedAt;
+    private Long completedAt;
+
+    /**
+     * Conversion result, present once the job has finished
+     */
+    private ConversionResponse result;
+
+    /**
+     * Error message if the job could not run to completion
+     */
+    private String errorMessage;
+}
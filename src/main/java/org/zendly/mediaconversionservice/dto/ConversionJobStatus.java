@@ -0,0 +1,12 @@
+package org.zendly.mediaconversionservice.dto;
+
+/**
+ * Lifecycle states of an asynchronous conversion job
+ */
+public enum ConversionJobStatus {
+    PENDING, RUNNING, COMPLETED, FAILED;
+
+    public boolean isTerminal() {
+        return this == COMPLETED || this == FAILED;
+    }
+}
@@ -5,6 +5,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.List;
+
 /**
  * Metadata information about the conversion process
  */
@@ -43,4 +45,44 @@ public class ConversionMetadata {
      * Additional processing notes
      */
     private String processingNotes;
+
+    /**
+     * Whether the result was served from the conversion result cache
+     */
+    private Boolean cachedResult;
+
+    /**
+     * Number of pages in the document (paged formats only)
+     */
+    private Integer pageCount;
+
+    /**
+     * Number of pages sent to OCR (paged formats only)
+     */
+    private Integer ocrPageCount;
+
+    /**
+     * Per-page decision on whether the text layer was used or the page was OCRed
+     */
+    private List<PageOcrDecision> pageDecisions;
+
+    /**
+     * Whether the text is partial, because the conversion ran out of its time budget or hit the write limit
+     */
+    private Boolean truncated;
+
+    /**
+     * MIME type supplied by the orchestrator
+     */
+    private String declaredMimeType;
+
+    /**
+     * MIME type detected from the content
+     */
+    private String detectedMimeType;
+
+    /**
+     * Whether the content did not match its declared MIME type and was converted as the detected type
+     */
+    private Boolean mimeTypeMismatch;
 }
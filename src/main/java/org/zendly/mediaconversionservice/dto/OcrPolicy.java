@@ -0,0 +1,29 @@
+package org.zendly.mediaconversionservice.dto;
+
+/**
+ * When OCR is applied to a document type
+ */
+public enum OcrPolicy {
+    /**
+     * Never OCR; only text the format carries is extracted
+     */
+    NEVER(ProcessingStrategy.TEXT_ONLY),
+    /**
+     * OCR only what has no usable text; PDF pages with a text layer keep it
+     */
+    TEXT_LAYER_FIRST(ProcessingStrategy.OCR),
+    /**
+     * OCR every page, ignoring any text layer
+     */
+    ALWAYS(ProcessingStrategy.OCR);
+
+    private final ProcessingStrategy strategy;
+
+    OcrPolicy(ProcessingStrategy strategy) {
+        this.strategy = strategy;
+    }
+
+    public ProcessingStrategy getStrategy() {
+        return strategy;
+    }
+}
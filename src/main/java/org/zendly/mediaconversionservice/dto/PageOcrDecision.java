@@ -0,0 +1,46 @@
+package org.zendly.mediaconversionservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of the text-layer inspection for a single PDF page
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PageOcrDecision {
+
+    /**
+     * One-based page number
+     */
+    private int pageNumber;
+
+    /**
+     * Non-whitespace characters found in the page's text layer
+     */
+    private int characterCount;
+
+    /**
+     * Fraction of glyphs that map to Unicode (0.0-1.0)
+     */
+    private double glyphCoverage;
+
+    /**
+     * Fraction of the page area covered by images (0.0-1.0)
+     */
+    private double imageAreaRatio;
+
+    /**
+     * Whether the page was sent to OCR
+     */
+    private boolean ocrApplied;
+
+    /**
+     * Why the page was or was not OCRed (TEXT_LAYER, BLANK, LOW_CHAR_COUNT, LOW_GLYPH_COVERAGE, SCANNED_IMAGE)
+     */
+    private String reason;
+}
@@ -0,0 +1,30 @@
+package org.zendly.mediaconversionservice.dto;
+
+import org.zendly.mediaconversionservice.constants.ApplicationConstants;
+
+/**
+ * How a document is converted by Tika
+ */
+public enum ProcessingStrategy {
+    /**
+     * Text extraction only, Tesseract disabled
+     */
+    TEXT_ONLY(ApplicationConstants.PROCESSING_TEXT_ONLY),
+    /**
+     * Text extraction with OCR of scanned content
+     */
+    OCR(ApplicationConstants.PROCESSING_OCR);
+
+    private final String value;
+
+    ProcessingStrategy(String value) {
+        this.value = value;
+    }
+
+    /**
+     * Name used in metric tags, logs and cache keys
+     */
+    public String getValue() {
+        return value;
+    }
+}
@@ -0,0 +1,33 @@
+package org.zendly.mediaconversionservice.dto;
+
+/**
+ * Output formats of the streaming text endpoint
+ */
+public enum TextStreamFormat {
+    /**
+     * Plain text written as it is extracted
+     */
+    TEXT("text/plain;charset=UTF-8"),
+    /**
+     * One JSON object per page or section, newline-delimited
+     */
+    NDJSON("application/x-ndjson");
+
+    private final String contentType;
+
+    TextStreamFormat(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * Resolve a format from a request parameter value, case-insensitively
+     * @throws IllegalArgumentException for unknown formats
+     */
+    public static TextStreamFormat fromValue(String value) {
+        return valueOf(value.trim().toUpperCase());
+    }
+}
@@ -0,0 +1,27 @@
+package org.zendly.mediaconversionservice.exception;
+
+import org.zendly.mediaconversionservice.concurrency.ConversionEngine;
+
+/**
+ * Exception thrown when a conversion engine is saturated and its wait queue is full
+ * Mapped to 429 Too Many Requests with a Retry-After hint
+ */
+public class BulkheadFullException extends RuntimeException {
+
+    private final ConversionEngine engine;
+    private final long retryAfterSeconds;
+
+    public BulkheadFullException(ConversionEngine engine, long retryAfterSeconds) {
+        super("Conversion engine " + engine + " is at capacity, retry later");
+        this.engine = engine;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public ConversionEngine getEngine() {
+        return engine;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
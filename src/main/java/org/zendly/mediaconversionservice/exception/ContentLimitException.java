@@ -0,0 +1,14 @@
+package org.zendly.mediaconversionservice.exception;
+
+import org.apache.tika.exception.TikaException;
+
+/**
+ * Exception thrown when a document trips Tika's zip-bomb protection
+ * The limits apply whatever the type, so the document is rejected rather than parsed again with type detection
+ */
+public class ContentLimitException extends TikaException {
+
+    public ContentLimitException(TikaException cause) {
+        super(cause.getMessage(), cause);
+    }
+}
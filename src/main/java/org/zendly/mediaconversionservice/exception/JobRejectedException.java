@@ -0,0 +1,15 @@
+package org.zendly.mediaconversionservice.exception;
+
+/**
+ * Exception thrown when the conversion job queue is full
+ */
+public class JobRejectedException extends RuntimeException {
+
+    public JobRejectedException(String message) {
+        super(message);
+    }
+
+    public JobRejectedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
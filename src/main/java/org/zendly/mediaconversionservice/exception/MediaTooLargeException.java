@@ -0,0 +1,21 @@
+package org.zendly.mediaconversionservice.exception;
+
+import org.zendly.mediaconversionservice.constants.ApplicationConstants;
+
+/**
+ * Exception thrown when a downloaded media object exceeds the configured size limit
+ * Raised while streaming, so oversized objects are aborted without being read in full
+ */
+public class MediaTooLargeException extends ConversionException {
+
+    private final long maxBytes;
+
+    public MediaTooLargeException(long maxBytes) {
+        super(ApplicationConstants.ERROR_FILE_TOO_LARGE + " (" + maxBytes + " bytes)");
+        this.maxBytes = maxBytes;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+}
@@ -0,0 +1,46 @@
+package org.zendly.mediaconversionservice.extract;
+
+import org.apache.tika.sax.ContentHandlerDecorator;
+import org.xml.sax.Attributes;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.SAXException;
+import org.zendly.mediaconversionservice.concurrency.ConversionBudget;
+
+/**
+ * Stops a parse at the next SAX event once the conversion budget has expired
+ * Parsers that ignore interrupts still emit events, so this is what actually ends most runaway parses;
+ * everything written to the decorated handler before that point is kept
+ */
+public class BudgetContentHandler extends ContentHandlerDecorator {
+
+    private final ConversionBudget budget;
+
+    public BudgetContentHandler(ContentHandler handler, ConversionBudget budget) {
+        super(handler);
+        this.budget = budget;
+    }
+
+    @Override
+    public void startElement(String uri, String localName, String name, Attributes atts) throws SAXException {
+        checkBudget();
+        super.startElement(uri, localName, name, atts);
+    }
+
+    @Override
+    public void characters(char[] ch, int start, int length) throws SAXException {
+        checkBudget();
+        super.characters(ch, start, length);
+    }
+
+    @Override
+    public void ignorableWhitespace(char[] ch, int start, int length) throws SAXException {
+        checkBudget();
+        super.ignorableWhitespace(ch, start, length);
+    }
+
+    private void checkBudget() throws SAXException {
+        if (budget.isExpired()) {
+            throw new SAXException("Conversion stopped: " + budget.getExpiredReason() + " budget exceeded");
+        }
+    }
+}
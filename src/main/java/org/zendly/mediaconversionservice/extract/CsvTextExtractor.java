@@ -0,0 +1,112 @@
+package org.zendly.mediaconversionservice.extract;
+
+import org.xml.sax.ContentHandler;
+import org.xml.sax.SAXException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.CharBuffer;
+
+/**
+ * CSV and similar delimited text, read row by row
+ * Each row becomes one line with its cells separated by tabs and their quoting removed. The delimiter
+ * (comma, semicolon, tab or pipe) is the one that occurs most often in the first row outside quotes.
+ * Line breaks inside quoted cells become spaces so every row stays on one line.
+ */
+final class CsvTextExtractor implements FastPathExtractor {
+
+    private static final char[] DELIMITERS = {',', ';', '\t', '|'};
+
+    @Override
+    public void extract(InputStream stream, ContentHandler handler) throws IOException, SAXException {
+        TextOutput output = new TextOutput(handler);
+        Reader reader = TextDecoding.open(stream);
+        CharBuffer chunk = CharBuffer.allocate(TextOutput.BUFFER_CHARS);
+
+        char delimiter = 0;
+        boolean inQuotes = false;
+        boolean quoteInQuotes = false;
+        boolean fieldStart = true;
+        boolean skipLineFeed = false;
+
+        while (reader.read(chunk) >= 0) {
+            char[] chars = chunk.array();
+            int length = chunk.position();
+            if (delimiter == 0) {
+                delimiter = delimiter(chars, length);
+            }
+            for (int i = 0; i < length; i++) {
+                char c = chars[i];
+                if (skipLineFeed) {
+                    skipLineFeed = false;
+                    if (c == '\n') {
+                        continue;
+                    }
+                }
+                if (inQuotes) {
+                    if (quoteInQuotes) {
+                        quoteInQuotes = false;
+                        if (c == '"') {
+                            // Doubled quote inside a quoted cell
+                            output.append('"');
+                            continue;
+                        }
+                        inQuotes = false;
+                    } else if (c == '"') {
+                        quoteInQuotes = true;
+                        continue;
+                    } else {
+                        output.append(c == '\r' || c == '\n' ? ' ' : c);
+                        continue;
+                    }
+                }
+                if (c == delimiter) {
+                    output.append('\t');
+                    fieldStart = true;
+                } else if (c == '\r' || c == '\n') {
+                    output.append('\n');
+                    fieldStart = true;
+                    skipLineFeed = c == '\r';
+                } else if (c == '"' && fieldStart) {
+                    inQuotes = true;
+                    fieldStart = false;
+                } else {
+                    output.append(c);
+                    fieldStart = false;
+                }
+            }
+            chunk.clear();
+        }
+        output.finish();
+    }
+
+    /**
+     * Most frequent delimiter candidate in the first row of the first chunk
+     */
+    private static char delimiter(char[] chars, int length) {
+        int[] counts = new int[DELIMITERS.length];
+        boolean inQuotes = false;
+        for (int i = 0; i < length; i++) {
+            char c = chars[i];
+            if (c == '"') {
+                inQuotes = !inQuotes;
+            } else if (!inQuotes && (c == '\n' || c == '\r')) {
+                break;
+            } else if (!inQuotes) {
+                for (int d = 0; d < DELIMITERS.length; d++) {
+                    if (c == DELIMITERS[d]) {
+                        counts[d]++;
+                    }
+                }
+            }
+        }
+        int best = 0;
+        for (int d = 1; d < DELIMITERS.length; d++) {
+            if (counts[d] > counts[best]) {
+                best = d;
+            }
+        }
+        return DELIMITERS[best];
+    }
+}
@@ -0,0 +1,192 @@
+package org.zendly.mediaconversionservice.extract;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.tika.exception.EncryptedDocumentException;
+import org.apache.tika.exception.TikaException;
+import org.apache.tika.exception.TikaMemoryLimitException;
+import org.apache.tika.io.TemporaryResources;
+import org.apache.tika.io.TikaInputStream;
+import org.apache.tika.metadata.Metadata;
+import org.apache.tika.mime.MediaType;
+import org.apache.tika.mime.MediaTypeRegistry;
+import org.apache.tika.parser.AutoDetectParser;
+import org.apache.tika.parser.CompositeParser;
+import org.apache.tika.parser.ParseContext;
+import org.apache.tika.parser.Parser;
+import org.apache.tika.sax.SecureContentHandler;
+import org.springframework.stereotype.Component;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.SAXException;
+import org.zendly.mediaconversionservice.config.MimeRoutingConfig;
+import org.zendly.mediaconversionservice.exception.ContentLimitException;
+import org.zendly.mediaconversionservice.service.DocumentProcessingStrategy;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Concrete Tika parsers for the MIME types in the routing table, resolved once at startup
+ * For a known type, {@link AutoDetectParser} would read the magic bytes again and
+ * walk its composite parser to arrive at the same parser; calling it directly skips both. The parsers are
+ * looked up in the shared AutoDetectParser, so they are the instances it dispatches to, shared between
+ * threads and warmed up with it. Parses keep AutoDetectParser's TikaInputStream spooling and zip-bomb protection.
+ */
+@Slf4j
+@Component
+public class DirectParserRegistry {
+
+    private static final String METRIC_FALLBACK = "tika.parser.direct.fallback";
+
+    private final Map<String, Parser> parsers;
+    private final MeterRegistry meterRegistry;
+
+    public DirectParserRegistry(MimeRoutingConfig config, DocumentProcessingStrategy processingStrategy,
+                                SharedTikaParser sharedParser, MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        if (!config.isDirectDispatch()) {
+            this.parsers = Map.of();
+            log.info("Direct parser dispatch disabled, every document is auto-detected");
+            return;
+        }
+
+        AutoDetectParser autoDetectParser = sharedParser.parser();
+        MediaTypeRegistry registry = autoDetectParser.getMediaTypeRegistry();
+        Map<MediaType, Parser> registered = leafParsers(autoDetectParser, new ParseContext());
+
+        Map<String, Parser> table = new HashMap<>();
+        for (DocumentProcessingStrategy.Route route : processingStrategy.routes()) {
+            if (DocumentProcessingStrategy.PARSER_AUTO.equals(route.parser())) {
+                continue;
+            }
+            Parser parser = route.parser() != null
+                    ? configuredParser(route.parser(), registered)
+                    : registeredParser(MediaType.parse(route.mimeType()), registered, registry);
+            if (parser != null) {
+                table.put(route.mimeType(), parser);
+            }
+        }
+        this.parsers = Map.copyOf(table);
+
+        Map<String, String> summary = new TreeMap<>();
+        parsers.forEach((mimeType, parser) -> summary.put(mimeType, parser.getClass().getSimpleName()));
+        log.info("Direct parser dispatch configured - {}", summary);
+    }
+
+    /**
+     * Parser to call directly for a route
+     * @return null when the type is unknown or configured to be auto-detected
+     */
+    public Parser parserFor(DocumentProcessingStrategy.Route route) {
+        return route.mimeType() != null ? parsers.get(route.mimeType()) : null;
+    }
+
+    /**
+     * Parse with a known parser, declaring the routed MIME type to it as AutoDetectParser would after detection
+     * The context is only read, since it is shared between threads; it should hold the shared AutoDetectParser
+     * as its {@link Parser}, so embedded documents are still detected without Tika creating one per parse
+     * @throws ContentLimitException if the content trips the zip-bomb protection
+     */
+    public void parse(Parser parser, String mimeType, InputStream stream, ContentHandler handler,
+                      Metadata metadata, ParseContext context) throws IOException, SAXException, TikaException {
+        metadata.set(Metadata.CONTENT_TYPE, mimeType);
+        try (TemporaryResources tmp = new TemporaryResources()) {
+            TikaInputStream tis = TikaInputStream.get(stream, tmp, metadata);
+            SecureContentHandler secureHandler = new SecureContentHandler(handler, tis);
+            try {
+                parser.parse(tis, secureHandler, metadata, context);
+            } catch (SAXException e) {
+                try {
+                    secureHandler.throwIfCauseOf(e);
+                } catch (TikaException limit) {
+                    throw new ContentLimitException(limit);
+                }
+                throw e;
+            } catch (RuntimeException e) {
+                // As CompositeParser does: POI and others fail on content of another type with runtime exceptions
+                throw new TikaException("Unexpected RuntimeException from " + parser.getClass().getName(), e);
+            }
+        }
+    }
+
+    /**
+     * Whether a failed direct parse may be the wrong parser for the content, so detecting the type could help
+     * Encrypted documents and zip-bomb or memory limit violations fail the same way whatever the parser
+     */
+    public static boolean isFallbackCandidate(Exception e) {
+        return !(e instanceof EncryptedDocumentException || e instanceof ContentLimitException
+                || e instanceof TikaMemoryLimitException);
+    }
+
+    /**
+     * Count a document its declared parser rejected, which is then auto-detected instead
+     */
+    public void recordFallback(String mimeType) {
+        Counter.builder(METRIC_FALLBACK)
+                .description("Documents the directly dispatched parser rejected, re-parsed with type detection")
+                .tag("mime_type", mimeType)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Parser per type of a composite parser, looking through nested composites such as the DefaultParser
+     * that AutoDetectParser wraps down to the parser that handles the type
+     */
+    private static Map<MediaType, Parser> leafParsers(CompositeParser composite, ParseContext context) {
+        Map<MediaType, Parser> leaves = new HashMap<>();
+        Map<Parser, Map<MediaType, Parser>> nested = new IdentityHashMap<>();
+        composite.getParsers(context).forEach((type, parser) -> {
+            if (parser instanceof CompositeParser child) {
+                Parser leaf = nested.computeIfAbsent(child, c -> leafParsers(child, context)).get(type);
+                if (leaf != null) {
+                    leaves.put(type, leaf);
+                }
+            } else {
+                leaves.put(type, parser);
+            }
+        });
+        return leaves;
+    }
+
+    /**
+     * Parser for a type the way CompositeParser picks it: the type itself, then its supertypes
+     */
+    private static Parser registeredParser(MediaType type, Map<MediaType, Parser> registered,
+                                           MediaTypeRegistry registry) {
+        MediaType candidate = registry.normalize(type);
+        while (candidate != null) {
+            Parser parser = registered.get(candidate);
+            if (parser != null) {
+                return parser;
+            }
+            candidate = registry.getSupertype(candidate);
+        }
+        return null;
+    }
+
+    /**
+     * Instance of a configured parser class, reusing Tika's own instance when it has one
+     */
+    private static Parser configuredParser(String className, Map<MediaType, Parser> registered) {
+        for (Parser parser : registered.values()) {
+            if (parser.getClass().getName().equals(className)) {
+                return parser;
+            }
+        }
+        try {
+            Class<?> parserClass = Class.forName(className);
+            if (!Parser.class.isAssignableFrom(parserClass)) {
+                throw new IllegalArgumentException(className + " is not a Tika parser");
+            }
+            return (Parser) parserClass.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("Cannot create configured parser " + className, e);
+        }
+    }
+}
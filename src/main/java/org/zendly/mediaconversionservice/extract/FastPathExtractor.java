@@ -0,0 +1,21 @@
+package org.zendly.mediaconversionservice.extract;
+
+import org.xml.sax.ContentHandler;
+import org.xml.sax.SAXException;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Extracts the text of a simple format straight from its bytes, without Tika's type detection or parsers
+ * Text is reported to the handler as the body of an XHTML document, like a Tika parse, so write limits,
+ * time budgets and the streaming handlers apply unchanged
+ */
+public interface FastPathExtractor {
+
+    /**
+     * @throws IOException if the content cannot be read as this format; Tika can still be tried on it
+     * @throws SAXException if the handler stops the extraction, e.g. at the write limit
+     */
+    void extract(InputStream stream, ContentHandler handler) throws IOException, SAXException;
+}
@@ -0,0 +1,68 @@
+package org.zendly.mediaconversionservice.extract;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.zendly.mediaconversionservice.config.MimeRoutingConfig;
+import org.zendly.mediaconversionservice.constants.ApplicationConstants;
+import org.zendly.mediaconversionservice.dto.ProcessingStrategy;
+import org.zendly.mediaconversionservice.service.DocumentProcessingStrategy;
+
+import java.util.Map;
+
+/**
+ * Built-in extractors for plain text, CSV, JSON and XML, which make up most documents and need none of
+ * Tika's detection or parser machinery
+ * They run in-process even when Tika parses are forked, since they cannot crash or hang the way a
+ * third-party format parser can.
+ */
+@Slf4j
+@Component
+public class FastPathExtractors {
+
+    private static final String METRIC_FALLBACK = "conversion.fastpath.fallback";
+
+    private final Map<String, FastPathExtractor> extractors;
+    private final MeterRegistry meterRegistry;
+
+    public FastPathExtractors(MimeRoutingConfig config, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        if (!config.isFastPath()) {
+            this.extractors = Map.of();
+            log.info("Fast-path extraction disabled, plain text, CSV, JSON and XML are parsed with Tika");
+            return;
+        }
+        FastPathExtractor xml = new XmlTextExtractor();
+        this.extractors = Map.of(
+                ApplicationConstants.MIME_TYPE_TXT, new PlainTextExtractor(),
+                ApplicationConstants.MIME_TYPE_CSV, new CsvTextExtractor(),
+                ApplicationConstants.MIME_TYPE_JSON, new JsonTextExtractor(objectMapper.getFactory()),
+                ApplicationConstants.MIME_TYPE_XML, xml,
+                ApplicationConstants.MIME_TYPE_APP_XML, xml);
+        log.info("Fast-path extraction configured - Types: {}", extractors.keySet());
+    }
+
+    /**
+     * Extractor for a route
+     * @return null for other types, routes with OCR, and routes configured with a parser of their own
+     */
+    public FastPathExtractor extractorFor(DocumentProcessingStrategy.Route route) {
+        if (route.mimeType() == null || route.parser() != null || route.strategy() != ProcessingStrategy.TEXT_ONLY) {
+            return null;
+        }
+        return extractors.get(route.mimeType());
+    }
+
+    /**
+     * Count a document the fast path could not read, which is then parsed with Tika instead
+     */
+    public void recordFallback(String mimeType) {
+        Counter.builder(METRIC_FALLBACK)
+                .description("Documents the fast-path extractor rejected, re-parsed with Tika")
+                .tag("mime_type", mimeType)
+                .register(meterRegistry)
+                .increment();
+    }
+}
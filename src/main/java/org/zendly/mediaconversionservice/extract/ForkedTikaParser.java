@@ -0,0 +1,93 @@
+package org.zendly.mediaconversionservice.extract;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.tika.exception.TikaException;
+import org.apache.tika.fork.ForkParser;
+import org.apache.tika.fork.ParserFactoryFactory;
+import org.apache.tika.metadata.Metadata;
+import org.apache.tika.parser.AutoDetectParser;
+import org.apache.tika.parser.AutoDetectParserFactory;
+import org.apache.tika.parser.ParseContext;
+import org.springframework.stereotype.Component;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.SAXException;
+import org.zendly.mediaconversionservice.config.TikaForkConfig;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs Tika parses in a pool of forked worker JVMs
+ * The input is streamed to the worker and SAX events are streamed back, so handlers work unchanged.
+ * Each worker has its own heap cap and parse timeout and is recycled after a fixed number of documents;
+ * a worker that dies takes only its current document with it.
+ */
+@Slf4j
+@Component
+public class ForkedTikaParser {
+
+    private static final String METRIC_FAILURES = "tika.fork.failures";
+
+    private final TikaForkConfig config;
+    private final ForkParser forkParser;
+    private final Counter failures;
+
+    public ForkedTikaParser(TikaForkConfig config, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.forkParser = config.isEnabled() ? createForkParser(config) : null;
+        this.failures = Counter.builder(METRIC_FAILURES)
+                .description("Forked parses that failed, including worker crashes and timeouts")
+                .register(meterRegistry);
+        log.info("Forked Tika parsing configured - Enabled: {}, Workers: {}, Heap: {}MB, Timeout: {}ms, Documents per worker: {}",
+                config.isEnabled(), config.getPoolSize(), config.getWorkerHeapMb(), config.getParseTimeoutMs(),
+                config.getMaxDocumentsPerWorker());
+    }
+
+    public boolean isEnabled() {
+        return forkParser != null;
+    }
+
+    /**
+     * Parse in a worker JVM; blocks while all workers are busy
+     * @throws TikaException also when the worker crashes, runs out of memory or times out
+     */
+    public void parse(InputStream stream, ContentHandler handler, Metadata metadata, ParseContext context)
+            throws IOException, SAXException, TikaException {
+        try {
+            forkParser.parse(stream, handler, metadata, context);
+        } catch (IOException | SAXException | TikaException | RuntimeException e) {
+            failures.increment();
+            throw e;
+        }
+    }
+
+    private static ForkParser createForkParser(TikaForkConfig config) {
+        ForkParser parser;
+        if (config.getTikaBin() != null && !config.getTikaBin().isBlank()) {
+            parser = new ForkParser(Paths.get(config.getTikaBin()),
+                    new ParserFactoryFactory(AutoDetectParserFactory.class.getName(), Map.of()));
+        } else {
+            parser = new ForkParser(ForkedTikaParser.class.getClassLoader(), new AutoDetectParser());
+        }
+        parser.setPoolSize(config.getPoolSize());
+        parser.setJavaCommand(List.of(config.getJavaCommand(), "-Xmx" + config.getWorkerHeapMb() + "m",
+                "-XX:+ExitOnOutOfMemoryError", "-Djava.awt.headless=true"));
+        parser.setServerParseTimeoutMillis(config.getParseTimeoutMs());
+        parser.setServerWaitTimeoutMillis(config.getIdleTimeoutMs());
+        parser.setMaxFilesProcessedPerServer(config.getMaxDocumentsPerWorker());
+        return parser;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (forkParser != null) {
+            forkParser.close();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package org.zendly.mediaconversionservice.extract;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.SAXException;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * JSON, including newline-delimited JSON: the string values, one per line, in document order
+ * Keys, numbers, booleans and structure are left out. Values are read from Jackson's token buffer
+ * without creating Strings; the encoding is detected by Jackson from the first bytes.
+ */
+final class JsonTextExtractor implements FastPathExtractor {
+
+    private final JsonFactory jsonFactory;
+
+    JsonTextExtractor(JsonFactory jsonFactory) {
+        this.jsonFactory = jsonFactory;
+    }
+
+    @Override
+    public void extract(InputStream stream, ContentHandler handler) throws IOException, SAXException {
+        TextOutput output = new TextOutput(handler);
+        try (JsonParser parser = jsonFactory.createParser(stream)) {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                if (token == JsonToken.VALUE_STRING) {
+                    output.append(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+                    output.endLine();
+                }
+            }
+        }
+        output.finish();
+    }
+}
@@ -0,0 +1,106 @@
+package org.zendly.mediaconversionservice.extract;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Set;
+
+/**
+ * SAX handler that writes extracted text as newline-delimited JSON, one object per page or section
+ * Pages are the {@code <div class="page">} / {@code <div class="slide-content">} blocks Tika emits for
+ * paged formats; other content is cut into sections at block boundaries once a chunk size is reached.
+ * Only the current page or section is held in memory, and each line is flushed as soon as it is complete.
+ */
+public class NdjsonSectionContentHandler extends DefaultHandler {
+
+    private static final Set<String> PAGE_CLASSES = Set.of("page", "slide-content");
+    private static final Set<String> BLOCK_ELEMENTS = Set.of(
+            "p", "div", "tr", "li", "h1", "h2", "h3", "h4", "h5", "h6", "table", "pre", "blockquote");
+
+    private final Writer writer;
+    private final ObjectMapper objectMapper;
+    private final int sectionChars;
+    private final StringBuilder buffer = new StringBuilder();
+
+    private int depth;
+    private int pageDepth = -1;
+    private int index;
+
+    public NdjsonSectionContentHandler(Writer writer, ObjectMapper objectMapper, int sectionChars) {
+        this.writer = writer;
+        this.objectMapper = objectMapper;
+        this.sectionChars = sectionChars;
+    }
+
+    @Override
+    public void startElement(String uri, String localName, String qName, Attributes attributes) throws SAXException {
+        depth++;
+        if (pageDepth < 0 && "div".equals(name(localName, qName)) && PAGE_CLASSES.contains(attributes.getValue("class"))) {
+            // Anything before the first page (e.g. document headers) becomes its own section
+            emit("section");
+            pageDepth = depth;
+        }
+    }
+
+    @Override
+    public void endElement(String uri, String localName, String qName) throws SAXException {
+        String element = name(localName, qName);
+        if (depth == pageDepth) {
+            emit("page");
+            pageDepth = -1;
+        } else if (BLOCK_ELEMENTS.contains(element)) {
+            buffer.append('\n');
+            if (pageDepth < 0 && buffer.length() >= sectionChars) {
+                emit("section");
+            }
+        }
+        depth--;
+    }
+
+    @Override
+    public void characters(char[] ch, int start, int length) {
+        buffer.append(ch, start, length);
+    }
+
+    @Override
+    public void ignorableWhitespace(char[] ch, int start, int length) {
+        buffer.append(ch, start, length);
+    }
+
+    @Override
+    public void endDocument() throws SAXException {
+        emit("section");
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            throw new SAXException("Failed to flush NDJSON output", e);
+        }
+    }
+
+    private void emit(String type) throws SAXException {
+        String text = buffer.toString().strip();
+        buffer.setLength(0);
+        if (text.isEmpty() && !"page".equals(type)) {
+            return;
+        }
+        try {
+            writer.write(objectMapper.writeValueAsString(new Section(index++, type, text)));
+            writer.write('\n');
+            writer.flush();
+        } catch (IOException e) {
+            // Typically the client went away; abort the parse
+            throw new SAXException("Failed to write NDJSON section", e);
+        }
+    }
+
+    private static String name(String localName, String qName) {
+        return localName != null && !localName.isEmpty() ? localName : qName;
+    }
+
+    record Section(int index, String type, String text) {
+    }
+}
@@ -0,0 +1,27 @@
+package org.zendly.mediaconversionservice.extract;
+
+import org.xml.sax.ContentHandler;
+import org.xml.sax.SAXException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.CharBuffer;
+
+/**
+ * Plain text: decoded in its detected charset and copied through unchanged
+ */
+final class PlainTextExtractor implements FastPathExtractor {
+
+    @Override
+    public void extract(InputStream stream, ContentHandler handler) throws IOException, SAXException {
+        TextOutput output = new TextOutput(handler);
+        Reader reader = TextDecoding.open(stream);
+        CharBuffer chunk = CharBuffer.allocate(TextOutput.BUFFER_CHARS);
+        while (reader.read(chunk) >= 0) {
+            output.append(chunk.array(), 0, chunk.position());
+            chunk.clear();
+        }
+        output.finish();
+    }
+}
@@ -0,0 +1,96 @@
+package org.zendly.mediaconversionservice.extract;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.tika.config.TikaConfig;
+import org.apache.tika.exception.TikaException;
+import org.apache.tika.io.TikaInputStream;
+import org.apache.tika.metadata.Metadata;
+import org.apache.tika.metadata.TikaCoreProperties;
+import org.apache.tika.parser.AutoDetectParser;
+import org.apache.tika.parser.ParseContext;
+import org.apache.tika.sax.BodyContentHandler;
+import org.springframework.stereotype.Component;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.SAXException;
+import org.zendly.mediaconversionservice.config.TikaWarmupConfig;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * The in-process {@link AutoDetectParser}, shared by all concurrent parses and warmed at startup
+ * AutoDetectParser and the leaf parsers of its TikaConfig are thread-safe, so one instance serves every
+ * parse. At startup it parses a tiny embedded sample of every supported format, so class loading, font
+ * caches and JIT warm-up are paid before the first request rather than by it. Isolation from a parser
+ * that crashes or hangs needs a separate JVM, see {@link ForkedTikaParser}.
+ */
+@Slf4j
+@Component
+public class SharedTikaParser {
+
+    private static final String SAMPLE_DIR = "/tika/warmup/";
+    private static final List<String> SAMPLES = List.of(
+            "sample.pdf", "sample.docx", "sample.xlsx", "sample.pptx", "sample.xls", "sample.ppt",
+            "sample.odt", "sample.ods", "sample.odp", "sample.rtf", "sample.html", "sample.xml",
+            "sample.json", "sample.csv", "sample.txt");
+
+    private final TikaWarmupConfig config;
+    private final AutoDetectParser parser;
+
+    public SharedTikaParser(TikaWarmupConfig config) {
+        this.config = config;
+        this.parser = new AutoDetectParser(TikaConfig.getDefaultConfig());
+    }
+
+    /**
+     * Run the warm-up samples through the parser
+     */
+    @PostConstruct
+    public void prewarm() {
+        if (!config.isEnabled()) {
+            return;
+        }
+        long startTime = System.currentTimeMillis();
+        int warmed = 0;
+        for (String sample : SAMPLES) {
+            if (warmUp(sample)) {
+                warmed++;
+            }
+        }
+        log.info("Tika parser warmed up - Samples parsed: {}/{}, Time: {}ms",
+                warmed, SAMPLES.size(), System.currentTimeMillis() - startTime);
+    }
+
+    /**
+     * Parse with type detection
+     */
+    public void parse(InputStream stream, ContentHandler handler, Metadata metadata, ParseContext context)
+            throws IOException, SAXException, TikaException {
+        parser.parse(stream, handler, metadata, context);
+    }
+
+    /**
+     * The shared parser, for embedded documents of parses that bypass type detection
+     */
+    public AutoDetectParser parser() {
+        return parser;
+    }
+
+    private boolean warmUp(String sample) {
+        try (InputStream resource = SharedTikaParser.class.getResourceAsStream(SAMPLE_DIR + sample)) {
+            if (resource == null) {
+                log.warn("Tika warm-up sample not found: {}", sample);
+                return false;
+            }
+            Metadata metadata = new Metadata();
+            metadata.set(TikaCoreProperties.RESOURCE_NAME_KEY, sample);
+            parse(TikaInputStream.get(resource), new BodyContentHandler(-1), metadata, new ParseContext());
+            return true;
+        } catch (Exception e) {
+            log.warn("Tika warm-up of {} failed: {}", sample, e.getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package org.zendly.mediaconversionservice.extract;
+
+import org.apache.tika.extractor.EmbeddedDocumentExtractor;
+import org.apache.tika.metadata.Metadata;
+import org.xml.sax.ContentHandler;
+
+import java.io.InputStream;
+import java.io.Serializable;
+
+/**
+ * Tells parsers to leave embedded documents alone, so only the container's own text is extracted
+ * Serializable because forked parses send the ParseContext to the worker JVM
+ */
+public class SkipEmbeddedDocumentExtractor implements EmbeddedDocumentExtractor, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public boolean shouldParseEmbedded(Metadata metadata) {
+        return false;
+    }
+
+    @Override
+    public void parseEmbedded(InputStream stream, ContentHandler handler, Metadata metadata, boolean outputHtml) {
+        // Never called, shouldParseEmbedded rejects everything
+    }
+}
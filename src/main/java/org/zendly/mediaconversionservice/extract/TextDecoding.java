@@ -0,0 +1,102 @@
+package org.zendly.mediaconversionservice.extract;
+
+import org.apache.tika.config.TikaConfig;
+import org.apache.tika.detect.EncodingDetector;
+import org.apache.tika.metadata.Metadata;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Opens text content as a Reader in its detected charset
+ * A byte order mark decides, then a prefix that is valid UTF-8 (which includes ASCII); only other content
+ * goes to Tika's statistical encoding detectors, the same ones its text parser uses
+ */
+final class TextDecoding {
+
+    private static final int PREFIX_BYTES = 8192;
+    private static final Charset FALLBACK = Charset.forName("windows-1252");
+    private static final EncodingDetector ENCODING_DETECTOR = TikaConfig.getDefaultConfig().getEncodingDetector();
+
+    private TextDecoding() {
+    }
+
+    /**
+     * Reader over the content, positioned after any byte order mark; malformed input is replaced
+     */
+    static Reader open(InputStream stream) throws IOException {
+        BufferedInputStream in = new BufferedInputStream(stream, PREFIX_BYTES);
+        in.mark(PREFIX_BYTES);
+        byte[] prefix = in.readNBytes(PREFIX_BYTES);
+        in.reset();
+
+        Charset charset = byteOrderMark(prefix);
+        if (charset != null) {
+            in.skipNBytes(charset == StandardCharsets.UTF_8 ? 3 : 2);
+        } else if (isUtf8(prefix, prefix.length < PREFIX_BYTES)) {
+            charset = StandardCharsets.UTF_8;
+        } else {
+            Charset detected = ENCODING_DETECTOR.detect(in, new Metadata());
+            charset = detected != null ? detected : FALLBACK;
+        }
+        return new InputStreamReader(in, charset);
+    }
+
+    private static Charset byteOrderMark(byte[] prefix) {
+        if (prefix.length >= 3 && (prefix[0] & 0xFF) == 0xEF && (prefix[1] & 0xFF) == 0xBB && (prefix[2] & 0xFF) == 0xBF) {
+            return StandardCharsets.UTF_8;
+        }
+        if (prefix.length >= 2 && (prefix[0] & 0xFF) == 0xFE && (prefix[1] & 0xFF) == 0xFF) {
+            return StandardCharsets.UTF_16BE;
+        }
+        if (prefix.length >= 2 && (prefix[0] & 0xFF) == 0xFF && (prefix[1] & 0xFF) == 0xFE) {
+            return StandardCharsets.UTF_16LE;
+        }
+        return null;
+    }
+
+    /**
+     * Whether the bytes are well-formed UTF-8
+     * @param complete false when the bytes are a prefix, so a sequence cut off at the end is allowed
+     */
+    private static boolean isUtf8(byte[] bytes, boolean complete) {
+        int i = 0;
+        while (i < bytes.length) {
+            int b = bytes[i] & 0xFF;
+            if (b < 0x80) {
+                if (b == 0) {
+                    // NULs mean UTF-16 or binary content
+                    return false;
+                }
+                i++;
+                continue;
+            }
+            int continuation;
+            if (b >= 0xC2 && b <= 0xDF) {
+                continuation = 1;
+            } else if (b >= 0xE0 && b <= 0xEF) {
+                continuation = 2;
+            } else if (b >= 0xF0 && b <= 0xF4) {
+                continuation = 3;
+            } else {
+                return false;
+            }
+            if (i + continuation >= bytes.length) {
+                // The sequence runs past the end
+                return !complete;
+            }
+            for (int j = 1; j <= continuation; j++) {
+                if ((bytes[i + j] & 0xC0) != 0x80) {
+                    return false;
+                }
+            }
+            i += continuation + 1;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,75 @@
+package org.zendly.mediaconversionservice.extract;
+
+import org.apache.tika.metadata.Metadata;
+import org.apache.tika.sax.XHTMLContentHandler;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.SAXException;
+
+import java.nio.CharBuffer;
+
+/**
+ * Buffers the text produced by a fast-path extractor and passes it on as XHTML body characters
+ * Small appends such as single cells or values are collected in one reused buffer; chunks of at least
+ * half its size are passed through without copying
+ */
+final class TextOutput {
+
+    static final int BUFFER_CHARS = 8192;
+
+    private final XHTMLContentHandler xhtml;
+    private final CharBuffer buffer = CharBuffer.allocate(BUFFER_CHARS);
+    private boolean lineStart = true;
+
+    TextOutput(ContentHandler handler) throws SAXException {
+        this.xhtml = new XHTMLContentHandler(handler, new Metadata());
+        xhtml.startDocument();
+    }
+
+    void append(char[] chars, int offset, int length) throws SAXException {
+        if (length <= 0) {
+            return;
+        }
+        if (length >= BUFFER_CHARS / 2) {
+            flush();
+            xhtml.characters(chars, offset, length);
+        } else {
+            if (length > buffer.remaining()) {
+                flush();
+            }
+            buffer.put(chars, offset, length);
+        }
+        lineStart = chars[offset + length - 1] == '\n';
+    }
+
+    void append(char c) throws SAXException {
+        if (!buffer.hasRemaining()) {
+            flush();
+        }
+        buffer.put(c);
+        lineStart = c == '\n';
+    }
+
+    /**
+     * End the current line unless nothing was written on it
+     */
+    void endLine() throws SAXException {
+        if (!lineStart) {
+            append('\n');
+        }
+    }
+
+    /**
+     * Pass on the remaining text and close the document
+     */
+    void finish() throws SAXException {
+        flush();
+        xhtml.endDocument();
+    }
+
+    private void flush() throws SAXException {
+        if (buffer.position() > 0) {
+            xhtml.characters(buffer.array(), 0, buffer.position());
+            buffer.clear();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package org.zendly.mediaconversionservice.extract;
+
+import org.xml.sax.ContentHandler;
+import org.xml.sax.SAXException;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * XML: the text of its elements read with StAX, a line per element that contains text
+ * Elements closed in the middle of text, such as {@code <b>} in mixed content, do not break the line.
+ * DTDs and external entities are never processed, so neither entity expansion nor external fetches can be
+ * triggered by the content. Attributes, comments and processing instructions are left out.
+ */
+final class XmlTextExtractor implements FastPathExtractor {
+
+    // The JDK's factory is not documented as thread-safe
+    private static final ThreadLocal<XMLInputFactory> FACTORY = ThreadLocal.withInitial(XmlTextExtractor::createFactory);
+
+    @Override
+    public void extract(InputStream stream, ContentHandler handler) throws IOException, SAXException {
+        TextOutput output = new TextOutput(handler);
+        XMLStreamReader reader = null;
+        try {
+            reader = FACTORY.get().createXMLStreamReader(stream);
+            boolean elementClosed = false;
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if ((event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA) && !reader.isWhiteSpace()) {
+                    output.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                    elementClosed = false;
+                } else if (event == XMLStreamConstants.START_ELEMENT || event == XMLStreamConstants.END_ELEMENT) {
+                    if (elementClosed) {
+                        output.endLine();
+                    }
+                    elementClosed = event == XMLStreamConstants.END_ELEMENT;
+                }
+            }
+            output.endLine();
+        } catch (XMLStreamException e) {
+            throw new IOException("Malformed XML: " + e.getMessage(), e);
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (XMLStreamException e) {
+                    // Nothing left to read
+                }
+            }
+        }
+        output.finish();
+    }
+
+    private static XMLInputFactory createFactory() {
+        XMLInputFactory factory = XMLInputFactory.newDefaultFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return factory;
+    }
+}
@@ -0,0 +1,198 @@
+package org.zendly.mediaconversionservice.media;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.tika.config.TikaConfig;
+import org.apache.tika.detect.Detector;
+import org.apache.tika.metadata.Metadata;
+import org.apache.tika.metadata.TikaCoreProperties;
+import org.apache.tika.mime.MediaType;
+import org.apache.tika.mime.MediaTypeRegistry;
+import org.springframework.stereotype.Component;
+import org.zendly.mediaconversionservice.config.ContentSniffingConfig;
+import org.zendly.mediaconversionservice.constants.ApplicationConstants;
+import org.zendly.mediaconversionservice.dto.DocumentResponse;
+import org.zendly.mediaconversionservice.dto.DocumentType;
+import org.zendly.mediaconversionservice.metrics.ConversionMetrics;
+import org.zendly.mediaconversionservice.metrics.ConversionStage;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+
+/**
+ * Detects what a download really is from its first bytes and decides how it should be converted
+ * Only a bounded prefix is read, through mark/reset, so the stream can still be consumed from the start
+ * afterwards. The declared MIME type is kept when the content agrees with it or only narrows it down
+ * (a CSV is also plain text); otherwise the detected type wins and the document is routed by it.
+ */
+@Slf4j
+@Component
+public class ContentSniffer {
+
+    private static final String STRATEGY_SNIFF = "content_sniff";
+
+    /**
+     * Tika's canonical names for types the conversion engines know under another name
+     */
+    private static final Map<String, String> ENGINE_NAMES = Map.of(
+            "audio/vnd.wave", ApplicationConstants.MIME_TYPE_WAV,
+            "audio/x-flac", ApplicationConstants.MIME_TYPE_FLAC,
+            "audio/x-aac", ApplicationConstants.MIME_TYPE_ACC,
+            "audio/x-m4a", ApplicationConstants.MIME_TYPE_M4A,
+            "audio/opus", ApplicationConstants.MIME_TYPE_OGG,
+            "audio/vorbis", ApplicationConstants.MIME_TYPE_OGG,
+            "application/ogg", ApplicationConstants.MIME_TYPE_OGG);
+
+    private final ContentSniffingConfig config;
+    private final ConversionMetrics conversionMetrics;
+    private final Detector detector;
+    private final MediaTypeRegistry registry;
+
+    public ContentSniffer(ContentSniffingConfig config, ConversionMetrics conversionMetrics) {
+        this.config = config;
+        this.conversionMetrics = conversionMetrics;
+        TikaConfig tikaConfig = TikaConfig.getDefaultConfig();
+        this.detector = tikaConfig.getDetector();
+        this.registry = tikaConfig.getMediaTypeRegistry();
+        log.info("Content sniffing configured - Enabled: {}, Sniff bytes: {}, Reroute: {}",
+                config.isEnabled(), config.getSniffBytes(), config.isReroute());
+    }
+
+    /**
+     * Outcome of comparing the content with its declared type
+     * @param detectedMimeType type detected from the content, or null when sniffing is disabled
+     * @param mimeType MIME type to convert with
+     * @param documentType document type to route by
+     * @param mismatch whether the content contradicts the declared type
+     */
+    public record Detection(String declaredMimeType, String detectedMimeType, String mimeType,
+                            DocumentType declaredType, DocumentType documentType, boolean mismatch) {
+
+        /**
+         * The document as it should be converted
+         */
+        public DocumentResponse applyTo(DocumentResponse documentResponse) {
+            if (mimeType == null || (mimeType.equals(declaredMimeType) && documentType == declaredType)) {
+                return documentResponse;
+            }
+            return DocumentResponse.builder()
+                    .documentId(documentResponse.getDocumentId())
+                    .originalFileName(documentResponse.getOriginalFileName())
+                    .mimeType(mimeType)
+                    .documentType(documentType)
+                    .createdAt(documentResponse.getCreatedAt())
+                    .downloadUrl(documentResponse.getDownloadUrl())
+                    .build();
+        }
+    }
+
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    /**
+     * Detect the type of downloaded media
+     */
+    public Detection detect(DocumentResponse documentResponse, FetchedMedia media) throws IOException {
+        if (!config.isEnabled()) {
+            return declared(documentResponse);
+        }
+        try (InputStream in = new BufferedInputStream(media.openStream(), config.getSniffBytes())) {
+            return detect(documentResponse, in);
+        }
+    }
+
+    /**
+     * Detect the type from the start of a stream that is still being read, leaving it at its start
+     * @param stream must support mark/reset, e.g. a {@link BufferedInputStream}
+     */
+    public Detection detect(DocumentResponse documentResponse, InputStream stream) throws IOException {
+        if (!config.isEnabled()) {
+            return declared(documentResponse);
+        }
+        if (!stream.markSupported()) {
+            throw new IllegalArgumentException("Content sniffing needs a stream that supports mark/reset");
+        }
+
+        String detected;
+        try (ConversionMetrics.StageTimer timer = conversionMetrics.startStage(ConversionStage.MIME_DETECTION,
+                documentResponse, STRATEGY_SNIFF)) {
+            stream.mark(config.getSniffBytes());
+            byte[] prefix;
+            try {
+                prefix = stream.readNBytes(config.getSniffBytes());
+            } finally {
+                stream.reset();
+            }
+            detected = detectPrefix(prefix, documentResponse.getOriginalFileName());
+            timer.success();
+        }
+
+        Detection detection = resolve(documentResponse, detected);
+        if (detection.mismatch()) {
+            log.warn("Document {} declared as {} ({}) but content is {}, converting as {}",
+                    documentResponse.getDocumentId(), detection.declaredMimeType(), detection.declaredType(),
+                    detected, detection.documentType());
+            conversionMetrics.recordMimeMismatch(documentResponse, detected, detection.documentType());
+        }
+        return detection;
+    }
+
+    private String detectPrefix(byte[] prefix, String fileName) throws IOException {
+        Metadata metadata = new Metadata();
+        if (fileName != null) {
+            // Only refines what the bytes say, e.g. text/plain into text/csv
+            metadata.set(TikaCoreProperties.RESOURCE_NAME_KEY, fileName);
+        }
+        try (InputStream in = new ByteArrayInputStream(prefix)) {
+            return engineName(detector.detect(in, metadata));
+        }
+    }
+
+    private Detection resolve(DocumentResponse documentResponse, String detected) {
+        String declared = documentResponse.getMimeType() != null
+                ? engineName(MediaType.parse(documentResponse.getMimeType())) : null;
+        DocumentType declaredType = documentResponse.getDocumentType();
+        String octetStream = MediaType.OCTET_STREAM.toString();
+
+        // Unrecognised content, or a declared type that is the same or more specific, keeps the declared type
+        // MP4 and similar containers are detected as video/* even when they only hold audio
+        boolean mimeMismatch = !octetStream.equals(detected) && !detected.startsWith("video/")
+                && (declared == null || octetStream.equals(declared) || (!declared.equals(detected)
+                && !registry.isSpecializationOf(MediaType.parse(declared), MediaType.parse(detected))));
+        String mimeType = mimeMismatch ? detected : declared;
+        // An image or recording filed under the wrong document type is caught even when its MIME type is right
+        DocumentType documentType = mimeType != null ? documentTypeOf(mimeType) : declaredType;
+        boolean mismatch = mimeMismatch || documentType != declaredType;
+
+        if (!mismatch || !config.isReroute()) {
+            return new Detection(declared, detected, declared, declaredType, declaredType, mismatch);
+        }
+        return new Detection(declared, detected, mimeType, declaredType, documentType, true);
+    }
+
+    private String engineName(MediaType mediaType) {
+        if (mediaType == null) {
+            return MediaType.OCTET_STREAM.toString();
+        }
+        String name = registry.normalize(mediaType).getBaseType().toString();
+        return ENGINE_NAMES.getOrDefault(name, name);
+    }
+
+    private static DocumentType documentTypeOf(String mimeType) {
+        if (mimeType.startsWith("image/")) {
+            return DocumentType.IMAGE;
+        }
+        if (mimeType.startsWith("audio/")) {
+            return DocumentType.AUDIO;
+        }
+        return DocumentType.DOCUMENT;
+    }
+
+    private static Detection declared(DocumentResponse documentResponse) {
+        return new Detection(documentResponse.getMimeType(), null, documentResponse.getMimeType(),
+                documentResponse.getDocumentType(), documentResponse.getDocumentType(), false);
+    }
+}
@@ -0,0 +1,119 @@
+package org.zendly.mediaconversionservice.media;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Handle to a media object that has been downloaded exactly once
+ * Content is held in memory for small objects or spooled to a temp file for large ones,
+ * and can be re-read any number of times until the handle is closed
+ */
+@Slf4j
+public class FetchedMedia implements AutoCloseable {
+
+    private final byte[] content;
+    private final Path file;
+    private final long size;
+    private final String contentType;
+    private final String sha256;
+
+    private FetchedMedia(byte[] content, Path file, long size, String contentType, String sha256) {
+        this.content = content;
+        this.file = file;
+        this.size = size;
+        this.contentType = contentType;
+        this.sha256 = sha256;
+    }
+
+    static FetchedMedia inMemory(byte[] content, String contentType, String sha256) {
+        return new FetchedMedia(content, null, content.length, contentType, sha256);
+    }
+
+    static FetchedMedia spooled(Path file, long size, String contentType, String sha256) {
+        return new FetchedMedia(null, file, size, contentType, sha256);
+    }
+
+    /**
+     * Open a fresh stream over the downloaded content
+     */
+    public InputStream openStream() throws IOException {
+        return isInMemory() ? new ByteArrayInputStream(content) : Files.newInputStream(file);
+    }
+
+    /**
+     * Full content as a byte array (reads the spool file when not held in memory)
+     */
+    public byte[] getBytes() throws IOException {
+        return isInMemory() ? content : Files.readAllBytes(file);
+    }
+
+    /**
+     * Read a byte range without loading the whole content (safe to call concurrently)
+     * @return up to length bytes starting at offset, fewer if the content ends first
+     */
+    public byte[] readRange(long offset, int length) throws IOException {
+        int available = (int) Math.max(0, Math.min(length, size - offset));
+        if (isInMemory()) {
+            return Arrays.copyOfRange(content, (int) offset, (int) offset + available);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(available);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (buffer.hasRemaining() && channel.read(buffer, offset + buffer.position()) > 0) {
+                // keep reading until the range is filled
+            }
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Spool file path, or null when the content is held in memory
+     */
+    public Path getPath() {
+        return file;
+    }
+
+    public boolean isInMemory() {
+        return content != null;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Content type reported by the storage server, may be null
+     */
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * Hex-encoded SHA-256 of the content, computed during the download
+     */
+    public String getSha256() {
+        return sha256;
+    }
+
+    /**
+     * Release the spool file, if any
+     */
+    @Override
+    public void close() {
+        if (file != null) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("Failed to delete spooled media file {}: {}", file, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package org.zendly.mediaconversionservice.media;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+import org.zendly.mediaconversionservice.client.HttpClientMetrics;
+import org.zendly.mediaconversionservice.config.MediaFetchConfig;
+import org.zendly.mediaconversionservice.exception.MediaTooLargeException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.OptionalLong;
+
+/**
+ * Downloads media objects from pre-signed URLs exactly once per conversion
+ * Enforces the size limit and computes the SHA-256 content hash while streaming,
+ * and hands back a re-readable {@link FetchedMedia}. Downloads share the pooled HTTP client, so
+ * consecutive documents from the same storage host reuse one connection instead of a fresh TLS handshake.
+ * Content compression is never requested, so the size limit applies to the bytes on the wire.
+ */
+@Slf4j
+@Component
+public class MediaFetcher {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final HttpClient httpClient;
+    private final MediaFetchConfig config;
+    private final HttpClientMetrics httpClientMetrics;
+
+    public MediaFetcher(@Qualifier("sharedHttpClient") HttpClient httpClient,
+                        MediaFetchConfig config,
+                        HttpClientMetrics httpClientMetrics) {
+        this.httpClient = httpClient;
+        this.config = config;
+        this.httpClientMetrics = httpClientMetrics;
+    }
+
+    /**
+     * Download the object behind the given URL
+     * @param downloadUrl pre-signed download URL
+     * @param maxBytes maximum accepted object size
+     * @return handle to the downloaded content, to be closed by the caller
+     * @throws MediaTooLargeException if the object is larger than maxBytes
+     */
+    public FetchedMedia fetch(String downloadUrl, long maxBytes) throws IOException {
+        long startTime = System.currentTimeMillis();
+        URI uri = URI.create(downloadUrl);
+
+        FetchedMedia media;
+        HttpClient.Version version;
+        try (HttpClientMetrics.Exchange exchange = httpClientMetrics.start(HttpClientMetrics.CLIENT_MEDIA, uri)) {
+            HttpResponse<InputStream> response = send(uri, maxBytes, exchange);
+            version = response.version();
+            try (InputStream inputStream = response.body()) {
+                media = spool(inputStream, maxBytes, contentType(response));
+            }
+        }
+
+        log.info("Downloaded media - Size: {} bytes, In memory: {}, Protocol: {}, Time: {}ms",
+                media.getSize(), media.isInMemory(), version, System.currentTimeMillis() - startTime);
+        return media;
+    }
+
+    /**
+     * Hand the response body to a consumer as it arrives, without buffering the object
+     * Used by pipelines that process the content while it downloads; the size limit is enforced as bytes are read
+     * @param downloadUrl pre-signed download URL
+     * @param maxBytes maximum accepted object size
+     * @param consumer reads the body; the stream is only valid until it returns
+     * @throws MediaTooLargeException if the object is larger than maxBytes
+     */
+    public <T> T stream(String downloadUrl, long maxBytes, MediaStreamConsumer<T> consumer) throws IOException {
+        long startTime = System.currentTimeMillis();
+        URI uri = URI.create(downloadUrl);
+
+        try (HttpClientMetrics.Exchange exchange = httpClientMetrics.start(HttpClientMetrics.CLIENT_MEDIA, uri)) {
+            HttpResponse<InputStream> response = send(uri, maxBytes, exchange);
+            try (SizeLimitedInputStream inputStream = new SizeLimitedInputStream(response.body(), maxBytes)) {
+                T result = consumer.accept(inputStream, contentType(response));
+                log.info("Streamed media - Size: {} bytes, Protocol: {}, Time: {}ms",
+                        inputStream.getCount(), response.version(), System.currentTimeMillis() - startTime);
+                return result;
+            }
+        }
+    }
+
+    /**
+     * Send the GET and check status and declared length before any of the body is read
+     * Blocking on purpose: the body is consumed as an InputStream on the converting thread, which holds
+     * its bulkhead permit and time budget anyway
+     * @return the response; the caller must close its body to return the connection to the pool
+     */
+    private HttpResponse<InputStream> send(URI uri, long maxBytes, HttpClientMetrics.Exchange exchange)
+            throws IOException {
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .timeout(Duration.ofMillis(config.getReadTimeoutMs()))
+                .GET()
+                .build();
+        HttpResponse<InputStream> response;
+        try {
+            response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while downloading media");
+        }
+        exchange.status(response.statusCode());
+        exchange.protocol(response.version().name());
+
+        OptionalLong contentLength = response.headers().firstValueAsLong("Content-Length");
+        if (response.statusCode() >= 300 || contentLength.orElse(-1) > maxBytes) {
+            response.body().close();
+            if (response.statusCode() >= 300) {
+                throw new IOException("Media download failed with status " + response.statusCode());
+            }
+            throw new MediaTooLargeException(maxBytes);
+        }
+        return response;
+    }
+
+    private static String contentType(HttpResponse<?> response) {
+        return response.headers().firstValue("Content-Type").orElse(null);
+    }
+
+    /**
+     * Consumer of a media body that is processed while it downloads
+     */
+    @FunctionalInterface
+    public interface MediaStreamConsumer<T> {
+        T accept(InputStream inputStream, String contentType) throws IOException;
+    }
+
+    /**
+     * Copy the stream into memory, switching to a temp file once the memory threshold is crossed
+     */
+    private FetchedMedia spool(InputStream inputStream, long maxBytes, String contentType) throws IOException {
+        long memoryThreshold = config.getMemoryThresholdKb() * 1024L;
+        MessageDigest digest = newSha256Digest();
+        ByteArrayOutputStream memory = new ByteArrayOutputStream();
+        Path file = null;
+        OutputStream out = memory;
+        long total = 0;
+        byte[] buffer = new byte[BUFFER_SIZE];
+
+        try {
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                total += read;
+                if (total > maxBytes) {
+                    throw new MediaTooLargeException(maxBytes);
+                }
+                if (file == null && total > memoryThreshold) {
+                    file = createSpoolFile();
+                    out = Files.newOutputStream(file);
+                    memory.writeTo(out);
+                    memory = null;
+                }
+                out.write(buffer, 0, read);
+                digest.update(buffer, 0, read);
+            }
+            String sha256 = HexFormat.of().formatHex(digest.digest());
+            if (file == null) {
+                return FetchedMedia.inMemory(memory.toByteArray(), contentType, sha256);
+            }
+            out.close();
+            return FetchedMedia.spooled(file, total, contentType, sha256);
+        } catch (IOException | RuntimeException e) {
+            if (file != null) {
+                out.close();
+                Files.deleteIfExists(file);
+            }
+            throw e;
+        }
+    }
+
+    private static MessageDigest newSha256Digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private Path createSpoolFile() throws IOException {
+        Path dir = Paths.get(config.getTempDir());
+        Files.createDirectories(dir);
+        return Files.createTempFile(dir, "media-", ".bin");
+    }
+}
@@ -0,0 +1,82 @@
+package org.zendly.mediaconversionservice.media;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Reads the expiry time out of pre-signed storage URLs
+ * Supports V4 signatures (X-Goog-Date/X-Goog-Expires, X-Amz-Date/X-Amz-Expires) and V2 signatures (Expires)
+ */
+@Slf4j
+public final class PresignedUrlExpiry {
+
+    private static final DateTimeFormatter SIGNING_DATE = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
+
+    private PresignedUrlExpiry() {
+    }
+
+    /**
+     * Instant at which the URL stops being valid, or empty if the URL carries no expiry
+     */
+    public static Optional<Instant> expiresAt(String url) {
+        if (url == null) {
+            return Optional.empty();
+        }
+        try {
+            Map<String, String> params = queryParameters(url);
+
+            String v4Expiry = firstPresent(params, "x-goog-expires", "x-amz-expires");
+            String v4Date = firstPresent(params, "x-goog-date", "x-amz-date");
+            if (v4Expiry != null && v4Date != null) {
+                Instant signedAt = LocalDateTime.parse(v4Date, SIGNING_DATE).toInstant(ZoneOffset.UTC);
+                return Optional.of(signedAt.plusSeconds(Long.parseLong(v4Expiry)));
+            }
+
+            String v2Expiry = params.get("expires");
+            if (v2Expiry != null) {
+                return Optional.of(Instant.ofEpochSecond(Long.parseLong(v2Expiry)));
+            }
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            log.debug("Could not read expiry from pre-signed URL: {}", e.getMessage());
+        }
+        return Optional.empty();
+    }
+
+    private static Map<String, String> queryParameters(String url) {
+        Map<String, String> params = new HashMap<>();
+        String query = URI.create(url).getRawQuery();
+        if (query == null) {
+            return params;
+        }
+        for (String pair : query.split("&")) {
+            int separator = pair.indexOf('=');
+            if (separator > 0) {
+                String name = URLDecoder.decode(pair.substring(0, separator), StandardCharsets.UTF_8);
+                String value = URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8);
+                params.put(name.toLowerCase(), value);
+            }
+        }
+        return params;
+    }
+
+    private static String firstPresent(Map<String, String> params, String... names) {
+        for (String name : names) {
+            String value = params.get(name);
+            if (value != null) {
+                return value;
+            }
+        }
+        return null;
+    }
+}
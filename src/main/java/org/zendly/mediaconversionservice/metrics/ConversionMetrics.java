@@ -0,0 +1,181 @@
+package org.zendly.mediaconversionservice.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.zendly.mediaconversionservice.constants.ApplicationConstants;
+import org.zendly.mediaconversionservice.context.TenantContextHolder;
+import org.zendly.mediaconversionservice.dto.DocumentResponse;
+import org.zendly.mediaconversionservice.dto.DocumentType;
+import org.zendly.mediaconversionservice.service.DocumentProcessingStrategy;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer instrumentation of the conversion pipeline
+ * Every stage is recorded in one timer, {@code conversion.stage.duration}, tagged by stage, tenant,
+ * document type, MIME type, strategy and outcome, with a histogram that aggregates across instances;
+ * content size in and text size out are recorded as distribution summaries. MIME types come from
+ * orchestrator metadata, so only types in the routing table and supported audio types are tagged by
+ * name, everything else as {@code other}
+ */
+@Component
+public class ConversionMetrics {
+
+    public static final String OUTCOME_SUCCESS = "success";
+    public static final String OUTCOME_FAILURE = "failure";
+    public static final String OUTCOME_REJECTED = "rejected";
+    public static final String OUTCOME_TRUNCATED = "truncated";
+    public static final String OUTCOME_ERROR = "error";
+
+    /**
+     * Tenant tag of stages whose tenant has not been resolved
+     */
+    public static final String TENANT_UNKNOWN = "unknown";
+
+    private static final String METRIC_STAGE_DURATION = "conversion.stage.duration";
+    private static final String METRIC_BYTES_IN = "conversion.bytes.in";
+    private static final String METRIC_CHARS_OUT = "conversion.chars.out";
+    private static final String METRIC_MIME_MISMATCH = "conversion.mime.mismatch";
+    private static final String NONE = "none";
+    private static final String OTHER = "other";
+
+    private final MeterRegistry meterRegistry;
+    private final Set<String> taggedMimeTypes;
+
+    public ConversionMetrics(MeterRegistry meterRegistry, DocumentProcessingStrategy processingStrategy) {
+        this.meterRegistry = meterRegistry;
+        Set<String> mimeTypes = new HashSet<>(Arrays.asList(ApplicationConstants.AUDIO_MIME_TYPES));
+        processingStrategy.routes().forEach(route -> mimeTypes.add(route.mimeType()));
+        this.taggedMimeTypes = Set.copyOf(mimeTypes);
+    }
+
+    /**
+     * Start timing a stage for the current tenant; close the timer when the stage ends
+     * The outcome is {@code error} unless {@link StageTimer#success()} or {@link StageTimer#outcome(String)} is called
+     * @param document document being converted, or null before its metadata is known
+     * @param strategy processing strategy, or null when not applicable
+     */
+    public StageTimer startStage(ConversionStage stage, DocumentResponse document, String strategy) {
+        return startStage(stage, TenantContextHolder.getCurrentTenantId(), document, strategy);
+    }
+
+    /**
+     * Start timing a stage for an explicit tenant, for stages that run before the tenant context is set
+     */
+    public StageTimer startStage(ConversionStage stage, String tenantId, DocumentResponse document, String strategy) {
+        Tags tags = documentTags(tenantId, document)
+                .and("stage", stage.tagValue())
+                .and("strategy", strategy != null ? strategy : NONE);
+        return new StageTimer(tags, System.nanoTime());
+    }
+
+    /**
+     * Record the size of the downloaded content
+     */
+    public void recordBytesIn(DocumentResponse document, long bytes) {
+        DistributionSummary.builder(METRIC_BYTES_IN)
+                .description("Size of converted content")
+                .baseUnit("bytes")
+                .tags(documentTags(TenantContextHolder.getCurrentTenantId(), document))
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(bytes);
+    }
+
+    /**
+     * Record the length of the extracted text
+     */
+    public void recordCharsOut(DocumentResponse document, long chars) {
+        DistributionSummary.builder(METRIC_CHARS_OUT)
+                .description("Length of extracted text")
+                .baseUnit("characters")
+                .tags(documentTags(TenantContextHolder.getCurrentTenantId(), document))
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(chars);
+    }
+
+    /**
+     * Count content whose detected type differs from the declared one
+     * @param document document as declared by the orchestrator
+     * @param routedType document type the content is converted as
+     */
+    public void recordMimeMismatch(DocumentResponse document, String detectedMimeType, DocumentType routedType) {
+        Counter.builder(METRIC_MIME_MISMATCH)
+                .description("Documents whose content did not match the declared MIME type")
+                .tags(documentTags(TenantContextHolder.getCurrentTenantId(), document))
+                .tag("detected_mime_type", mimeTypeTag(detectedMimeType))
+                .tag("routed_document_type", routedType != null ? routedType.name() : NONE)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private Tags documentTags(String tenantId, DocumentResponse document) {
+        String documentType = document != null && document.getDocumentType() != null
+                ? document.getDocumentType().name() : NONE;
+        return Tags.of("tenant", tenantId != null ? tenantId : NONE,
+                "document_type", documentType,
+                "mime_type", mimeTypeTag(document != null ? document.getMimeType() : null));
+    }
+
+    /**
+     * Tag value of a MIME type, bounded to the known types
+     */
+    public String mimeTypeTag(String mimeType) {
+        if (mimeType == null) {
+            return NONE;
+        }
+        String normalized = mimeType.split(";")[0].trim().toLowerCase();
+        return taggedMimeTypes.contains(normalized) ? normalized : OTHER;
+    }
+
+    /**
+     * Running measurement of one stage
+     */
+    public class StageTimer implements AutoCloseable {
+
+        private Tags tags;
+        private final long startNanos;
+        private String outcome = OUTCOME_ERROR;
+
+        private StageTimer(Tags tags, long startNanos) {
+            this.tags = tags;
+            this.startNanos = startNanos;
+        }
+
+        public void success() {
+            outcome = OUTCOME_SUCCESS;
+        }
+
+        /**
+         * Tag the stage with a tenant that was only validated while it ran
+         */
+        public void tenant(String tenantId) {
+            tags = tags.and("tenant", tenantId);
+        }
+
+        /**
+         * Set the outcome explicitly, e.g. from a response status
+         */
+        public void outcome(String outcome) {
+            this.outcome = outcome;
+        }
+
+        @Override
+        public void close() {
+            Timer.builder(METRIC_STAGE_DURATION)
+                    .description("Duration of each conversion stage")
+                    .tags(tags.and("outcome", outcome))
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+}
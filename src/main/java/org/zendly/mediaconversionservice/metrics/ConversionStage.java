@@ -0,0 +1,22 @@
+package org.zendly.mediaconversionservice.metrics;
+
+/**
+ * Stages of a conversion that are timed individually
+ */
+public enum ConversionStage {
+    ORCHESTRATOR_FETCH,
+    TENANT_RESOLUTION,
+    DOWNLOAD,
+    MIME_DETECTION,
+    TIKA_PARSE,
+    OCR,
+    VISION,
+    SPEECH;
+
+    /**
+     * Value of the stage tag
+     */
+    public String tagValue() {
+        return name().toLowerCase();
+    }
+}
@@ -0,0 +1,550 @@
+package org.zendly.mediaconversionservice.ocr;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.zendly.mediaconversionservice.config.ImagePreprocessingConfig;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cleans up page images before OCR without leaving the JVM
+ * An image is decoded once into an 8-bit gray plane, reduced to the target DPI, binarized with an adaptive
+ * threshold, deskewed and cropped to its content, then encoded as a 1-bit PNG. The planes are pooled so
+ * steady-state processing allocates little beyond the encoded output.
+ */
+@Slf4j
+@Component
+public class ImagePreprocessor {
+
+    public static final String TARGET_TESSERACT = "tesseract";
+    public static final String TARGET_VISION = "vision";
+
+    private static final String METRIC_DURATION = "image.preprocessing.duration";
+    private static final String METRIC_BYTES_IN = "image.preprocessing.bytes.in";
+    private static final String METRIC_BYTES_OUT = "image.preprocessing.bytes.out";
+    private static final String METRIC_BYTES_SAVED = "image.preprocessing.bytes.saved";
+    private static final String OUTPUT_FORMAT = "png";
+
+    private static final int INK_THRESHOLD = 128;
+    private static final int WHITE = 0xFF;
+    private static final double COARSE_SKEW_STEP = 0.5;
+    private static final double FINE_SKEW_STEP = 0.1;
+    private static final int MIN_SKEW_SAMPLES = 200;
+    private static final double DARK_BORDER_RATIO = 0.5;
+    private static final int BLANK_LINE_DIVISOR = 500;
+
+    private final ImagePreprocessingConfig config;
+    private final MeterRegistry meterRegistry;
+    private final LinkedBlockingDeque<Buffers> idle;
+
+    public ImagePreprocessor(ImagePreprocessingConfig config, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.meterRegistry = meterRegistry;
+        this.idle = new LinkedBlockingDeque<>(Math.max(1, config.getBufferPoolSize()));
+        // Encoding to memory must not spool through temp files
+        ImageIO.setUseCache(false);
+        log.info("Image preprocessing configured - Enabled: {}, Max long edge: {}px, Binarize: {}, Deskew: {}, Crop: {}",
+                config.isEnabled(), config.getMaxLongEdgePx(), config.isBinarize(), config.isDeskew(),
+                config.isCropBorders());
+    }
+
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    /**
+     * Preprocess a rendered page
+     * @return PNG ready for OCR
+     */
+    public byte[] preprocessPage(BufferedImage page, String target) throws IOException {
+        long startTime = System.nanoTime();
+        Buffers buffers = borrow();
+        try {
+            buffers.load(page);
+            byte[] output = process(buffers);
+            record(target, (long) page.getWidth() * page.getHeight(), output.length, startTime);
+            return output;
+        } finally {
+            release(buffers);
+        }
+    }
+
+    /**
+     * Preprocess an encoded image (JPEG, PNG, TIFF...)
+     * @return the preprocessed PNG, or empty if the image cannot be decoded, is too large to decode
+     * safely, or would not get smaller
+     */
+    public Optional<byte[]> preprocessImage(byte[] encoded, String target) {
+        long startTime = System.nanoTime();
+        Buffers buffers = borrow();
+        try {
+            BufferedImage image = decode(encoded);
+            if (image == null) {
+                return Optional.empty();
+            }
+            buffers.load(image);
+            byte[] output = process(buffers);
+            if (output.length >= encoded.length) {
+                log.debug("Preprocessed image not smaller than original ({} >= {} bytes), keeping original",
+                        output.length, encoded.length);
+                return Optional.empty();
+            }
+            record(target, encoded.length, output.length, startTime);
+            return Optional.of(output);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Image preprocessing failed, using original image: {}", e.getMessage());
+            return Optional.empty();
+        } finally {
+            release(buffers);
+        }
+    }
+
+    private byte[] process(Buffers buffers) throws IOException {
+        int maxLongEdge = config.getMaxLongEdgePx();
+        int longEdge = Math.max(buffers.width, buffers.height);
+        if (longEdge > maxLongEdge) {
+            int width = Math.max(1, (int) ((long) buffers.width * maxLongEdge / longEdge));
+            int height = Math.max(1, (int) ((long) buffers.height * maxLongEdge / longEdge));
+            downscale(buffers.current, buffers.width, buffers.height, buffers.spare(width * height), width, height);
+            buffers.swap(width, height);
+        }
+        if (config.isBinarize()) {
+            binarize(buffers);
+        }
+        // Dark borders go before deskewing; their long straight edges would otherwise decide the angle
+        if (config.isCropBorders()) {
+            crop(buffers, true, 0);
+        }
+        double skew = 0;
+        if (config.isDeskew()) {
+            skew = estimateSkew(buffers.current, buffers.width, buffers.height, config.getMaxSkewDegrees());
+            if (Math.abs(skew) >= config.getMinSkewDegrees()) {
+                rotate(buffers.current, buffers.spare(buffers.width * buffers.height), buffers.width, buffers.height, skew);
+                buffers.swap(buffers.width, buffers.height);
+            }
+        }
+        if (config.isCropBorders()) {
+            crop(buffers, false, config.getCropMarginPx());
+        }
+        log.debug("Preprocessed image to {}x{}, skew corrected: {} degrees", buffers.width, buffers.height, skew);
+        return encode(buffers.current, buffers.width, buffers.height, config.isBinarize());
+    }
+
+    /**
+     * Decode with subsampling so oversized photos are never held at full resolution
+     */
+    private BufferedImage decode(byte[] encoded) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(new ByteArrayInputStream(encoded))) {
+            Iterator<ImageReader> readers = in != null ? ImageIO.getImageReaders(in) : null;
+            if (readers == null || !readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > config.getMaxInputPixels()) {
+                    log.warn("Image of {}x{} exceeds the preprocessing pixel limit, sending unprocessed", width, height);
+                    return null;
+                }
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling = Math.max(width, height) / config.getMaxLongEdgePx();
+                if (subsampling >= 2) {
+                    param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                }
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Area-average reduction, which keeps thin strokes that nearest-neighbour sampling would drop
+     */
+    private static void downscale(byte[] src, int srcWidth, int srcHeight, byte[] dst, int dstWidth, int dstHeight) {
+        for (int dy = 0; dy < dstHeight; dy++) {
+            int y0 = dy * srcHeight / dstHeight;
+            int y1 = Math.max(y0 + 1, (dy + 1) * srcHeight / dstHeight);
+            for (int dx = 0; dx < dstWidth; dx++) {
+                int x0 = dx * srcWidth / dstWidth;
+                int x1 = Math.max(x0 + 1, (dx + 1) * srcWidth / dstWidth);
+                int sum = 0;
+                for (int y = y0; y < y1; y++) {
+                    int row = y * srcWidth;
+                    for (int x = x0; x < x1; x++) {
+                        sum += src[row + x] & 0xFF;
+                    }
+                }
+                dst[dy * dstWidth + dx] = (byte) (sum / ((x1 - x0) * (y1 - y0)));
+            }
+        }
+    }
+
+    /**
+     * Bradley adaptive threshold against the mean of a square window around each pixel
+     * Window sums are kept as running column sums, so the cost is independent of the window size
+     */
+    private void binarize(Buffers buffers) {
+        int width = buffers.width;
+        int height = buffers.height;
+        byte[] gray = buffers.current;
+        byte[] out = buffers.spare(width * height);
+        int[] columnSums = buffers.columns(width);
+        int radius = Math.max(8, Math.max(width, height) / 32);
+        long keep = 100 - config.getThresholdSensitivityPercent();
+
+        int top = 0;
+        int bottom = -1;
+        for (int y = 0; y < height; y++) {
+            int newBottom = Math.min(height - 1, y + radius);
+            int newTop = Math.max(0, y - radius);
+            for (; bottom < newBottom; bottom++) {
+                int row = (bottom + 1) * width;
+                for (int x = 0; x < width; x++) {
+                    columnSums[x] += gray[row + x] & 0xFF;
+                }
+            }
+            for (; top < newTop; top++) {
+                int row = top * width;
+                for (int x = 0; x < width; x++) {
+                    columnSums[x] -= gray[row + x] & 0xFF;
+                }
+            }
+
+            int rows = bottom - top + 1;
+            long windowSum = 0;
+            int left = 0;
+            int right = -1;
+            int row = y * width;
+            for (int x = 0; x < width; x++) {
+                int newRight = Math.min(width - 1, x + radius);
+                int newLeft = Math.max(0, x - radius);
+                for (; right < newRight; right++) {
+                    windowSum += columnSums[right + 1];
+                }
+                for (; left < newLeft; left++) {
+                    windowSum -= columnSums[left];
+                }
+                long count = (long) rows * (right - left + 1);
+                boolean ink = (gray[row + x] & 0xFF) * count * 100 <= windowSum * keep;
+                out[row + x] = ink ? 0 : (byte) WHITE;
+            }
+        }
+        buffers.swap(width, height);
+    }
+
+    /**
+     * Angle of the text lines in degrees, found by maximising the variance of the row profile
+     * Lines at angle a satisfy y - x * tan(a) = const, so the correct angle packs ink into the fewest rows
+     */
+    private static double estimateSkew(byte[] plane, int width, int height, double maxDegrees) {
+        int step = Math.max(1, Math.max(width, height) / 1200);
+        int samples = 0;
+        for (int y = 0; y < height; y += step) {
+            int row = y * width;
+            for (int x = 0; x < width; x += step) {
+                if ((plane[row + x] & 0xFF) < INK_THRESHOLD) {
+                    samples++;
+                }
+            }
+        }
+        if (samples < MIN_SKEW_SAMPLES) {
+            return 0;
+        }
+        int[] xs = new int[samples];
+        int[] ys = new int[samples];
+        int n = 0;
+        for (int y = 0; y < height; y += step) {
+            int row = y * width;
+            for (int x = 0; x < width; x += step) {
+                if ((plane[row + x] & 0xFF) < INK_THRESHOLD) {
+                    xs[n] = x;
+                    ys[n] = y;
+                    n++;
+                }
+            }
+        }
+
+        int offset = (int) Math.ceil(width * Math.tan(Math.toRadians(maxDegrees))) + 1;
+        int[] bins = new int[height + 2 * offset];
+        double best = bestAngle(xs, ys, bins, offset, -maxDegrees, maxDegrees, COARSE_SKEW_STEP);
+        return bestAngle(xs, ys, bins, offset, Math.max(-maxDegrees, best - COARSE_SKEW_STEP),
+                Math.min(maxDegrees, best + COARSE_SKEW_STEP), FINE_SKEW_STEP);
+    }
+
+    private static double bestAngle(int[] xs, int[] ys, int[] bins, int offset, double from, double to,
+                                    double increment) {
+        double bestAngle = 0;
+        long bestScore = -1;
+        int steps = (int) Math.round((to - from) / increment);
+        for (int i = 0; i <= steps; i++) {
+            double angle = from + i * increment;
+            double tan = Math.tan(Math.toRadians(angle));
+            Arrays.fill(bins, 0);
+            for (int p = 0; p < xs.length; p++) {
+                int bin = (int) (ys[p] - xs[p] * tan) + offset;
+                bins[Math.max(0, Math.min(bins.length - 1, bin))]++;
+            }
+            long score = 0;
+            for (int count : bins) {
+                score += (long) count * count;
+            }
+            if (score > bestScore) {
+                bestScore = score;
+                bestAngle = angle;
+            }
+        }
+        return bestAngle;
+    }
+
+    /**
+     * Rotate by the skew angle around the centre, so the text lines become horizontal
+     */
+    private static void rotate(byte[] src, byte[] dst, int width, int height, double degrees) {
+        double radians = Math.toRadians(degrees);
+        double cos = Math.cos(radians);
+        double sin = Math.sin(radians);
+        double cx = width / 2.0;
+        double cy = height / 2.0;
+        for (int y = 0; y < height; y++) {
+            double dy = y - cy;
+            double baseX = -dy * sin + cx;
+            double baseY = dy * cos + cy;
+            int row = y * width;
+            for (int x = 0; x < width; x++) {
+                double dx = x - cx;
+                int sx = (int) Math.round(dx * cos + baseX);
+                int sy = (int) Math.round(dx * sin + baseY);
+                dst[row + x] = sx >= 0 && sx < width && sy >= 0 && sy < height
+                        ? src[sy * width + sx] : (byte) WHITE;
+            }
+        }
+    }
+
+    /**
+     * Trim dark scanner borders or blank margins, keeping the given margin around what remains
+     */
+    private static void crop(Buffers buffers, boolean darkBorders, int margin) {
+        int width = buffers.width;
+        int height = buffers.height;
+        byte[] plane = buffers.current;
+        int[] bounds = {0, 0, width, height};
+
+        trimEdges(plane, width, bounds, darkBorders);
+
+        int left = Math.max(0, bounds[0] - margin);
+        int top = Math.max(0, bounds[1] - margin);
+        int right = Math.min(width, bounds[2] + margin);
+        int bottom = Math.min(height, bounds[3] + margin);
+        int croppedWidth = right - left;
+        int croppedHeight = bottom - top;
+        // Nearly blank pages are left as they are rather than cropped to a speck
+        if (croppedWidth * 10 < width || croppedHeight * 10 < height
+                || (croppedWidth == width && croppedHeight == height)) {
+            return;
+        }
+        for (int y = 0; y < croppedHeight; y++) {
+            System.arraycopy(plane, (top + y) * width + left, plane, y * croppedWidth, croppedWidth);
+        }
+        buffers.width = croppedWidth;
+        buffers.height = croppedHeight;
+    }
+
+    /**
+     * Move the bounds {left, top, right, bottom} inwards past edge lines that are dark borders or blank
+     */
+    private static void trimEdges(byte[] plane, int width, int[] bounds, boolean darkBorders) {
+        while (bounds[1] < bounds[3] && trimmable(inkInRow(plane, width, bounds[1], bounds[0], bounds[2]),
+                bounds[2] - bounds[0], darkBorders)) {
+            bounds[1]++;
+        }
+        while (bounds[3] > bounds[1] && trimmable(inkInRow(plane, width, bounds[3] - 1, bounds[0], bounds[2]),
+                bounds[2] - bounds[0], darkBorders)) {
+            bounds[3]--;
+        }
+        while (bounds[0] < bounds[2] && trimmable(inkInColumn(plane, width, bounds[0], bounds[1], bounds[3]),
+                bounds[3] - bounds[1], darkBorders)) {
+            bounds[0]++;
+        }
+        while (bounds[2] > bounds[0] && trimmable(inkInColumn(plane, width, bounds[2] - 1, bounds[1], bounds[3]),
+                bounds[3] - bounds[1], darkBorders)) {
+            bounds[2]--;
+        }
+    }
+
+    private static boolean trimmable(int ink, int length, boolean darkBorders) {
+        return darkBorders
+                ? ink >= length * DARK_BORDER_RATIO
+                : ink <= length / BLANK_LINE_DIVISOR;
+    }
+
+    private static int inkInRow(byte[] plane, int width, int y, int from, int to) {
+        int ink = 0;
+        int row = y * width;
+        for (int x = from; x < to; x++) {
+            if ((plane[row + x] & 0xFF) < INK_THRESHOLD) {
+                ink++;
+            }
+        }
+        return ink;
+    }
+
+    private static int inkInColumn(byte[] plane, int width, int x, int from, int to) {
+        int ink = 0;
+        for (int y = from; y < to; y++) {
+            if ((plane[y * width + x] & 0xFF) < INK_THRESHOLD) {
+                ink++;
+            }
+        }
+        return ink;
+    }
+
+    private static byte[] encode(byte[] plane, int width, int height, boolean binary) throws IOException {
+        BufferedImage image;
+        if (binary) {
+            image = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_BINARY);
+            byte[] packed = ((DataBufferByte) image.getRaster().getDataBuffer()).getData();
+            int stride = (width + 7) / 8;
+            for (int y = 0; y < height; y++) {
+                int row = y * width;
+                int packedRow = y * stride;
+                for (int x = 0; x < width; x++) {
+                    if (plane[row + x] != 0) {
+                        packed[packedRow + (x >> 3)] |= (byte) (0x80 >>> (x & 7));
+                    }
+                }
+            }
+        } else {
+            image = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_GRAY);
+            System.arraycopy(plane, 0, ((DataBufferByte) image.getRaster().getDataBuffer()).getData(), 0, width * height);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, OUTPUT_FORMAT, out);
+        return out.toByteArray();
+    }
+
+    private void record(String target, long bytesIn, long bytesOut, long startNanos) {
+        Timer.builder(METRIC_DURATION)
+                .description("Time spent preprocessing images before OCR")
+                .tag("target", target)
+                .register(meterRegistry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder(METRIC_BYTES_IN)
+                .description("Size of images before preprocessing; uncompressed 8-bit raster for rendered pages")
+                .baseUnit("bytes").tag("target", target).register(meterRegistry).record(bytesIn);
+        DistributionSummary.builder(METRIC_BYTES_OUT)
+                .description("Size of preprocessed images handed to the OCR engine")
+                .baseUnit("bytes").tag("target", target).register(meterRegistry).record(bytesOut);
+        DistributionSummary.builder(METRIC_BYTES_SAVED)
+                .description("Bytes removed by preprocessing")
+                .baseUnit("bytes").tag("target", target).register(meterRegistry).record(Math.max(0, bytesIn - bytesOut));
+    }
+
+    private Buffers borrow() {
+        Buffers buffers = idle.pollFirst();
+        if (buffers != null && isStale(buffers, System.nanoTime())) {
+            // Most recently released first, so the rest have been idle at least as long
+            idle.clear();
+            return new Buffers();
+        }
+        return buffers != null ? buffers : new Buffers();
+    }
+
+    private void release(Buffers buffers) {
+        long now = System.nanoTime();
+        buffers.releasedAt = now;
+        // Dropped when the pool is full; a burst beyond the pool size allocates short-lived buffers
+        idle.offerFirst(buffers);
+        // Buffers left over from a burst are not kept for the next one
+        Buffers oldest = idle.peekLast();
+        if (oldest != null && isStale(oldest, now)) {
+            idle.removeLastOccurrence(oldest);
+        }
+    }
+
+    private boolean isStale(Buffers buffers, long now) {
+        return now - buffers.releasedAt > TimeUnit.SECONDS.toNanos(config.getBufferIdleSeconds());
+    }
+
+    /**
+     * Two gray planes that are swapped between steps, plus scratch space for column sums
+     */
+    private static final class Buffers {
+
+        private byte[] current = new byte[0];
+        private byte[] spare = new byte[0];
+        private int[] columns = new int[0];
+        private int width;
+        private int height;
+        private long releasedAt;
+
+        /**
+         * Convert an image to gray, flattening transparency onto white
+         */
+        void load(BufferedImage image) {
+            width = image.getWidth();
+            height = image.getHeight();
+            int size = width * height;
+            if (current.length < size) {
+                current = new byte[size];
+            }
+            if (image.getType() == BufferedImage.TYPE_BYTE_GRAY) {
+                image.getRaster().getDataElements(0, 0, width, height, current);
+                return;
+            }
+            int[] argb = columns(width);
+            for (int y = 0; y < height; y++) {
+                image.getRGB(0, y, width, 1, argb, 0, width);
+                int row = y * width;
+                for (int x = 0; x < width; x++) {
+                    int pixel = argb[x];
+                    int alpha = pixel >>> 24;
+                    int luminance = (((pixel >> 16) & 0xFF) * 77 + ((pixel >> 8) & 0xFF) * 150 + (pixel & 0xFF) * 29) >> 8;
+                    current[row + x] = (byte) (WHITE - alpha * (WHITE - luminance) / WHITE);
+                }
+            }
+        }
+
+        byte[] spare(int size) {
+            if (spare.length < size) {
+                spare = new byte[size];
+            }
+            return spare;
+        }
+
+        int[] columns(int size) {
+            if (columns.length < size) {
+                columns = new int[size];
+            } else {
+                Arrays.fill(columns, 0, size, 0);
+            }
+            return columns;
+        }
+
+        void swap(int newWidth, int newHeight) {
+            byte[] previous = current;
+            current = spare;
+            spare = previous;
+            width = newWidth;
+            height = newHeight;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package org.zendly.mediaconversionservice.ocr;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.apache.tika.exception.TikaConfigException;
+import org.apache.tika.exception.TikaException;
+import org.apache.tika.io.TikaInputStream;
+import org.apache.tika.metadata.Metadata;
+import org.apache.tika.parser.ParseContext;
+import org.apache.tika.parser.ocr.TesseractOCRConfig;
+import org.apache.tika.parser.ocr.TesseractOCRParser;
+import org.apache.tika.sax.BodyContentHandler;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+import org.xml.sax.SAXException;
+import org.zendly.mediaconversionservice.config.TikaOcrConfig;
+import org.zendly.mediaconversionservice.media.FetchedMedia;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * OCR engine for scanned PDFs that recognises pages in parallel
+ * Pages are rendered one at a time with PDFBox (rendering a single document is not thread-safe),
+ * handed to a bounded pool of Tesseract workers that preprocess and recognise them, and stitched back
+ * together in page order.
+ * The number of rendered-but-not-yet-recognised pages is capped so memory stays bounded.
+ */
+@Slf4j
+@Component
+public class PdfOcrEngine {
+
+    private static final String PAGE_IMAGE_FORMAT = "png";
+    private static final String PAGE_IMAGE_MIME = "image/png";
+
+    private final TikaOcrConfig config;
+    private final TesseractOCRConfig tesseractOCRConfig;
+    private final ExecutorService ocrWorkerExecutor;
+    private final TesseractOCRParser tesseractParser;
+    private final ImagePreprocessor imagePreprocessor;
+
+    public PdfOcrEngine(TikaOcrConfig config,
+                        TesseractOCRConfig tesseractOCRConfig,
+                        @Qualifier("ocrWorkerExecutor") ExecutorService ocrWorkerExecutor,
+                        ImagePreprocessor imagePreprocessor) throws TikaConfigException {
+        this.config = config;
+        this.tesseractOCRConfig = tesseractOCRConfig;
+        this.ocrWorkerExecutor = ocrWorkerExecutor;
+        this.imagePreprocessor = imagePreprocessor;
+        this.tesseractParser = new TesseractOCRParser();
+        this.tesseractParser.initialize(Collections.emptyMap());
+    }
+
+    /**
+     * Load a PDF from downloaded media, reading spooled files directly from disk
+     */
+    public PDDocument load(FetchedMedia media) throws IOException {
+        return media.isInMemory() ? Loader.loadPDF(media.getBytes()) : Loader.loadPDF(media.getPath().toFile());
+    }
+
+    /**
+     * OCR every page of the document
+     * @return recognised text, pages separated by blank lines
+     */
+    public String ocrAllPages(PDDocument document) throws IOException {
+        List<Integer> pages = IntStream.range(0, document.getNumberOfPages()).boxed().collect(Collectors.toList());
+        return String.join("\n\n", ocrPages(document, pages).values());
+    }
+
+    /**
+     * OCR the given pages of the document in parallel
+     * @param pageIndexes zero-based page indexes, in the order results should be returned
+     * @return recognised text keyed by page index, in the order of pageIndexes
+     */
+    public Map<Integer, String> ocrPages(PDDocument document, List<Integer> pageIndexes) throws IOException {
+        long startTime = System.currentTimeMillis();
+        PDFRenderer renderer = new PDFRenderer(document);
+        Semaphore renderedPages = new Semaphore(config.getEffectiveOcrParallelism() * 2);
+        List<Future<String>> futures = new ArrayList<>(pageIndexes.size());
+        boolean completed = false;
+
+        try {
+            for (int pageIndex : pageIndexes) {
+                renderedPages.acquire();
+                BufferedImage pageImage;
+                try {
+                    pageImage = renderer.renderImageWithDPI(pageIndex, config.getRenderDpi(), ImageType.GRAY);
+                } catch (IOException | RuntimeException e) {
+                    renderedPages.release();
+                    throw e;
+                }
+                // Only rendering needs this thread; preprocessing and encoding run on the worker
+                futures.add(ocrWorkerExecutor.submit(() -> {
+                    try {
+                        return ocrImage(encodePage(pageImage));
+                    } finally {
+                        renderedPages.release();
+                    }
+                }));
+            }
+
+            Map<Integer, String> results = new LinkedHashMap<>();
+            for (int i = 0; i < pageIndexes.size(); i++) {
+                results.put(pageIndexes.get(i), futures.get(i).get().trim());
+            }
+
+            log.info("OCR completed for {} pages with parallelism {} in {}ms",
+                    pageIndexes.size(), config.getEffectiveOcrParallelism(), System.currentTimeMillis() - startTime);
+            completed = true;
+            return results;
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while running page OCR", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Page OCR failed: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            // Also covers a page that fails to render or a rejected submit: no page keeps running for nothing
+            if (!completed) {
+                futures.forEach(future -> future.cancel(true));
+            }
+        }
+    }
+
+    private byte[] encodePage(BufferedImage image) throws IOException {
+        if (imagePreprocessor.isEnabled()) {
+            return imagePreprocessor.preprocessPage(image, ImagePreprocessor.TARGET_TESSERACT);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, PAGE_IMAGE_FORMAT, out);
+        return out.toByteArray();
+    }
+
+    private String ocrImage(byte[] image) throws IOException, SAXException, TikaException {
+        ParseContext context = new ParseContext();
+        context.set(TesseractOCRConfig.class, tesseractOCRConfig);
+        Metadata metadata = new Metadata();
+        metadata.set(Metadata.CONTENT_TYPE, PAGE_IMAGE_MIME);
+        BodyContentHandler handler = new BodyContentHandler(-1);
+
+        try (TikaInputStream stream = TikaInputStream.get(image)) {
+            tesseractParser.parse(stream, handler, metadata, context);
+        }
+        return handler.toString();
+    }
+}
@@ -0,0 +1,232 @@
+package org.zendly.mediaconversionservice.ocr;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.contentstream.PDFGraphicsStreamEngine;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImage;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.apache.pdfbox.util.Matrix;
+import org.apache.pdfbox.util.Vector;
+import org.springframework.stereotype.Component;
+import org.zendly.mediaconversionservice.concurrency.ConversionWatchdog;
+import org.zendly.mediaconversionservice.config.TikaOcrConfig;
+import org.zendly.mediaconversionservice.dto.PageOcrDecision;
+
+import java.awt.geom.Point2D;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pre-pass over a PDF that decides, page by page, whether the embedded text layer is usable
+ * or the page has to be OCRed. A page is sent to OCR when it has too few characters, when too
+ * many of its glyphs have no Unicode mapping, or when it is dominated by images with little text.
+ */
+@Slf4j
+@Component
+public class PdfTextLayerAnalyzer {
+
+    public static final String REASON_TEXT_LAYER = "TEXT_LAYER";
+    public static final String REASON_BLANK = "BLANK";
+    public static final String REASON_LOW_CHAR_COUNT = "LOW_CHAR_COUNT";
+    public static final String REASON_LOW_GLYPH_COVERAGE = "LOW_GLYPH_COVERAGE";
+    public static final String REASON_SCANNED_IMAGE = "SCANNED_IMAGE";
+
+    private final TikaOcrConfig config;
+
+    public PdfTextLayerAnalyzer(TikaOcrConfig config) {
+        this.config = config;
+    }
+
+    /**
+     * Text layer of a single page together with the OCR decision taken for it
+     */
+    public record PageTextLayer(int pageIndex, String text, PageOcrDecision decision) {
+    }
+
+    /**
+     * Inspect every page of the document
+     * @return one entry per page, in page order
+     */
+    public List<PageTextLayer> analyze(PDDocument document) throws IOException {
+        long startTime = System.currentTimeMillis();
+        GlyphCountingStripper stripper = new GlyphCountingStripper();
+        List<PageTextLayer> pages = new ArrayList<>(document.getNumberOfPages());
+
+        for (int pageIndex = 0; pageIndex < document.getNumberOfPages(); pageIndex++) {
+            if (ConversionWatchdog.currentBudget().isExpired()) {
+                throw new IOException("Text layer analysis stopped at page " + (pageIndex + 1) + ": "
+                        + ConversionWatchdog.currentBudget().getExpiredReason() + " budget exceeded");
+            }
+            PDPage page = document.getPage(pageIndex);
+
+            stripper.reset(pageIndex + 1);
+            String text = stripper.getText(document);
+            int characterCount = countNonWhitespace(text);
+            double glyphCoverage = stripper.glyphs == 0 ? 1.0 : (double) stripper.mappedGlyphs / stripper.glyphs;
+            double imageAreaRatio = imageAreaRatio(page);
+
+            String reason = decide(characterCount, glyphCoverage, imageAreaRatio);
+            PageOcrDecision decision = PageOcrDecision.builder()
+                    .pageNumber(pageIndex + 1)
+                    .characterCount(characterCount)
+                    .glyphCoverage(round(glyphCoverage))
+                    .imageAreaRatio(round(imageAreaRatio))
+                    .ocrApplied(!REASON_TEXT_LAYER.equals(reason) && !REASON_BLANK.equals(reason))
+                    .reason(reason)
+                    .build();
+            pages.add(new PageTextLayer(pageIndex, text, decision));
+        }
+
+        log.debug("Analyzed text layer of {} pages in {}ms", pages.size(), System.currentTimeMillis() - startTime);
+        return pages;
+    }
+
+    private String decide(int characterCount, double glyphCoverage, double imageAreaRatio) {
+        if (characterCount == 0 && imageAreaRatio == 0.0) {
+            return REASON_BLANK;
+        }
+        if (characterCount < config.getMinPageChars()) {
+            return REASON_LOW_CHAR_COUNT;
+        }
+        if (glyphCoverage < config.getMinGlyphCoverage()) {
+            return REASON_LOW_GLYPH_COVERAGE;
+        }
+        if (imageAreaRatio >= config.getScannedImageAreaRatio() && characterCount < config.getScannedPageMinChars()) {
+            return REASON_SCANNED_IMAGE;
+        }
+        return REASON_TEXT_LAYER;
+    }
+
+    private static double imageAreaRatio(PDPage page) throws IOException {
+        PDRectangle box = page.getCropBox();
+        double pageArea = (double) box.getWidth() * box.getHeight();
+        if (pageArea <= 0) {
+            return 0.0;
+        }
+        ImageAreaEngine engine = new ImageAreaEngine(page);
+        engine.processPage(page);
+        return Math.min(1.0, engine.imageArea / pageArea);
+    }
+
+    private static int countNonWhitespace(String text) {
+        int count = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (!Character.isWhitespace(text.charAt(i))) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+
+    /**
+     * Text stripper restricted to one page that also counts how many glyphs map to Unicode
+     */
+    private static class GlyphCountingStripper extends PDFTextStripper {
+
+        private int glyphs;
+        private int mappedGlyphs;
+
+        GlyphCountingStripper() throws IOException {
+            super();
+        }
+
+        void reset(int pageNumber) {
+            setStartPage(pageNumber);
+            setEndPage(pageNumber);
+            glyphs = 0;
+            mappedGlyphs = 0;
+        }
+
+        @Override
+        protected void showGlyph(Matrix textRenderingMatrix, PDFont font, int code, Vector displacement)
+                throws IOException {
+            glyphs++;
+            String unicode = font.toUnicode(code);
+            if (unicode != null && !unicode.isEmpty() && unicode.indexOf('\uFFFD') < 0
+                    && !Character.isISOControl(unicode.charAt(0))) {
+                mappedGlyphs++;
+            }
+            super.showGlyph(textRenderingMatrix, font, code, displacement);
+        }
+    }
+
+    /**
+     * Graphics engine that only accumulates the on-page area of drawn images
+     */
+    private static class ImageAreaEngine extends PDFGraphicsStreamEngine {
+
+        private double imageArea;
+        private final Point2D currentPoint = new Point2D.Float();
+
+        ImageAreaEngine(PDPage page) {
+            super(page);
+        }
+
+        @Override
+        public void drawImage(PDImage pdImage) {
+            Matrix ctm = getGraphicsState().getCurrentTransformationMatrix();
+            imageArea += Math.abs((double) ctm.getScalingFactorX() * ctm.getScalingFactorY());
+        }
+
+        @Override
+        public void appendRectangle(Point2D p0, Point2D p1, Point2D p2, Point2D p3) {
+        }
+
+        @Override
+        public void clip(int windingRule) {
+        }
+
+        @Override
+        public void moveTo(float x, float y) {
+            currentPoint.setLocation(x, y);
+        }
+
+        @Override
+        public void lineTo(float x, float y) {
+            currentPoint.setLocation(x, y);
+        }
+
+        @Override
+        public void curveTo(float x1, float y1, float x2, float y2, float x3, float y3) {
+            currentPoint.setLocation(x3, y3);
+        }
+
+        @Override
+        public Point2D getCurrentPoint() {
+            return currentPoint;
+        }
+
+        @Override
+        public void closePath() {
+        }
+
+        @Override
+        public void endPath() {
+        }
+
+        @Override
+        public void strokePath() {
+        }
+
+        @Override
+        public void fillPath(int windingRule) {
+        }
+
+        @Override
+        public void fillAndStrokePath(int windingRule) {
+        }
+
+        @Override
+        public void shadingFill(COSName shadingName) {
+        }
+    }
+}
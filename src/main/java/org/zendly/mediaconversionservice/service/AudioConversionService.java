@@ -5,15 +5,20 @@ import com.google.protobuf.ByteString;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.zendly.mediaconversionservice.audio.LongAudioTranscriber;
+import org.zendly.mediaconversionservice.audio.StreamingSpeechRecognizer;
+import org.zendly.mediaconversionservice.audio.WavFormat;
 import org.zendly.mediaconversionservice.constants.ApplicationConstants;
 import org.zendly.mediaconversionservice.dto.ConversionMetadata;
 import org.zendly.mediaconversionservice.dto.ConversionResponse;
 import org.zendly.mediaconversionservice.dto.DocumentResponse;
+import org.zendly.mediaconversionservice.exception.MediaTooLargeException;
+import org.zendly.mediaconversionservice.media.FetchedMedia;
+import org.zendly.mediaconversionservice.metrics.ConversionMetrics;
+import org.zendly.mediaconversionservice.metrics.ConversionStage;
 
 import java.io.InputStream;
-import java.net.URL;
-import java.net.URLConnection;
-
+import java.util.Optional;
 
 /**
  * Google Speech-to-Text API service for audio transcription
@@ -22,7 +27,15 @@ import java.net.URLConnection;
 @Service
 public class AudioConversionService {
 
+    private static final String STRATEGY_SYNC = "sync";
+    private static final String STRATEGY_SEGMENTED = "segmented";
+    private static final String STRATEGY_LONG_RUNNING = "long_running";
+    private static final String STRATEGY_STREAMING = "streaming";
+
     private final SpeechClient speechClient;
+    private final LongAudioTranscriber longAudioTranscriber;
+    private final StreamingSpeechRecognizer streamingSpeechRecognizer;
+    private final ConversionMetrics conversionMetrics;
 
     @Value("${google.speech.enabled}")
     private boolean enabled;
@@ -33,11 +46,17 @@ public class AudioConversionService {
     @Value("${google.speech.language-code}")
     private String languageCode;
 
-    public AudioConversionService(SpeechClient speechClient) {
+    public AudioConversionService(SpeechClient speechClient,
+                                  LongAudioTranscriber longAudioTranscriber,
+                                  StreamingSpeechRecognizer streamingSpeechRecognizer,
+                                  ConversionMetrics conversionMetrics) {
         this.speechClient = speechClient;
+        this.longAudioTranscriber = longAudioTranscriber;
+        this.streamingSpeechRecognizer = streamingSpeechRecognizer;
+        this.conversionMetrics = conversionMetrics;
     }
 
-    public ConversionResponse convertAudio(DocumentResponse documentResponse) {
+    public ConversionResponse convertAudio(DocumentResponse documentResponse, FetchedMedia media) {
         long startTime = System.currentTimeMillis();
         String documentId = documentResponse.getDocumentId();
         log.info("Converting audio with Google Speech-to-Text API: {}", documentId);
@@ -45,80 +64,141 @@ public class AudioConversionService {
             return buildErrorResponse(documentId, "Google Speech-to-Text API is disabled", startTime);
         }
         try {
-            // Validate file size before streaming
-            long maxBytes = maxFileSizeMb * 1024L * 1024L;
-            URLConnection connection = new URL(documentResponse.getDownloadUrl()).openConnection();
-            long fileSize = connection.getContentLengthLong();
+            RecognitionConfig config = buildRecognitionConfig(documentResponse.getMimeType());
+            RecognitionConfig.AudioEncoding encoding = config.getEncoding();
 
-            if (fileSize > maxBytes) {
-                return buildErrorResponse(documentId, 
-                        ApplicationConstants.ERROR_FILE_TOO_LARGE, startTime);
+            // Recordings beyond the synchronous limit are segmented (PCM WAV) or sent as a long-running operation
+            long maxBytes = maxFileSizeMb * 1024L * 1024L;
+            Optional<WavFormat> wavFormat = encoding == RecognitionConfig.AudioEncoding.LINEAR16
+                    ? longAudioTranscriber.probeWav(media) : Optional.empty();
+
+            String strategy;
+            if (wavFormat.isPresent() && longAudioTranscriber.requiresSegmentation(wavFormat.get())) {
+                strategy = STRATEGY_SEGMENTED;
+            } else if (media.getSize() > maxBytes) {
+                if (!longAudioTranscriber.isEnabled() || !longAudioTranscriber.fitsInline(media)) {
+                    return buildErrorResponse(documentId,
+                            ApplicationConstants.ERROR_FILE_TOO_LARGE, startTime);
+                }
+                strategy = STRATEGY_LONG_RUNNING;
+            } else {
+                strategy = STRATEGY_SYNC;
             }
 
-            // Stream audio data directly from URL
-            ByteString audioBytes;
-            try (InputStream stream = connection.getInputStream()) {
-                audioBytes = ByteString.readFrom(stream, (int) maxBytes);
+            String extractedText;
+            String processingNotes;
+            try (ConversionMetrics.StageTimer timer =
+                         conversionMetrics.startStage(ConversionStage.SPEECH, documentResponse, strategy)) {
+                switch (strategy) {
+                    case STRATEGY_SEGMENTED -> {
+                        LongAudioTranscriber.Transcription transcription =
+                                longAudioTranscriber.transcribeSegmented(media, wavFormat.get(), config);
+                        extractedText = transcription.text();
+                        processingNotes = "Transcribed " + transcription.segments() + " segments concurrently";
+                    }
+                    case STRATEGY_LONG_RUNNING -> {
+                        extractedText = longAudioTranscriber.transcribeLongRunning(media, config).text();
+                        processingNotes = "Long-running recognition";
+                    }
+                    default -> {
+                        RecognitionAudio audio = RecognitionAudio.newBuilder()
+                                .setContent(ByteString.copyFrom(media.getBytes()))
+                                .build();
+
+                        // Call Speech API
+                        RecognizeResponse response = speechClient.recognize(config, audio);
+                        extractedText = LongAudioTranscriber.joinResults(response.getResultsList());
+                        processingNotes = null;
+                    }
+                }
+                timer.success();
             }
 
-            // Detect audio encoding from MIME type
-            RecognitionConfig.AudioEncoding encoding = detectAudioEncoding(
-                    documentResponse.getMimeType());
-
-            // Build Speech API request
-            RecognitionConfig config = RecognitionConfig.newBuilder()
-                    .setEncoding(encoding)
-                    .setLanguageCode(languageCode)
-                    .setEnableAutomaticPunctuation(true)
-                    .setSampleRateHertz(detectSampleRate(documentResponse.getMimeType()))
-                    .build();
-
-            RecognitionAudio audio = RecognitionAudio.newBuilder()
-                    .setContent(audioBytes)
-                    .build();
+            return buildSuccessResponse(documentResponse, extractedText, processingNotes, startTime);
 
-            // Call Speech API
-            RecognizeResponse response = speechClient.recognize(config, audio);
+        } catch (Exception e) {
+            log.error("Error converting audio {}: {}", documentId, e.getMessage(), e);
+            return buildErrorResponse(documentId, 
+                    ApplicationConstants.ERROR_CONVERSION_FAILED + ": " + e.getMessage(), startTime);
+        }
+    }
 
-            if (response.getResultsCount() == 0) {
-                return buildErrorResponse(documentId, "No transcription results", startTime);
+    /**
+     * Transcribe audio while it downloads, see {@link StreamingSpeechRecognizer}
+     * @param audioStream response body of the download, read to the end
+     * @throws MediaTooLargeException if the download exceeds the size limit mid-stream
+     */
+    public ConversionResponse convertAudioStream(DocumentResponse documentResponse, InputStream audioStream) {
+        long startTime = System.currentTimeMillis();
+        String documentId = documentResponse.getDocumentId();
+        log.info("Converting audio with streaming Google Speech-to-Text API: {}", documentId);
+        if (!enabled) {
+            return buildErrorResponse(documentId, "Google Speech-to-Text API is disabled", startTime);
+        }
+        try {
+            RecognitionConfig config = buildRecognitionConfig(documentResponse.getMimeType());
+            String extractedText;
+            // Download and recognition overlap here, so both are recorded as the speech stage
+            try (ConversionMetrics.StageTimer timer =
+                         conversionMetrics.startStage(ConversionStage.SPEECH, documentResponse, STRATEGY_STREAMING)) {
+                extractedText = streamingSpeechRecognizer.transcribe(audioStream, config);
+                timer.success();
             }
-            
-            // Extract transcription from alternatives
-            StringBuilder transcription = new StringBuilder();
-            response.getResultsList().forEach(result -> {
-                if (result.getAlternativesCount() > 0) {
-                    transcription.append(result.getAlternatives(0).getTranscript());
-                }
-            });
-            String extractedText = transcription.toString().trim();
-
-            ConversionMetadata metadata = ConversionMetadata.builder()
-                    .originalFileName(documentResponse.getOriginalFileName())
-                    .mimeType(documentResponse.getMimeType())
-                    .documentType(documentResponse.getDocumentType())
-                    .language(languageCode)
-                    .build();
-
-            log.info("Audio conversion completed for {}: {} chars",
-                    documentId, extractedText.length());
-
-            return ConversionResponse.builder()
-                    .documentId(documentId)
-                    .extractedText(extractedText)
-                    .status(ApplicationConstants.CONVERSION_SUCCESS)
-                    .conversionMethod(ApplicationConstants.METHOD_AUDIO_STT)
-                    .metadata(metadata)
-                    .processingTimeMs(System.currentTimeMillis() - startTime)
-                    .build();
+            return buildSuccessResponse(documentResponse, extractedText, "Streaming recognition", startTime);
 
+        } catch (MediaTooLargeException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Error converting audio {}: {}", documentId, e.getMessage(), e);
-            return buildErrorResponse(documentId, 
+            return buildErrorResponse(documentId,
                     ApplicationConstants.ERROR_CONVERSION_FAILED + ": " + e.getMessage(), startTime);
         }
     }
 
+    /**
+     * Whether audio should be streamed into recognition instead of downloaded first
+     */
+    public boolean isStreamingEnabled() {
+        return enabled && streamingSpeechRecognizer.isEnabled();
+    }
+
+    private RecognitionConfig buildRecognitionConfig(String mimeType) {
+        return RecognitionConfig.newBuilder()
+                .setEncoding(detectAudioEncoding(mimeType))
+                .setLanguageCode(languageCode)
+                .setEnableAutomaticPunctuation(true)
+                .setSampleRateHertz(detectSampleRate(mimeType))
+                .build();
+    }
+
+    private ConversionResponse buildSuccessResponse(DocumentResponse documentResponse, String extractedText,
+                                                    String processingNotes, long startTime) {
+        String documentId = documentResponse.getDocumentId();
+        if (extractedText.isEmpty()) {
+            return buildErrorResponse(documentId, "No transcription results", startTime);
+        }
+
+        ConversionMetadata metadata = ConversionMetadata.builder()
+                .originalFileName(documentResponse.getOriginalFileName())
+                .mimeType(documentResponse.getMimeType())
+                .documentType(documentResponse.getDocumentType())
+                .language(languageCode)
+                .processingNotes(processingNotes)
+                .build();
+
+        log.info("Audio conversion completed for {}: {} chars",
+                documentId, extractedText.length());
+
+        return ConversionResponse.builder()
+                .documentId(documentId)
+                .extractedText(extractedText)
+                .status(ApplicationConstants.CONVERSION_SUCCESS)
+                .conversionMethod(ApplicationConstants.METHOD_AUDIO_STT)
+                .metadata(metadata)
+                .processingTimeMs(System.currentTimeMillis() - startTime)
+                .build();
+    }
+
     private RecognitionConfig.AudioEncoding detectAudioEncoding(String mimeType) {
         return switch (mimeType) {
             case ApplicationConstants.MIME_TYPE_MP3 -> RecognitionConfig.AudioEncoding.MP3;
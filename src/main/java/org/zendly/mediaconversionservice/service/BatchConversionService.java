@@ -0,0 +1,242 @@
+package org.zendly.mediaconversionservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import org.zendly.mediaconversionservice.concurrency.ConversionCancellation;
+import org.zendly.mediaconversionservice.config.BatchConversionConfig;
+import org.zendly.mediaconversionservice.constants.ApplicationConstants;
+import org.zendly.mediaconversionservice.context.TenantContext;
+import org.zendly.mediaconversionservice.context.TenantContextHolder;
+import org.zendly.mediaconversionservice.dto.ConversionResponse;
+import org.zendly.mediaconversionservice.dto.DocumentResponse;
+import org.zendly.mediaconversionservice.dto.DocumentType;
+import org.zendly.mediaconversionservice.exception.BulkheadFullException;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Converts several documents of one tenant in a single request
+ * Metadata for all documents is looked up concurrently up front, then conversions run with a per-batch
+ * parallelism cap and each result is written as one NDJSON line the moment it completes, so a batch
+ * takes roughly as long as its slowest document rather than the sum of all of them
+ */
+@Slf4j
+@Service
+public class BatchConversionService {
+
+    private final WorkflowOrchestratorService workflowOrchestratorService;
+    private final DocumentConversionService documentConversionService;
+    private final ExecutorService executor;
+    private final BatchConversionConfig config;
+    private final ObjectMapper objectMapper;
+
+    public BatchConversionService(WorkflowOrchestratorService workflowOrchestratorService,
+                                  DocumentConversionService documentConversionService,
+                                  @Qualifier("batchConversionExecutor") ExecutorService executor,
+                                  BatchConversionConfig config,
+                                  ObjectMapper objectMapper) {
+        this.workflowOrchestratorService = workflowOrchestratorService;
+        this.documentConversionService = documentConversionService;
+        this.executor = executor;
+        this.config = config;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * A document of a batch with its metadata, or the reason it could not be resolved
+     */
+    public record BatchDocument(String documentId, DocumentResponse metadata, String errorMessage) {
+    }
+
+    /**
+     * Check the requested IDs and drop duplicates, keeping the request order
+     * @throws IllegalArgumentException if the list is empty, too long or contains blank IDs
+     */
+    public List<String> validate(List<String> documentIds) {
+        if (documentIds == null || documentIds.isEmpty()) {
+            throw new IllegalArgumentException("documentIds must not be empty");
+        }
+        LinkedHashSet<String> unique = new LinkedHashSet<>();
+        for (String documentId : documentIds) {
+            if (documentId == null || documentId.isBlank()) {
+                throw new IllegalArgumentException("documentIds must not contain blank IDs");
+            }
+            unique.add(documentId.trim());
+        }
+        if (unique.size() > config.getMaxDocuments()) {
+            throw new IllegalArgumentException("A batch may contain at most " + config.getMaxDocuments() + " documents");
+        }
+        return new ArrayList<>(unique);
+    }
+
+    /**
+     * Conversions to run at once for a batch, within the configured bounds
+     */
+    public int effectiveParallelism(Integer requested) {
+        int parallelism = requested != null ? requested : config.getParallelism();
+        return Math.max(1, Math.min(parallelism, config.getMaxParallelism()));
+    }
+
+    /**
+     * Look up the metadata of every document concurrently under the current tenant
+     * Lookups go through the metadata cache, so documents seen recently cost no orchestrator call
+     */
+    public List<BatchDocument> resolveDocuments(List<String> documentIds) throws InterruptedException {
+        TenantContext tenantContext = TenantContextHolder.getContext();
+        List<Future<DocumentResponse>> futures = new ArrayList<>(documentIds.size());
+        for (String documentId : documentIds) {
+            futures.add(executor.submit(withTenant(tenantContext,
+                    () -> workflowOrchestratorService.getDocument(documentId))));
+        }
+
+        List<BatchDocument> documents = new ArrayList<>(documentIds.size());
+        for (int i = 0; i < documentIds.size(); i++) {
+            String documentId = documentIds.get(i);
+            try {
+                DocumentResponse metadata = futures.get(i).get();
+                documents.add(metadata != null
+                        ? new BatchDocument(documentId, metadata, null)
+                        : new BatchDocument(documentId, null, ApplicationConstants.ERROR_FILE_NOT_FOUND));
+            } catch (ExecutionException e) {
+                log.warn("Metadata lookup failed for document {} in batch: {}", documentId, e.getCause().getMessage());
+                documents.add(new BatchDocument(documentId, null, ApplicationConstants.ERROR_FILE_NOT_FOUND));
+            } catch (InterruptedException e) {
+                futures.forEach(future -> future.cancel(true));
+                throw e;
+            }
+        }
+        return documents;
+    }
+
+    /**
+     * Convert the documents and write one ConversionResponse per line, in completion order
+     * @param tenantContext tenant of the request; the stream is written from another thread
+     * @param cancellation cancelled when the client goes away; a failed write cancels it too
+     * @throws IOException if the client goes away, in which case running and pending conversions are cancelled
+     */
+    public void streamBatch(List<BatchDocument> documents, int parallelism, TenantContext tenantContext,
+                            ConversionCancellation cancellation, OutputStream outputStream) throws IOException {
+        long startTime = System.currentTimeMillis();
+        Writer writer = new BufferedWriter(new OutputStreamWriter(cancellation.guard(outputStream),
+                StandardCharsets.UTF_8));
+        CompletionService<ConversionResponse> completionService = new ExecutorCompletionService<>(executor);
+        List<Future<ConversionResponse>> running = new ArrayList<>();
+        Deque<BatchDocument> pending = new ArrayDeque<>();
+
+        for (BatchDocument document : interleaveByType(documents)) {
+            if (document.metadata() == null) {
+                writeLine(writer, failed(document.documentId(), document.errorMessage()));
+            } else {
+                pending.add(document);
+            }
+        }
+
+        try {
+            int inFlight = 0;
+            while (!pending.isEmpty() || inFlight > 0) {
+                while (inFlight < parallelism && !pending.isEmpty()) {
+                    BatchDocument document = pending.poll();
+                    running.add(completionService.submit(withTenant(tenantContext, () -> convert(document, cancellation))));
+                    inFlight++;
+                }
+                ConversionResponse response = completionService.take().get();
+                inFlight--;
+                writeLine(writer, response);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while converting batch");
+        } catch (ExecutionException e) {
+            // convert() reports every failure as a response, so this is unexpected
+            throw new IOException("Batch conversion failed", e.getCause());
+        } finally {
+            running.forEach(future -> future.cancel(true));
+        }
+
+        log.info("Batch of {} documents completed - Parallelism: {}, Time: {}ms",
+                documents.size(), parallelism, System.currentTimeMillis() - startTime);
+    }
+
+    private ConversionResponse convert(BatchDocument document, ConversionCancellation cancellation) {
+        try (ConversionCancellation.Scope scope = cancellation.bind()) {
+            return documentConversionService.convertDocument(document.metadata());
+        } catch (BulkheadFullException e) {
+            log.warn("Conversion of document {} in batch rejected - {}", document.documentId(), e.getMessage());
+            return failed(document.documentId(), e.getMessage());
+        } catch (RuntimeException e) {
+            log.error("Error converting document {} in batch: {}", document.documentId(), e.getMessage(), e);
+            return failed(document.documentId(), ApplicationConstants.ERROR_CONVERSION_FAILED + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Alternate document types so the first parallel slots go to different engines
+     * A batch of ten PDFs and two images then starts Vision right away instead of after the PDFs
+     */
+    private static List<BatchDocument> interleaveByType(List<BatchDocument> documents) {
+        Map<DocumentType, Deque<BatchDocument>> byType = new EnumMap<>(DocumentType.class);
+        List<BatchDocument> interleaved = new ArrayList<>(documents.size());
+        for (BatchDocument document : documents) {
+            if (document.metadata() == null || document.metadata().getDocumentType() == null) {
+                interleaved.add(document);
+            } else {
+                byType.computeIfAbsent(document.metadata().getDocumentType(), type -> new ArrayDeque<>()).add(document);
+            }
+        }
+        while (!byType.isEmpty()) {
+            byType.values().removeIf(queue -> {
+                interleaved.add(queue.poll());
+                return queue.isEmpty();
+            });
+        }
+        return interleaved;
+    }
+
+    private void writeLine(Writer writer, ConversionResponse response) throws IOException {
+        writer.write(objectMapper.writeValueAsString(response));
+        writer.write('\n');
+        writer.flush();
+    }
+
+    private static <T> Callable<T> withTenant(TenantContext tenantContext, Callable<T> task) {
+        return () -> {
+            if (tenantContext != null) {
+                TenantContextHolder.setContext(tenantContext);
+            }
+            try {
+                return task.call();
+            } finally {
+                TenantContextHolder.clear();
+            }
+        };
+    }
+
+    private static ConversionResponse failed(String documentId, String errorMessage) {
+        return ConversionResponse.builder()
+                .documentId(documentId)
+                .status(ApplicationConstants.CONVERSION_FAILED)
+                .errorMessage(errorMessage)
+                .build();
+    }
+}
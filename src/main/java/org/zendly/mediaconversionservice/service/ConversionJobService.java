@@ -0,0 +1,193 @@
+package org.zendly.mediaconversionservice.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.zendly.mediaconversionservice.client.WorkflowOrchestratorClient;
+import org.zendly.mediaconversionservice.config.ConversionJobConfig;
+import org.zendly.mediaconversionservice.constants.ApplicationConstants;
+import org.zendly.mediaconversionservice.context.TenantContext;
+import org.zendly.mediaconversionservice.context.TenantContextHolder;
+import org.zendly.mediaconversionservice.dto.ConversionJobResponse;
+import org.zendly.mediaconversionservice.dto.ConversionJobStatus;
+import org.zendly.mediaconversionservice.dto.ConversionResponse;
+import org.zendly.mediaconversionservice.dto.DocumentResponse;
+import org.zendly.mediaconversionservice.exception.JobRejectedException;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs document conversions as asynchronous jobs on a bounded executor
+ * Jobs are tracked in memory for polling and optionally delivered to the workflow orchestrator.
+ * Job state lives only in this instance and is lost on restart; with several instances the orchestrator
+ * callback is the system of record, and jobs need CPU after the 202 has been sent (no request-based
+ * CPU throttling).
+ */
+@Slf4j
+@Service
+public class ConversionJobService {
+
+    private final ThreadPoolTaskExecutor executor;
+    private final WorkflowOrchestratorService workflowOrchestratorService;
+    private final DocumentConversionService documentConversionService;
+    private final WorkflowOrchestratorClient workflowOrchestratorClient;
+    private final ConversionJobConfig config;
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+    public ConversionJobService(@Qualifier("conversionJobExecutor") ThreadPoolTaskExecutor executor,
+                                WorkflowOrchestratorService workflowOrchestratorService,
+                                DocumentConversionService documentConversionService,
+                                WorkflowOrchestratorClient workflowOrchestratorClient,
+                                ConversionJobConfig config) {
+        this.executor = executor;
+        this.workflowOrchestratorService = workflowOrchestratorService;
+        this.documentConversionService = documentConversionService;
+        this.workflowOrchestratorClient = workflowOrchestratorClient;
+        this.config = config;
+    }
+
+    /**
+     * Queue a conversion job for the given document under the current tenant
+     * @param documentId document to convert
+     * @param callback whether to deliver the result to the orchestrator, null for the configured default
+     * @return snapshot of the newly queued job
+     * @throws JobRejectedException if the job queue is full
+     */
+    public ConversionJobResponse submit(String documentId, Boolean callback) {
+        purgeExpiredJobs();
+        if (jobs.size() >= config.getMaxTrackedJobs()) {
+            throw new JobRejectedException("Too many tracked conversion jobs");
+        }
+
+        TenantContext tenantContext = TenantContextHolder.getContext();
+        boolean deliverCallback = callback != null ? callback : config.isCallbackEnabled();
+        Job job = new Job(UUID.randomUUID().toString(), documentId,
+                tenantContext != null ? tenantContext.getTenantId() : null, deliverCallback);
+        jobs.put(job.jobId, job);
+
+        try {
+            executor.execute(() -> run(job, tenantContext));
+        } catch (TaskRejectedException e) {
+            jobs.remove(job.jobId);
+            log.warn("Conversion job queue full, rejecting document: {}", documentId);
+            throw new JobRejectedException("Conversion job queue is full", e);
+        }
+
+        log.info("Queued conversion job: {} for document: {}", job.jobId, documentId);
+        return job.toResponse();
+    }
+
+    /**
+     * Look up a job visible to the current tenant
+     */
+    public Optional<ConversionJobResponse> getJob(String jobId) {
+        Job job = jobs.get(jobId);
+        if (job == null || !isVisibleToCurrentTenant(job)) {
+            return Optional.empty();
+        }
+        return Optional.of(job.toResponse());
+    }
+
+    private void run(Job job, TenantContext tenantContext) {
+        if (tenantContext != null) {
+            TenantContextHolder.setContext(tenantContext);
+        }
+        job.startedAt = System.currentTimeMillis();
+        job.status = ConversionJobStatus.RUNNING;
+        log.info("Running conversion job: {} for document: {}", job.jobId, job.documentId);
+
+        try {
+            DocumentResponse documentResponse = workflowOrchestratorService.getDocument(job.documentId);
+            if (documentResponse == null) {
+                job.finish(ConversionJobStatus.FAILED, null, "Document not found: " + job.documentId);
+            } else {
+                ConversionResponse result = documentConversionService.convertDocument(documentResponse);
+                boolean success = ApplicationConstants.CONVERSION_SUCCESS.equals(result.getStatus());
+                job.finish(success ? ConversionJobStatus.COMPLETED : ConversionJobStatus.FAILED,
+                        result, success ? null : result.getErrorMessage());
+            }
+        } catch (Exception e) {
+            log.error("Conversion job {} failed: {}", job.jobId, e.getMessage(), e);
+            job.finish(ConversionJobStatus.FAILED, null, e.getMessage());
+        }
+
+        log.info("Conversion job {} finished with status: {}", job.jobId, job.status);
+        try {
+            if (job.callback) {
+                deliverCallback(job);
+            }
+        } finally {
+            TenantContextHolder.clear();
+        }
+    }
+
+    private void deliverCallback(Job job) {
+        try {
+            workflowOrchestratorClient.postConversionResult(job.tenantId, job.toResponse());
+        } catch (Exception e) {
+            // The result stays available for polling even if delivery fails
+            log.warn("Callback delivery failed for job {}: {}", job.jobId, e.getMessage());
+        }
+    }
+
+    private boolean isVisibleToCurrentTenant(Job job) {
+        String tenantId = TenantContextHolder.getCurrentTenantId();
+        return job.tenantId == null || job.tenantId.equals(tenantId);
+    }
+
+    /**
+     * Drop finished jobs older than the retention period
+     */
+    private void purgeExpiredJobs() {
+        long cutoff = System.currentTimeMillis() - config.getRetentionMinutes() * 60_000L;
+        jobs.values().removeIf(job -> job.status.isTerminal() && job.completedAt < cutoff);
+    }
+
+    /**
+     * Mutable job state, published to callers as {@link ConversionJobResponse} snapshots
+     */
+    private static final class Job {
+        private final String jobId;
+        private final String documentId;
+        private final String tenantId;
+        private final boolean callback;
+        private final long submittedAt = System.currentTimeMillis();
+        private volatile ConversionJobStatus status = ConversionJobStatus.PENDING;
+        private volatile Long startedAt;
+        private volatile Long completedAt;
+        private volatile ConversionResponse result;
+        private volatile String errorMessage;
+
+        private Job(String jobId, String documentId, String tenantId, boolean callback) {
+            this.jobId = jobId;
+            this.documentId = documentId;
+            this.tenantId = tenantId;
+            this.callback = callback;
+        }
+
+        private void finish(ConversionJobStatus finalStatus, ConversionResponse finalResult, String error) {
+            this.result = finalResult;
+            this.errorMessage = error;
+            this.completedAt = System.currentTimeMillis();
+            this.status = finalStatus;
+        }
+
+        private ConversionJobResponse toResponse() {
+            return ConversionJobResponse.builder()
+                    .jobId(jobId)
+                    .documentId(documentId)
+                    .status(status)
+                    .submittedAt(submittedAt)
+                    .startedAt(startedAt)
+                    .completedAt(completedAt)
+                    .result(result)
+                    .errorMessage(errorMessage)
+                    .build();
+        }
+    }
+}
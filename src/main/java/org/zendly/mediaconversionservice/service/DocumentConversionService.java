@@ -3,13 +3,32 @@ package org.zendly.mediaconversionservice.service;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.zendly.mediaconversionservice.cache.ConversionResultCache;
+import org.zendly.mediaconversionservice.concurrency.BulkheadRegistry;
+import org.zendly.mediaconversionservice.concurrency.ConversionBudget;
+import org.zendly.mediaconversionservice.concurrency.ConversionEngine;
+import org.zendly.mediaconversionservice.concurrency.CpuWorkerPool;
+import org.zendly.mediaconversionservice.concurrency.ConversionWatchdog;
+import org.zendly.mediaconversionservice.concurrency.RequestCoalescer;
 import org.zendly.mediaconversionservice.constants.ApplicationConstants;
+import org.zendly.mediaconversionservice.context.TenantContextHolder;
+import org.zendly.mediaconversionservice.dto.ConversionMetadata;
 import org.zendly.mediaconversionservice.dto.ConversionResponse;
 import org.zendly.mediaconversionservice.dto.DocumentResponse;
+import org.zendly.mediaconversionservice.dto.DocumentType;
+import org.zendly.mediaconversionservice.exception.BulkheadFullException;
+import org.zendly.mediaconversionservice.exception.MediaTooLargeException;
+import org.zendly.mediaconversionservice.extract.FastPathExtractors;
+import org.zendly.mediaconversionservice.media.ContentSniffer;
+import org.zendly.mediaconversionservice.media.FetchedMedia;
+import org.zendly.mediaconversionservice.media.MediaFetcher;
+import org.zendly.mediaconversionservice.metrics.ConversionMetrics;
+import org.zendly.mediaconversionservice.metrics.ConversionStage;
 
+import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.net.URL;
+import java.util.Optional;
 
 /**
  * Simplified main service for orchestrating document conversion
@@ -23,68 +42,323 @@ public class DocumentConversionService {
     private final TikaTextExtractor tikaTextExtractor;
     private final AudioConversionService audioConversionService;
     private final GoogleVisionService googleVisionService;
+    private final MediaFetcher mediaFetcher;
+    private final ConversionResultCache resultCache;
+    private final DocumentProcessingStrategy processingStrategy;
+    private final BulkheadRegistry bulkheads;
+    private final ConversionWatchdog watchdog;
+    private final ConversionMetrics conversionMetrics;
+    private final CpuWorkerPool cpuWorkerPool;
+    private final ContentSniffer contentSniffer;
+    private final FastPathExtractors fastPathExtractors;
+    private final RequestCoalescer<String, ConversionResponse> inFlightConversions =
+            new RequestCoalescer<>("conversion");
 
     @Value("${tika.file.max-size-mb}")
     private int maxFileSizeMb;
 
+    @Value("${tika.ocr.language}")
+    private String ocrLanguage;
+
+    @Value("${google.speech.language-code}")
+    private String speechLanguageCode;
+
+    @Value("${google.speech.long-audio.enabled:true}")
+    private boolean longAudioEnabled;
+
+    @Value("${google.speech.long-audio.max-file-size-mb:100}")
+    private int longAudioMaxFileSizeMb;
+
+    @Value("${google.speech.long-audio.inline-max-file-size-mb:10}")
+    private int longAudioInlineMaxFileSizeMb;
+
     public DocumentConversionService(TikaTextExtractor tikaTextExtractor,
                                      AudioConversionService audioConversionService,
-                                     GoogleVisionService googleVisionService) {
+                                     GoogleVisionService googleVisionService,
+                                     MediaFetcher mediaFetcher,
+                                     ConversionResultCache resultCache,
+                                     DocumentProcessingStrategy processingStrategy,
+                                     BulkheadRegistry bulkheads,
+                                     ConversionWatchdog watchdog,
+                                     ConversionMetrics conversionMetrics,
+                                     CpuWorkerPool cpuWorkerPool,
+                                     ContentSniffer contentSniffer,
+                                     FastPathExtractors fastPathExtractors) {
         this.tikaTextExtractor = tikaTextExtractor;
         this.audioConversionService = audioConversionService;
         this.googleVisionService = googleVisionService;
+        this.mediaFetcher = mediaFetcher;
+        this.resultCache = resultCache;
+        this.processingStrategy = processingStrategy;
+        this.bulkheads = bulkheads;
+        this.watchdog = watchdog;
+        this.conversionMetrics = conversionMetrics;
+        this.cpuWorkerPool = cpuWorkerPool;
+        this.contentSniffer = contentSniffer;
+        this.fastPathExtractors = fastPathExtractors;
     }
 
     /**
      * Convert document to text based on document type
-     * Simplified routing - TikaTextExtractor handles all document/image processing with smart optimization
+     * Concurrent requests for the same document (e.g. client retries) share a single conversion; batch items,
+     * which are cancelled with their client, always convert on their own
      */
     public ConversionResponse convertDocument(DocumentResponse documentResponse) {
+        String key = TenantContextHolder.getCurrentTenantId() + ":" + documentResponse.getDocumentId();
+        return inFlightConversions.execute(key, () -> doConvertDocument(documentResponse));
+    }
+
+    /**
+     * Simplified routing - TikaTextExtractor handles all document/image processing with smart optimization
+     */
+    private ConversionResponse doConvertDocument(DocumentResponse documentResponse) {
         long startTime = System.currentTimeMillis();
         
         log.info("Starting conversion for document: {} with MIME type: {}", 
                 documentResponse.getDocumentId(), documentResponse.getMimeType());
 
-        try {
-            // Validate file size
-            if (!isFileSizeValid(documentResponse.getDownloadUrl())) {
-                return buildErrorResponse(documentResponse.getDocumentId(), 
-                        ApplicationConstants.ERROR_FILE_TOO_LARGE, startTime);
+        if (!isSupportedType(documentResponse)) {
+            return buildErrorResponse(documentResponse.getDocumentId(),
+                    ApplicationConstants.ERROR_UNSUPPORTED_FORMAT, startTime);
+        }
+
+        boolean streamAudio = documentResponse.getDocumentType() == DocumentType.AUDIO
+                && audioConversionService.isStreamingEnabled();
+        long maxSizeBytes = maxDownloadSizeMb(documentResponse, streamAudio) * 1024L * 1024L;
+        if (streamAudio) {
+            return convertAudioStreaming(documentResponse, maxSizeBytes, startTime);
+        }
+
+        // Download once; the size limit is enforced while streaming
+        try (FetchedMedia media = download(documentResponse, maxSizeBytes)) {
+
+            // Route by what the bytes are rather than what the orchestrator says they are
+            ContentSniffer.Detection detection = contentSniffer.detect(documentResponse, media);
+            DocumentResponse routed = detection.applyTo(documentResponse);
+
+            // Identical content converted with identical parameters yields an identical result
+            String cacheKey = buildCacheKey(routed, media);
+            Optional<ConversionResponse> cached = resultCache.get(cacheKey);
+            if (cached.isPresent()) {
+                log.info("Serving cached conversion result for document: {}", documentResponse.getDocumentId());
+                return withDetection(fromCache(cached.get(), documentResponse, startTime), detection);
+            }
+
+            // Tika and Tesseract are CPU-bound and leave virtual threads for platform workers; the rest waits on I/O
+            ConversionResponse response = routed.getDocumentType() == DocumentType.DOCUMENT
+                    ? cpuWorkerPool.call(() -> runEngine(routed, media, startTime))
+                    : runEngine(routed, media, startTime);
+
+            response.setProcessingTimeMs(System.currentTimeMillis() - startTime);
+            if (ApplicationConstants.CONVERSION_SUCCESS.equals(response.getStatus())) {
+                conversionMetrics.recordBytesIn(routed, media.getSize());
+                recordCharsOut(routed, response);
+                if (!isTruncated(response)) {
+                    resultCache.put(cacheKey, response);
+                }
             }
+            return withDetection(response, detection);
 
-            // Simple, direct routing based on document type
+        } catch (BulkheadFullException e) {
+            throw e;
+        } catch (MediaTooLargeException e) {
+            log.warn("Document {} rejected: {}", documentResponse.getDocumentId(), e.getMessage());
+            return buildErrorResponse(documentResponse.getDocumentId(),
+                    ApplicationConstants.ERROR_FILE_TOO_LARGE, startTime);
+        } catch (IOException e) {
+            log.error("Error downloading document {}: {}", documentResponse.getDocumentId(), e.getMessage());
+            return buildErrorResponse(documentResponse.getDocumentId(),
+                    ApplicationConstants.ERROR_FILE_NOT_FOUND, startTime);
+        } catch (Exception e) {
+            log.error("Error converting document {}: {}", documentResponse.getDocumentId(), e.getMessage(), e);
+            return buildErrorResponse(documentResponse.getDocumentId(), 
+                    ApplicationConstants.ERROR_CONVERSION_FAILED + ": " + e.getMessage(), startTime);
+        }
+    }
+
+    /**
+     * Simple, direct routing based on document type; each engine is admitted through its own bulkhead
+     * The time budget starts on the thread that runs the engine so its CPU time can be measured
+     */
+    private ConversionResponse runEngine(DocumentResponse documentResponse, FetchedMedia media, long startTime)
+            throws Exception {
+        try (ConversionBudget budget = watchdog.start(normalizeMimeType(documentResponse.getMimeType()))) {
             ConversionResponse response = switch (documentResponse.getDocumentType()) {
-                case AUDIO -> audioConversionService.convertAudio(documentResponse);
-                case DOCUMENT -> tikaTextExtractor.convertWithTika(documentResponse, startTime);
-                case IMAGE -> googleVisionService.convertImage(documentResponse);
-                default -> buildErrorResponse(documentResponse.getDocumentId(), 
+                case AUDIO -> bulkheads.execute(ConversionEngine.SPEECH,
+                        () -> audioConversionService.convertAudio(documentResponse, media));
+                case DOCUMENT -> tikaTextExtractor.convertWithTika(documentResponse, media, startTime);
+                case IMAGE -> bulkheads.execute(ConversionEngine.VISION,
+                        () -> googleVisionService.convertImage(documentResponse, media));
+                default -> buildErrorResponse(documentResponse.getDocumentId(),
                         ApplicationConstants.ERROR_UNSUPPORTED_FORMAT, startTime);
             };
+            return withBudgetOutcome(response, budget, startTime);
+        }
+    }
 
+    /**
+     * Transcribe audio while it downloads; results are not cached since the content hash is only known at the end
+     */
+    private ConversionResponse convertAudioStreaming(DocumentResponse documentResponse, long maxSizeBytes, long startTime) {
+        try (ConversionBudget budget = watchdog.start(normalizeMimeType(documentResponse.getMimeType()))) {
+            ConversionResponse response = bulkheads.execute(ConversionEngine.SPEECH,
+                    () -> mediaFetcher.stream(documentResponse.getDownloadUrl(), maxSizeBytes,
+                            (audioStream, contentType) -> convertAudioStream(documentResponse, audioStream)));
+            response = withBudgetOutcome(response, budget, startTime);
             response.setProcessingTimeMs(System.currentTimeMillis() - startTime);
+            if (ApplicationConstants.CONVERSION_SUCCESS.equals(response.getStatus())) {
+                recordCharsOut(documentResponse, response);
+            }
             return response;
 
+        } catch (BulkheadFullException e) {
+            throw e;
+        } catch (MediaTooLargeException e) {
+            log.warn("Document {} rejected: {}", documentResponse.getDocumentId(), e.getMessage());
+            return buildErrorResponse(documentResponse.getDocumentId(),
+                    ApplicationConstants.ERROR_FILE_TOO_LARGE, startTime);
+        } catch (IOException e) {
+            log.error("Error downloading document {}: {}", documentResponse.getDocumentId(), e.getMessage());
+            return buildErrorResponse(documentResponse.getDocumentId(),
+                    ApplicationConstants.ERROR_FILE_NOT_FOUND, startTime);
         } catch (Exception e) {
             log.error("Error converting document {}: {}", documentResponse.getDocumentId(), e.getMessage(), e);
-            return buildErrorResponse(documentResponse.getDocumentId(), 
+            return buildErrorResponse(documentResponse.getDocumentId(),
                     ApplicationConstants.ERROR_CONVERSION_FAILED + ": " + e.getMessage(), startTime);
         }
     }
 
     /**
-     * Validate file size against configured maximum
+     * Transcribe a download in progress, after checking its first bytes through mark/reset
+     * The engine is already committed, so a mismatch is recorded but the audio path is kept
      */
-    private boolean isFileSizeValid(String downloadUrl) {
-        try {
-            URL url = new URL(downloadUrl);
-            long contentLength = url.openConnection().getContentLengthLong();
-            long maxSizeBytes = maxFileSizeMb * 1024L * 1024L;
+    private ConversionResponse convertAudioStream(DocumentResponse documentResponse, InputStream audioStream)
+            throws IOException {
+        BufferedInputStream in = new BufferedInputStream(audioStream);
+        ContentSniffer.Detection detection = contentSniffer.detect(documentResponse, in);
+        return withDetection(audioConversionService.convertAudioStream(documentResponse, in), detection);
+    }
 
-            return contentLength <= maxSizeBytes;
-        } catch (IOException e) {
-            log.warn("Could not determine file size for URL: {}", downloadUrl);
-            return true; // Allow processing if size cannot be determined
+    /**
+     * Download a document for callers that consume the content themselves (e.g. streaming)
+     * @throws MediaTooLargeException if the object exceeds the configured size limit
+     */
+    public FetchedMedia fetchMedia(DocumentResponse documentResponse) throws IOException {
+        FetchedMedia media = download(documentResponse, maxFileSizeMb * 1024L * 1024L);
+        conversionMetrics.recordBytesIn(documentResponse, media.getSize());
+        return media;
+    }
+
+    private FetchedMedia download(DocumentResponse documentResponse, long maxSizeBytes) throws IOException {
+        try (ConversionMetrics.StageTimer timer = conversionMetrics.startStage(ConversionStage.DOWNLOAD, documentResponse, null)) {
+            try {
+                FetchedMedia media = mediaFetcher.fetch(documentResponse.getDownloadUrl(), maxSizeBytes);
+                timer.success();
+                return media;
+            } catch (MediaTooLargeException e) {
+                timer.outcome(ConversionMetrics.OUTCOME_REJECTED);
+                throw e;
+            }
+        }
+    }
+
+    private void recordCharsOut(DocumentResponse documentResponse, ConversionResponse response) {
+        if (response.getExtractedText() != null) {
+            conversionMetrics.recordCharsOut(documentResponse, response.getExtractedText().length());
+        }
+    }
+
+    /**
+     * Long recordings are segmented or streamed by the audio service, so audio may be larger than other documents
+     * Other audio formats beyond the synchronous limit are sent inline to a long-running operation, so they
+     * are rejected above the API's inline limit before anything is downloaded
+     */
+    private int maxDownloadSizeMb(DocumentResponse documentResponse, boolean streamAudio) {
+        if (documentResponse.getDocumentType() != DocumentType.AUDIO || !longAudioEnabled) {
+            return maxFileSizeMb;
+        }
+        if (streamAudio || ApplicationConstants.MIME_TYPE_WAV.equals(normalizeMimeType(documentResponse.getMimeType()))) {
+            return longAudioMaxFileSizeMb;
+        }
+        return Math.min(longAudioMaxFileSizeMb, longAudioInlineMaxFileSizeMb);
+    }
+
+    /**
+     * Check the document type before downloading anything
+     */
+    private boolean isSupportedType(DocumentResponse documentResponse) {
+        DocumentType documentType = documentResponse.getDocumentType();
+        return documentType == DocumentType.AUDIO
+                || documentType == DocumentType.DOCUMENT
+                || documentType == DocumentType.IMAGE;
+    }
+
+    /**
+     * Cache key covering the content hash and every parameter the chosen engine depends on
+     */
+    private String buildCacheKey(DocumentResponse documentResponse, FetchedMedia media) {
+        return switch (documentResponse.getDocumentType()) {
+            case DOCUMENT -> documentCacheKey(media,
+                    processingStrategy.route(normalizeMimeType(documentResponse.getMimeType())));
+            case AUDIO -> ConversionResultCache.buildKey(media.getSha256(), DocumentType.AUDIO,
+                    documentResponse.getMimeType(), speechLanguageCode);
+            default -> ConversionResultCache.buildKey(media.getSha256(), documentResponse.getDocumentType());
+        };
+    }
+
+    private String documentCacheKey(FetchedMedia media, DocumentProcessingStrategy.Route route) {
+        return ConversionResultCache.buildKey(media.getSha256(), DocumentType.DOCUMENT, route.strategy().getValue(),
+                route.ocrPolicy(), route.skipEmbedded(), fastPathExtractors.extractorFor(route) != null, ocrLanguage,
+                route.writeLimit());
+    }
+
+    /**
+     * Report an engine failure caused by the watchdog as a timeout rather than a generic error
+     */
+    private ConversionResponse withBudgetOutcome(ConversionResponse response, ConversionBudget budget, long startTime) {
+        if (budget.isExpired() && ApplicationConstants.CONVERSION_FAILED.equals(response.getStatus())) {
+            return buildErrorResponse(response.getDocumentId(), ApplicationConstants.ERROR_CONVERSION_TIMEOUT
+                    + " (" + budget.getExpiredReason() + ")", startTime);
         }
+        return response;
+    }
+
+    /**
+     * Record the detected content type, and whether it contradicted the declared one, on the response
+     */
+    private static ConversionResponse withDetection(ConversionResponse response, ContentSniffer.Detection detection) {
+        if (detection.detectedMimeType() == null) {
+            return response;
+        }
+        ConversionMetadata metadata = response.getMetadata() != null ? response.getMetadata() : new ConversionMetadata();
+        metadata.setDeclaredMimeType(detection.declaredMimeType());
+        metadata.setDetectedMimeType(detection.detectedMimeType());
+        metadata.setMimeTypeMismatch(detection.mismatch());
+        response.setMetadata(metadata);
+        return response;
+    }
+
+    private static boolean isTruncated(ConversionResponse response) {
+        return response.getMetadata() != null && Boolean.TRUE.equals(response.getMetadata().getTruncated());
+    }
+
+    /**
+     * Re-target a cached result at the requesting document
+     */
+    private ConversionResponse fromCache(ConversionResponse cached, DocumentResponse documentResponse, long startTime) {
+        cached.setDocumentId(documentResponse.getDocumentId());
+        ConversionMetadata metadata = cached.getMetadata() != null ? cached.getMetadata() : new ConversionMetadata();
+        if (metadata.getOriginalFileName() != null) {
+            metadata.setOriginalFileName(documentResponse.getOriginalFileName());
+        }
+        metadata.setCachedResult(true);
+        cached.setMetadata(metadata);
+        cached.setProcessingTimeMs(System.currentTimeMillis() - startTime);
+        return cached;
+    }
+
+    private static String normalizeMimeType(String mimeType) {
+        return mimeType == null ? null : mimeType.split(";")[0].trim().toLowerCase();
     }
 
     /**
@@ -1,59 +1,105 @@
 package org.zendly.mediaconversionservice.service;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.zendly.mediaconversionservice.config.MimeRoutingConfig;
 import org.zendly.mediaconversionservice.constants.ApplicationConstants;
+import org.zendly.mediaconversionservice.dto.OcrPolicy;
+import org.zendly.mediaconversionservice.dto.ProcessingStrategy;
 
-import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
- * Simplified strategy class for determining optimal processing approach
- * Ultra-simple logic: Text documents and PDFs use TEXT_ONLY, Images use OCR
+ * Routing table from MIME type to processing strategy and parser hints
+ * Built once at startup from the built-in routes (text-based formats without OCR, PDFs with OCR)
+ * overlaid with conversion.routing.types, so routing a request is a single map lookup
  */
 @Slf4j
 @Component
 public class DocumentProcessingStrategy {
 
     /**
-     * Determine processing strategy based on MIME type (simplified logic)
-     * @param mimeType the document MIME type
-     * @return processing strategy constant
+     * Parser hint that always detects the type instead of dispatching directly
      */
-    public String determineProcessingStrategy(String mimeType) {
-        if (mimeType == null || mimeType.trim().isEmpty()) {
-            log.info("MIME type is null or empty, defaulting to TEXT_ONLY");
-            return ApplicationConstants.PROCESSING_TEXT_ONLY;
+    public static final String PARSER_AUTO = "auto";
+
+    private final Map<String, Route> routes;
+    private final Route defaultRoute;
+
+    /**
+     * How documents of one MIME type are parsed
+     * @param mimeType normalized MIME type, null for the route of unknown types
+     * @param parser configured parser class or {@link #PARSER_AUTO}, null for the parser Tika registers
+     * @param writeLimit characters extracted before the text is cut off, -1 for unlimited
+     */
+    public record Route(String mimeType, String parser, OcrPolicy ocrPolicy, boolean skipEmbedded, int writeLimit) {
+
+        public ProcessingStrategy strategy() {
+            return ocrPolicy.getStrategy();
         }
+    }
 
-        String normalizedMimeType = mimeType.toLowerCase().trim();
-        
-        // Text-based documents (Word, Excel, PowerPoint, JSON, HTML, TXT, RTF)
-        if (isTextBasedDocument(normalizedMimeType)) {
-            log.info("Document {} identified as text-based, using TEXT_ONLY strategy", mimeType);
-            return ApplicationConstants.PROCESSING_TEXT_ONLY;
+    public DocumentProcessingStrategy(MimeRoutingConfig config, @Value("${tika.ocr.write-limit}") int writeLimit) {
+        Map<String, Route> table = new HashMap<>();
+        for (String mimeType : ApplicationConstants.TEXT_BASED_MIME_TYPES) {
+            table.put(mimeType, new Route(mimeType, null, OcrPolicy.NEVER, false, writeLimit));
         }
-        
-        // Images use OCR with Vision fallback
-        if (isPdfDocument(normalizedMimeType)) {
-            log.info("Image {} identified, using PROCESSING_OCR strategy", mimeType);
-            return ApplicationConstants.PROCESSING_OCR;
+        table.put(ApplicationConstants.MIME_TYPE_PDF,
+                new Route(ApplicationConstants.MIME_TYPE_PDF, null, OcrPolicy.TEXT_LAYER_FIRST, false, writeLimit));
+        this.defaultRoute = new Route(null, PARSER_AUTO, OcrPolicy.NEVER, false, writeLimit);
+
+        config.getTypes().forEach((type, rule) -> {
+            String mimeType = normalize(type);
+            Route base = table.getOrDefault(mimeType, new Route(mimeType, null, OcrPolicy.NEVER, false, writeLimit));
+            table.put(mimeType, new Route(mimeType,
+                    rule.getParser() != null ? rule.getParser().trim() : base.parser(),
+                    rule.getOcr() != null ? rule.getOcr() : base.ocrPolicy(),
+                    rule.getSkipEmbedded() != null ? rule.getSkipEmbedded() : base.skipEmbedded(),
+                    rule.getWriteLimit() != null ? rule.getWriteLimit() : base.writeLimit()));
+        });
+        this.routes = Map.copyOf(table);
+
+        log.info("MIME routing table built - Types: {}, Configured: {}", routes.size(), config.getTypes().keySet());
+    }
+
+    /**
+     * Route for a MIME type; unknown types are extracted as text only
+     * @param mimeType MIME type, ideally already normalized; parameters such as charset are ignored
+     */
+    public Route route(String mimeType) {
+        if (mimeType == null) {
+            return defaultRoute;
         }
-        
-        // Safe default for unknown types
-        log.info("Document {} type unknown, defaulting to TEXT_ONLY strategy", mimeType);
-        return ApplicationConstants.PROCESSING_TEXT_ONLY;
+        Route route = routes.get(mimeType);
+        return route != null ? route : routes.getOrDefault(normalize(mimeType), defaultRoute);
     }
 
     /**
-     * Check if document is text-based (no OCR needed)
+     * Routes of all MIME types in the table
      */
-    public boolean isTextBasedDocument(String mimeType) {
-        return Arrays.asList(ApplicationConstants.TEXT_BASED_MIME_TYPES).contains(mimeType);
+    public Collection<Route> routes() {
+        return routes.values();
     }
+
+    /**
+     * Determine the processing strategy for a MIME type
+     */
+    public ProcessingStrategy determineProcessingStrategy(String mimeType) {
+        return route(mimeType).strategy();
+    }
+
     /**
      * Check if document is PDF
      */
     public boolean isPdfDocument(String mimeType) {
         return ApplicationConstants.MIME_TYPE_PDF.equals(mimeType);
     }
+
+    private static String normalize(String mimeType) {
+        int parameters = mimeType.indexOf(';');
+        return (parameters >= 0 ? mimeType.substring(0, parameters) : mimeType).trim().toLowerCase();
+    }
 }
@@ -5,16 +5,18 @@ import com.google.protobuf.ByteString;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.zendly.mediaconversionservice.client.VisionBatchClient;
 import org.zendly.mediaconversionservice.constants.ApplicationConstants;
 import org.zendly.mediaconversionservice.dto.ConversionMetadata;
 import org.zendly.mediaconversionservice.dto.ConversionResponse;
 import org.zendly.mediaconversionservice.dto.DocumentResponse;
+import org.zendly.mediaconversionservice.media.FetchedMedia;
+import org.zendly.mediaconversionservice.metrics.ConversionMetrics;
+import org.zendly.mediaconversionservice.metrics.ConversionStage;
+import org.zendly.mediaconversionservice.ocr.ImagePreprocessor;
 
-import java.io.InputStream;
-import java.net.URL;
-import java.net.URLConnection;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Google Vision API service for image text extraction
@@ -23,7 +25,9 @@ import java.util.List;
 @Service
 public class GoogleVisionService {
 
-    private final ImageAnnotatorClient visionClient;
+    private final VisionBatchClient visionBatchClient;
+    private final ConversionMetrics conversionMetrics;
+    private final ImagePreprocessor imagePreprocessor;
 
     @Value("${google.vision.enabled}")
     private boolean enabled;
@@ -31,11 +35,17 @@ public class GoogleVisionService {
     @Value("${google.vision.max-file-size-mb}")
     private int maxFileSizeMb;
 
-    public GoogleVisionService(ImageAnnotatorClient visionClient) {
-        this.visionClient = visionClient;
+    @Value("${google.vision.timeout-seconds}")
+    private int timeoutSeconds;
+
+    public GoogleVisionService(VisionBatchClient visionBatchClient, ConversionMetrics conversionMetrics,
+                               ImagePreprocessor imagePreprocessor) {
+        this.visionBatchClient = visionBatchClient;
+        this.conversionMetrics = conversionMetrics;
+        this.imagePreprocessor = imagePreprocessor;
     }
 
-    public ConversionResponse convertImage(DocumentResponse documentResponse) {
+    public ConversionResponse convertImage(DocumentResponse documentResponse, FetchedMedia media) {
         long startTime = System.currentTimeMillis();
         String documentId = documentResponse.getDocumentId();
         log.info("Converting image with Google Vision API: {}", documentId);
@@ -43,21 +53,19 @@ public class GoogleVisionService {
             return buildErrorResponse(documentId, "Google Vision API is disabled", startTime);
         }
         try {
-            // Validate file size before streaming
+            // Validate file size against the engine limit
             long maxBytes = maxFileSizeMb * 1024L * 1024L;
-            URLConnection connection = new URL(documentResponse.getDownloadUrl()).openConnection();
-            long fileSize = connection.getContentLengthLong();
-
-            if (fileSize > maxBytes) {
+            if (media.getSize() > maxBytes) {
                 return buildErrorResponse(documentId, 
                         ApplicationConstants.ERROR_FILE_TOO_LARGE, startTime);
             }
 
-            // Stream image data directly from URL
-            ByteString imageBytes;
-            try (InputStream stream = connection.getInputStream()) {
-                imageBytes = ByteString.readFrom(stream, (int) maxBytes);
+            // Phone photos shrink to a fraction of their size once reduced and binarized
+            byte[] content = media.getBytes();
+            if (imagePreprocessor.isEnabled()) {
+                content = imagePreprocessor.preprocessImage(content, ImagePreprocessor.TARGET_VISION).orElse(content);
             }
+            ByteString imageBytes = ByteString.copyFrom(content);
 
             // Build Vision API request
             Image image = Image.newBuilder().setContent(imageBytes).build();
@@ -69,16 +77,14 @@ public class GoogleVisionService {
                     .setImage(image)
                     .build();
 
-            // Call Vision API
-            BatchAnnotateImagesResponse response = visionClient.batchAnnotateImages(
-                    List.of(request));
-
-            if (response.getResponsesCount() == 0) {
-                return buildErrorResponse(documentId, "No response from Vision API", startTime);
+            // Call Vision API; concurrent images share one batchAnnotateImages call
+            AnnotateImageResponse imageResponse;
+            try (ConversionMetrics.StageTimer timer = conversionMetrics.startStage(ConversionStage.VISION,
+                    documentResponse, ApplicationConstants.METHOD_IMAGE_VISION)) {
+                imageResponse = visionBatchClient.annotate(request).get(timeoutSeconds, TimeUnit.SECONDS);
+                timer.outcome(imageResponse.hasError() ? ConversionMetrics.OUTCOME_FAILURE : ConversionMetrics.OUTCOME_SUCCESS);
             }
 
-            AnnotateImageResponse imageResponse = response.getResponses(0);
-
             if (imageResponse.hasError()) {
                 String error = imageResponse.getError().getMessage();
                 log.error("Vision API error for {}: {}", documentId, error);
@@ -109,6 +115,13 @@ public class GoogleVisionService {
                     .processingTimeMs(System.currentTimeMillis() - startTime)
                     .build();
 
+        } catch (ExecutionException e) {
+            log.error("Vision API call failed for {}: {}", documentId, e.getCause().getMessage(), e.getCause());
+            return buildErrorResponse(documentId,
+                    ApplicationConstants.ERROR_CONVERSION_FAILED + ": " + e.getCause().getMessage(), startTime);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return buildErrorResponse(documentId, ApplicationConstants.ERROR_CONVERSION_FAILED, startTime);
         } catch (Exception e) {
             log.error("Error converting image {}: {}", documentId, e.getMessage(), e);
             return buildErrorResponse(documentId, 
@@ -1,23 +1,63 @@
 package org.zendly.mediaconversionservice.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.tika.exception.TikaException;
+import org.apache.tika.exception.WriteLimitReachedException;
+import org.apache.tika.extractor.EmbeddedDocumentExtractor;
 import org.apache.tika.metadata.Metadata;
-import org.apache.tika.parser.AutoDetectParser;
 import org.apache.tika.parser.ParseContext;
+import org.apache.tika.parser.Parser;
+import org.apache.tika.parser.ocr.TesseractOCRConfig;
+import org.apache.tika.parser.pdf.PDFParserConfig;
 import org.apache.tika.sax.BodyContentHandler;
+import org.apache.tika.sax.WriteOutContentHandler;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.xml.sax.ContentHandler;
 import org.xml.sax.SAXException;
+import org.zendly.mediaconversionservice.concurrency.Bulkhead;
+import org.zendly.mediaconversionservice.concurrency.BulkheadRegistry;
+import org.zendly.mediaconversionservice.concurrency.ConversionBudget;
+import org.zendly.mediaconversionservice.concurrency.ConversionEngine;
+import org.zendly.mediaconversionservice.concurrency.ConversionWatchdog;
+import org.zendly.mediaconversionservice.config.TikaOcrConfig;
 import org.zendly.mediaconversionservice.constants.ApplicationConstants;
 import org.zendly.mediaconversionservice.dto.ConversionMetadata;
 import org.zendly.mediaconversionservice.dto.ConversionResponse;
 import org.zendly.mediaconversionservice.dto.DocumentResponse;
+import org.zendly.mediaconversionservice.dto.OcrPolicy;
+import org.zendly.mediaconversionservice.dto.PageOcrDecision;
+import org.zendly.mediaconversionservice.dto.ProcessingStrategy;
+import org.zendly.mediaconversionservice.dto.TextStreamFormat;
+import org.zendly.mediaconversionservice.exception.BulkheadFullException;
+import org.zendly.mediaconversionservice.extract.BudgetContentHandler;
+import org.zendly.mediaconversionservice.extract.DirectParserRegistry;
+import org.zendly.mediaconversionservice.extract.FastPathExtractor;
+import org.zendly.mediaconversionservice.extract.FastPathExtractors;
+import org.zendly.mediaconversionservice.extract.ForkedTikaParser;
+import org.zendly.mediaconversionservice.extract.NdjsonSectionContentHandler;
+import org.zendly.mediaconversionservice.extract.SharedTikaParser;
+import org.zendly.mediaconversionservice.extract.SkipEmbeddedDocumentExtractor;
+import org.zendly.mediaconversionservice.media.FetchedMedia;
+import org.zendly.mediaconversionservice.metrics.ConversionMetrics;
+import org.zendly.mediaconversionservice.metrics.ConversionStage;
+import org.zendly.mediaconversionservice.ocr.PdfOcrEngine;
+import org.zendly.mediaconversionservice.ocr.PdfTextLayerAnalyzer;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.InputStream;
-import java.net.URL;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * Optimized service for extracting text from documents using Apache Tika with smart processing
@@ -27,70 +67,145 @@ import java.net.URL;
 @Service
 public class TikaTextExtractor {
 
-    @Value("${tika.ocr.write-limit}")
-    private int writeLimit;
+    @Value("${tika.stream.write-limit}")
+    private int streamWriteLimit;
 
-    private final AutoDetectParser autoDetectParser;
+    @Value("${tika.stream.section-chars}")
+    private int streamSectionChars;
+
+    private final SharedTikaParser sharedParser;
+    private final DirectParserRegistry directParsers;
+    private final FastPathExtractors fastPathExtractors;
+    private final ForkedTikaParser forkedParser;
     private final ParseContext ocrEnabledContext;
     private final ParseContext textOnlyParseContext;
+    private final ParseContext ocrSkipEmbeddedContext;
+    private final ParseContext textOnlySkipEmbeddedContext;
     private final DocumentProcessingStrategy processingStrategy;
+    private final ObjectMapper objectMapper;
+    private final PdfOcrEngine pdfOcrEngine;
+    private final PdfTextLayerAnalyzer textLayerAnalyzer;
+    private final TikaOcrConfig tikaOcrConfig;
+    private final BulkheadRegistry bulkheads;
+    private final ConversionMetrics conversionMetrics;
 
-    public TikaTextExtractor(AutoDetectParser autoDetectParser,
+    public TikaTextExtractor(SharedTikaParser sharedParser,
+                             DirectParserRegistry directParsers,
+                             FastPathExtractors fastPathExtractors,
+                             ForkedTikaParser forkedParser,
                              @Qualifier("parseContext") ParseContext createParseContext,
                              @Qualifier("textOnlyParseContext") ParseContext textOnlyParseContext,
-                             DocumentProcessingStrategy processingStrategy) {
-        this.autoDetectParser = autoDetectParser;
-        this.ocrEnabledContext = createParseContext;
-        this.textOnlyParseContext = textOnlyParseContext;
+                             DocumentProcessingStrategy processingStrategy,
+                             ObjectMapper objectMapper,
+                             PdfOcrEngine pdfOcrEngine,
+                             PdfTextLayerAnalyzer textLayerAnalyzer,
+                             TikaOcrConfig tikaOcrConfig,
+                             BulkheadRegistry bulkheads,
+                             ConversionMetrics conversionMetrics) {
+        this.sharedParser = sharedParser;
+        this.directParsers = directParsers;
+        this.fastPathExtractors = fastPathExtractors;
+        this.forkedParser = forkedParser;
+        // Built once here: the contexts are shared by every parse, and ParseContext is not safe to modify concurrently
+        this.ocrEnabledContext = copyContext(createParseContext, false);
+        this.textOnlyParseContext = copyContext(textOnlyParseContext, false);
+        this.ocrSkipEmbeddedContext = copyContext(createParseContext, true);
+        this.textOnlySkipEmbeddedContext = copyContext(textOnlyParseContext, true);
         this.processingStrategy = processingStrategy;
+        this.objectMapper = objectMapper;
+        this.pdfOcrEngine = pdfOcrEngine;
+        this.textLayerAnalyzer = textLayerAnalyzer;
+        this.tikaOcrConfig = tikaOcrConfig;
+        this.bulkheads = bulkheads;
+        this.conversionMetrics = conversionMetrics;
     }
 
     /**
      * Convert document or image using TikaTextExtractor with smart processing
      * TikaTextExtractor handles all optimization logic internally
      */
-    public ConversionResponse convertWithTika(DocumentResponse documentResponse, long startTime) {
-        try (InputStream inputStream = new URL(documentResponse.getDownloadUrl()).openStream()) {
-            ConversionResponse tikaResponse = extractText(inputStream, documentResponse);
-            if (ApplicationConstants.CONVERSION_SUCCESS.equals(tikaResponse.getStatus())) {
-                log.info("Tika extraction successful for document: {} - Text length: {}, OCR used: {}",
-                        documentResponse.getDocumentId(),
-                        tikaResponse.getExtractedText().length(),
-                        tikaResponse.getMetadata() != null ? tikaResponse.getMetadata().getUsedOcrFallback() : false);
-                return tikaResponse;
-            } else {
-                log.error("Tika extraction failed for document: {}", documentResponse.getDocumentId());
-                return tikaResponse; // Return the error response from Tika
-            }
-
-        } catch (IOException e) {
-            log.error("Error downloading document {}: {}", documentResponse.getDocumentId(), e.getMessage());
-            return buildErrorResponse(documentResponse.getDocumentId(),
-                    ApplicationConstants.ERROR_FILE_NOT_FOUND, startTime);
+    public ConversionResponse convertWithTika(DocumentResponse documentResponse, FetchedMedia media, long startTime) {
+        ConversionResponse tikaResponse = extractText(media, documentResponse);
+        if (ApplicationConstants.CONVERSION_SUCCESS.equals(tikaResponse.getStatus())) {
+            log.info("Tika extraction successful for document: {} - Text length: {}, OCR used: {}",
+                    documentResponse.getDocumentId(),
+                    tikaResponse.getExtractedText().length(),
+                    tikaResponse.getMetadata() != null ? tikaResponse.getMetadata().getUsedOcrFallback() : false);
+        } else {
+            log.error("Tika extraction failed for document: {}", documentResponse.getDocumentId());
         }
+        return tikaResponse;
+    }
+
+    /**
+     * Engine whose bulkhead a streaming extraction of this document must hold
+     */
+    public ConversionEngine streamingEngine(DocumentResponse documentResponse) {
+        return processingStrategy.determineProcessingStrategy(documentResponse.getMimeType()) == ProcessingStrategy.OCR
+                ? ConversionEngine.OCR : ConversionEngine.TEXT;
     }
 
+    /**
+     * Stream extracted text straight to the given output as the parser produces it
+     * Nothing beyond the current SAX chunk (TEXT) or page/section (NDJSON) is held in memory,
+     * so heap use stays flat regardless of document size
+     */
+    public void streamText(DocumentResponse documentResponse, FetchedMedia media, OutputStream outputStream,
+                           TextStreamFormat format) throws IOException, SAXException, TikaException {
+        long startTime = System.currentTimeMillis();
+        String mimeType = documentResponse.getMimeType().split(";")[0].trim().toLowerCase();
+        DocumentProcessingStrategy.Route route = determineRoute(documentResponse, mimeType);
+        boolean ocr = route.strategy() == ProcessingStrategy.OCR;
+        String strategy = route.strategy().getValue();
+
+        log.info("Streaming document: {} (MIME: {}, Strategy: {}, Format: {})",
+                documentResponse.getDocumentId(), mimeType, strategy, format);
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        ContentHandler handler = format == TextStreamFormat.NDJSON
+                ? new NdjsonSectionContentHandler(writer, objectMapper, streamSectionChars)
+                : new BodyContentHandler(new WriteOutContentHandler(writer, streamWriteLimit));
+
+        // Always type-detected: text already sent to the client cannot be taken back to re-parse a mislabeled file
+        try (InputStream inputStream = media.openStream()) {
+            ParseOutcome outcome = parseWithinBudget(ocr ? ConversionStage.OCR : ConversionStage.TIKA_PARSE,
+                    documentResponse, strategy, handler, budgetHandler -> parse(inputStream, budgetHandler,
+                            new Metadata(), parseContext(route), null, mimeType));
+            if (outcome == ParseOutcome.BUDGET_EXPIRED) {
+                log.warn("Streaming of document: {} stopped at time budget", documentResponse.getDocumentId());
+            } else if (outcome == ParseOutcome.WRITE_LIMIT_REACHED) {
+                log.warn("Stream write limit of {} chars reached for document: {}", streamWriteLimit,
+                        documentResponse.getDocumentId());
+            }
+        }
+        writer.flush();
+
+        log.info("Streaming completed for document: {} - Processing time: {}ms",
+                documentResponse.getDocumentId(), System.currentTimeMillis() - startTime);
+    }
 
     /**
      * Extract text from document using optimized processing with smart routing
      * Always uses the most efficient processing strategy based on content type
      */
-    private ConversionResponse extractText(InputStream inputStream, DocumentResponse documentResponse) {
+    private ConversionResponse extractText(FetchedMedia media, DocumentResponse documentResponse) {
         long startTime = System.currentTimeMillis();
         String mimeType = documentResponse.getMimeType().split(";")[0].trim().toLowerCase();
-        String strategy = processingStrategy.determineProcessingStrategy(mimeType);
+        DocumentProcessingStrategy.Route route = determineRoute(documentResponse, mimeType);
 
-        log.info("Processing document: {} (MIME: {}, Strategy: {})",
-                documentResponse.getDocumentId(), mimeType, strategy);
+        log.info("Processing document: {} (MIME: {}, Strategy: {}, OCR: {}, Skip embedded: {})",
+                documentResponse.getDocumentId(), mimeType, route.strategy().getValue(), route.ocrPolicy(),
+                route.skipEmbedded());
 
         try {
-            ConversionResponse response = switch (strategy) {
-                case ApplicationConstants.PROCESSING_TEXT_ONLY ->
-                    extractTextOnly(inputStream, documentResponse, startTime);
-                case ApplicationConstants.PROCESSING_OCR ->
-                    extractWithOcr(inputStream, documentResponse, startTime);
-                default ->
-                    throw new IllegalArgumentException("Unsupported processing strategy: " + strategy);
+            ConversionResponse response = switch (route.strategy()) {
+                case TEXT_ONLY ->
+                    extractTextOnly(media, documentResponse, route, startTime);
+                case OCR ->
+                    processingStrategy.isPdfDocument(mimeType) && tikaOcrConfig.isPageParallelEnabled()
+                            && !forkedParser.isEnabled()
+                            ? extractPdfWithPageOcr(media, documentResponse, route, startTime)
+                            : extractWithOcr(media, documentResponse, route, startTime);
             };
 
             log.info("Extraction completed for document: {} - Text length: {}, Processing time: {}ms",
@@ -100,6 +215,8 @@ public class TikaTextExtractor {
 
             return response;
 
+        } catch (BulkheadFullException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Unexpected error during extraction for document {}: {}",
                     documentResponse.getDocumentId(), e.getMessage(), e);
@@ -112,19 +229,21 @@ public class TikaTextExtractor {
      * Extract text only (no OCR) - optimized for text-based documents
      * Uses textOnlyParseContext bean for optimal performance
      */
-    private ConversionResponse extractTextOnly(InputStream inputStream, DocumentResponse documentResponse, long startTime)
+    private ConversionResponse extractTextOnly(FetchedMedia media, DocumentResponse documentResponse,
+                                              DocumentProcessingStrategy.Route route, long startTime)
             throws IOException, SAXException, TikaException {
 
-        Metadata metadata = new Metadata();
-        BodyContentHandler handler = new BodyContentHandler(writeLimit);
-
-        autoDetectParser.parse(inputStream, handler, metadata, textOnlyParseContext);
-        String extractedText = handler.toString();
+        ParsedText parsed;
+        try (Bulkhead.Permit permit = bulkheads.acquire(ConversionEngine.TEXT)) {
+            parsed = parseMedia(ConversionStage.TIKA_PARSE, documentResponse, route, media);
+        }
+        String extractedText = parsed.text();
 
         // Build simplified metadata for text-only processing
         ConversionMetadata conversionMetadata = ConversionMetadata.builder()
                 .usedOcrFallback(false)
-                .processingNotes("Text extraction only (no OCR)")
+                .processingNotes(processingNotes("Text extraction only (no OCR)", parsed, route))
+                .truncated(parsed.truncated())
                 .build();
 
         return ConversionResponse.builder()
@@ -141,19 +260,21 @@ public class TikaTextExtractor {
      * Extract with OCR and Google Vision fallback for images and image-based PDFs
      * Always tries Google Vision if Tika OCR confidence is below threshold
      */
-    private ConversionResponse extractWithOcr(InputStream inputStream, DocumentResponse documentResponse, long startTime)
+    private ConversionResponse extractWithOcr(FetchedMedia media, DocumentResponse documentResponse,
+                                             DocumentProcessingStrategy.Route route, long startTime)
             throws IOException, SAXException, TikaException {
 
-        Metadata metadata = new Metadata();
-        BodyContentHandler handler = new BodyContentHandler(writeLimit);
-
         // Try Tika OCR first
-        autoDetectParser.parse(inputStream, handler, metadata, ocrEnabledContext);
-        String extractedText = handler.toString();
+        ParsedText parsed;
+        try (Bulkhead.Permit permit = bulkheads.acquire(ConversionEngine.OCR)) {
+            parsed = parseMedia(ConversionStage.OCR, documentResponse, route, media);
+        }
+        String extractedText = parsed.text();
         // Build metadata for Tika OCR result
         ConversionMetadata conversionMetadata = ConversionMetadata.builder()
                 .usedOcrFallback(true)
-                .processingNotes("OCR processing with Tika")
+                .processingNotes(processingNotes("OCR processing with Tika", parsed, route))
+                .truncated(parsed.truncated())
                 .build();
 
         return ConversionResponse.builder()
@@ -166,6 +287,295 @@ public class TikaTextExtractor {
                 .build();
     }
 
+    /**
+     * Extract a PDF page by page, OCRing pages in parallel
+     * With text-layer detection enabled and the TEXT_LAYER_FIRST policy only pages without a usable
+     * text layer are OCRed; the remaining pages keep their embedded text
+     */
+    private ConversionResponse extractPdfWithPageOcr(FetchedMedia media, DocumentResponse documentResponse,
+                                                     DocumentProcessingStrategy.Route route, long startTime)
+            throws IOException {
+
+        List<String> pageTexts = new ArrayList<>();
+        List<PageOcrDecision> decisions = null;
+        int pageCount;
+        int ocrPageCount;
+        boolean truncated = false;
+
+        try (PDDocument document = pdfOcrEngine.load(media)) {
+            pageCount = document.getNumberOfPages();
+            if (route.ocrPolicy() == OcrPolicy.TEXT_LAYER_FIRST && tikaOcrConfig.isTextLayerDetectionEnabled()) {
+                List<PdfTextLayerAnalyzer.PageTextLayer> pages;
+                try (Bulkhead.Permit permit = bulkheads.acquire(ConversionEngine.TEXT);
+                     ConversionMetrics.StageTimer timer = conversionMetrics.startStage(ConversionStage.TIKA_PARSE,
+                             documentResponse, ApplicationConstants.PROCESSING_OCR)) {
+                    pages = textLayerAnalyzer.analyze(document);
+                    timer.success();
+                }
+                List<Integer> ocrPageIndexes = pages.stream()
+                        .filter(page -> page.decision().isOcrApplied())
+                        .map(PdfTextLayerAnalyzer.PageTextLayer::pageIndex)
+                        .toList();
+                Map<Integer, String> ocrText = Map.of();
+                if (!ocrPageIndexes.isEmpty()) {
+                    // The text permit is released first so pages waiting for OCR never hold up text-only work
+                    try (Bulkhead.Permit permit = bulkheads.acquire(ConversionEngine.OCR);
+                         ConversionMetrics.StageTimer timer = conversionMetrics.startStage(ConversionStage.OCR,
+                                 documentResponse, ApplicationConstants.PROCESSING_OCR)) {
+                        ocrText = pdfOcrEngine.ocrPages(document, ocrPageIndexes);
+                        timer.success();
+                    } catch (IOException e) {
+                        // Out of time: keep the text layer of every page rather than failing the document
+                        if (!ConversionWatchdog.currentBudget().isExpired()) {
+                            throw e;
+                        }
+                        truncated = true;
+                    }
+                }
+
+                decisions = new ArrayList<>(pageCount);
+                for (PdfTextLayerAnalyzer.PageTextLayer page : pages) {
+                    pageTexts.add(ocrText.getOrDefault(page.pageIndex(), page.text()).trim());
+                    decisions.add(page.decision());
+                }
+                ocrPageCount = ocrPageIndexes.size();
+            } else {
+                try (Bulkhead.Permit permit = bulkheads.acquire(ConversionEngine.OCR);
+                     ConversionMetrics.StageTimer timer = conversionMetrics.startStage(ConversionStage.OCR,
+                             documentResponse, ApplicationConstants.PROCESSING_OCR)) {
+                    pageTexts.add(pdfOcrEngine.ocrAllPages(document));
+                    timer.success();
+                } catch (IOException e) {
+                    if (!ConversionWatchdog.currentBudget().isExpired()) {
+                        throw e;
+                    }
+                    truncated = true;
+                }
+                ocrPageCount = pageCount;
+            }
+        }
+
+        String extractedText = pageTexts.stream()
+                .filter(text -> !text.isEmpty())
+                .collect(Collectors.joining("\n\n"));
+        // Text is assembled outside a BodyContentHandler, so the route's write limit is applied here
+        boolean writeLimitReached = route.writeLimit() >= 0 && extractedText.length() > route.writeLimit();
+        if (writeLimitReached) {
+            extractedText = extractedText.substring(0, route.writeLimit());
+            log.warn("Write limit of {} chars reached for document: {}", route.writeLimit(),
+                    documentResponse.getDocumentId());
+        }
+
+        log.info("PDF {} extracted page by page - Pages: {}, OCR pages: {}",
+                documentResponse.getDocumentId(), pageCount, ocrPageCount);
+
+        String processingNotes = truncated
+                ? "Page OCR stopped at time budget, text layer used for all " + pageCount + " pages"
+                : ocrPageCount > 0
+                ? "Page-parallel OCR of " + ocrPageCount + " of " + pageCount + " pages"
+                : "Text layer used for all " + pageCount + " pages (no OCR)";
+        ConversionMetadata conversionMetadata = ConversionMetadata.builder()
+                .usedOcrFallback(ocrPageCount > 0)
+                .processingNotes(writeLimitReached
+                        ? processingNotes + ", cut at write limit of " + route.writeLimit() + " chars"
+                        : processingNotes)
+                .pageCount(pageCount)
+                .ocrPageCount(ocrPageCount)
+                .pageDecisions(decisions)
+                .truncated(truncated || writeLimitReached)
+                .build();
+
+        return ConversionResponse.builder()
+                .documentId(documentResponse.getDocumentId())
+                .extractedText(extractedText)
+                .status(ApplicationConstants.CONVERSION_SUCCESS)
+                .conversionMethod(ApplicationConstants.METHOD_TIKA)
+                .metadata(conversionMetadata)
+                .processingTimeMs(System.currentTimeMillis() - startTime)
+                .build();
+    }
+
+    /**
+     * Look up the route for a MIME type, timed as the MIME detection stage
+     */
+    private DocumentProcessingStrategy.Route determineRoute(DocumentResponse documentResponse, String mimeType) {
+        try (ConversionMetrics.StageTimer timer =
+                     conversionMetrics.startStage(ConversionStage.MIME_DETECTION, documentResponse, null)) {
+            DocumentProcessingStrategy.Route route = processingStrategy.route(mimeType);
+            timer.success();
+            return route;
+        }
+    }
+
+    /**
+     * Parse context for a route: OCR or text only, with or without embedded documents
+     */
+    private ParseContext parseContext(DocumentProcessingStrategy.Route route) {
+        if (route.strategy() == ProcessingStrategy.OCR) {
+            return route.skipEmbedded() ? ocrSkipEmbeddedContext : ocrEnabledContext;
+        }
+        return route.skipEmbedded() ? textOnlySkipEmbeddedContext : textOnlyParseContext;
+    }
+
+    /**
+     * Copy of a parse context's OCR and PDF settings
+     * In-process, embedded documents are detected by the shared AutoDetectParser, as AutoDetectParser places
+     * itself in the context; forked parses leave it out since the context is sent to the worker JVM
+     * @param skipEmbedded whether parsers ignore attachments, embedded files and inline images
+     */
+    private ParseContext copyContext(ParseContext base, boolean skipEmbedded) {
+        ParseContext context = new ParseContext();
+        context.set(TesseractOCRConfig.class, base.get(TesseractOCRConfig.class));
+        context.set(PDFParserConfig.class, base.get(PDFParserConfig.class));
+        if (skipEmbedded) {
+            context.set(EmbeddedDocumentExtractor.class, new SkipEmbeddedDocumentExtractor());
+        }
+        if (!forkedParser.isEnabled()) {
+            context.set(Parser.class, sharedParser.parser());
+        }
+        return context;
+    }
+
+    /**
+     * Processing notes of a buffered parse, saying why it stopped early if it did
+     */
+    private static String processingNotes(String notes, ParsedText parsed, DocumentProcessingStrategy.Route route) {
+        return switch (parsed.outcome()) {
+            case COMPLETE -> notes;
+            case BUDGET_EXPIRED -> notes + ", stopped at time budget";
+            case WRITE_LIMIT_REACHED -> notes + ", cut at write limit of " + route.writeLimit() + " chars";
+        };
+    }
+
+    /**
+     * How a parse ended
+     */
+    private enum ParseOutcome {
+        COMPLETE,
+        /** The conversion's time budget ran out */
+        BUDGET_EXPIRED,
+        /** The handler's write limit was reached */
+        WRITE_LIMIT_REACHED
+    }
+
+    /**
+     * Text of a fully buffered parse
+     * @param outcome how the parse ended; the text is what was produced until then
+     */
+    private record ParsedText(String text, ParseOutcome outcome) {
+
+        boolean truncated() {
+            return outcome != ParseOutcome.COMPLETE;
+        }
+    }
+
+    /**
+     * One way of parsing a stream into a handler
+     */
+    @FunctionalInterface
+    private interface ParseCall {
+        void parse(ContentHandler handler) throws IOException, SAXException, TikaException;
+    }
+
+    /**
+     * Parse a fetched document, dispatching known types straight to their parser
+     * Plain text, CSV, JSON and XML are read by the fast-path extractors without Tika. Content the fast
+     * path or the parser for its declared type rejects is parsed again from the start with type detection,
+     * so a mislabeled file still converts; encrypted documents and zip bombs are not parsed twice
+     */
+    private ParsedText parseMedia(ConversionStage stage, DocumentResponse documentResponse,
+                                  DocumentProcessingStrategy.Route route, FetchedMedia media)
+            throws IOException, SAXException, TikaException {
+        String strategy = route.strategy().getValue();
+        ParseContext context = parseContext(route);
+
+        FastPathExtractor fastPath = fastPathExtractors.extractorFor(route);
+        if (fastPath != null) {
+            BodyContentHandler handler = new BodyContentHandler(route.writeLimit());
+            try (InputStream inputStream = media.openStream()) {
+                ParseOutcome outcome = parseWithinBudget(stage, documentResponse, strategy, handler,
+                        budgetHandler -> fastPath.extract(inputStream, budgetHandler));
+                return new ParsedText(handler.toString(), outcome);
+            } catch (IOException e) {
+                log.warn("Fast-path extraction of document {} as {} failed, parsing with Tika instead: {}",
+                        documentResponse.getDocumentId(), route.mimeType(), e.getMessage());
+                fastPathExtractors.recordFallback(route.mimeType());
+            }
+        }
+
+        Parser directParser = forkedParser.isEnabled() ? null : directParsers.parserFor(route);
+        if (directParser != null) {
+            BodyContentHandler handler = new BodyContentHandler(route.writeLimit());
+            try (InputStream inputStream = media.openStream()) {
+                ParseOutcome outcome = parseWithinBudget(stage, documentResponse, strategy, handler,
+                        budgetHandler -> parse(inputStream, budgetHandler, new Metadata(), context, directParser,
+                                route.mimeType()));
+                return new ParsedText(handler.toString(), outcome);
+            } catch (IOException | TikaException e) {
+                if (!DirectParserRegistry.isFallbackCandidate(e)) {
+                    throw e;
+                }
+                log.warn("{} rejected document {} declared as {}, detecting its type instead: {}",
+                        directParser.getClass().getSimpleName(), documentResponse.getDocumentId(),
+                        route.mimeType(), e.getMessage());
+                directParsers.recordFallback(route.mimeType());
+            }
+        }
+
+        BodyContentHandler handler = new BodyContentHandler(route.writeLimit());
+        try (InputStream inputStream = media.openStream()) {
+            ParseOutcome outcome = parseWithinBudget(stage, documentResponse, strategy, handler,
+                    budgetHandler -> parse(inputStream, budgetHandler, new Metadata(), context, null, route.mimeType()));
+            return new ParsedText(handler.toString(), outcome);
+        }
+    }
+
+    /**
+     * Parse until done, until the handler's write limit is reached or until the conversion's time budget runs out
+     * @param stage stage the parse is recorded as, OCR when the context runs Tesseract
+     * @param parseCall parse into the given handler, which enforces the budget
+     * @return how the parse ended; when stopped early the handler holds the text produced so far
+     */
+    private ParseOutcome parseWithinBudget(ConversionStage stage, DocumentResponse documentResponse, String strategy,
+                                      ContentHandler handler, ParseCall parseCall)
+            throws IOException, SAXException, TikaException {
+        ConversionBudget budget = ConversionWatchdog.currentBudget();
+        try (ConversionMetrics.StageTimer timer = conversionMetrics.startStage(stage, documentResponse, strategy)) {
+            try {
+                parseCall.parse(budget == ConversionBudget.UNBOUNDED ? handler : new BudgetContentHandler(handler, budget));
+                timer.success();
+                return ParseOutcome.COMPLETE;
+            } catch (IOException | SAXException | TikaException e) {
+                if (WriteLimitReachedException.isWriteLimitReached(e)) {
+                    timer.outcome(ConversionMetrics.OUTCOME_TRUNCATED);
+                    return ParseOutcome.WRITE_LIMIT_REACHED;
+                }
+                if (!budget.isExpired()) {
+                    throw e;
+                }
+                timer.outcome(ConversionMetrics.OUTCOME_TRUNCATED);
+                log.warn("Parse stopped after {} budget was exceeded: {}", budget.getExpiredReason(), e.getMessage());
+                return ParseOutcome.BUDGET_EXPIRED;
+            }
+        }
+    }
+
+    /**
+     * Parse in a forked worker when isolation is enabled, otherwise with the parser for the declared type
+     * or the shared in-process AutoDetectParser
+     * @param directParser parser for the declared type, or null to detect the type
+     */
+    private void parse(InputStream inputStream, ContentHandler handler, Metadata metadata, ParseContext context,
+                       Parser directParser, String mimeType) throws IOException, SAXException, TikaException {
+        if (forkedParser.isEnabled()) {
+            forkedParser.parse(inputStream, handler, metadata, context);
+        } else if (directParser != null) {
+            directParsers.parse(directParser, mimeType, inputStream, handler, metadata, context);
+        } else {
+            sharedParser.parse(inputStream, handler, metadata, context);
+        }
+    }
+
     /**
      * Build error response for extraction failures
      */
@@ -1,12 +1,17 @@
 package org.zendly.mediaconversionservice.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.zendly.mediaconversionservice.client.WorkflowOrchestratorClient;
+import org.zendly.mediaconversionservice.config.DocumentCacheConfig;
+import org.zendly.mediaconversionservice.context.TenantContextHolder;
 import org.zendly.mediaconversionservice.dto.DocumentResponse;
 import org.zendly.mediaconversionservice.dto.DocumentType;
 import org.zendly.mediaconversionservice.dto.TenantResponse;
 import org.zendly.mediaconversionservice.exception.WorkflowOrchestratorException;
+import org.zendly.mediaconversionservice.metrics.ConversionMetrics;
+import org.zendly.mediaconversionservice.metrics.ConversionStage;
 
 import java.util.List;
 import java.util.Map;
@@ -20,23 +25,37 @@ import java.util.Map;
 public class WorkflowOrchestratorService {
 
     private final WorkflowOrchestratorClient workflowOrchestratorClient;
+    private final Cache<String, DocumentResponse> documentMetadataCache;
+    private final DocumentCacheConfig documentCacheConfig;
+    private final ConversionMetrics conversionMetrics;
 
-    public WorkflowOrchestratorService(WorkflowOrchestratorClient workflowOrchestratorClient) {
+    public WorkflowOrchestratorService(WorkflowOrchestratorClient workflowOrchestratorClient,
+                                       Cache<String, DocumentResponse> documentMetadataCache,
+                                       DocumentCacheConfig documentCacheConfig,
+                                       ConversionMetrics conversionMetrics) {
         this.workflowOrchestratorClient = workflowOrchestratorClient;
+        this.documentMetadataCache = documentMetadataCache;
+        this.documentCacheConfig = documentCacheConfig;
+        this.conversionMetrics = conversionMetrics;
     }
 
     /**
-     * Create a document in GCP cloud store via workflow orchestrator
-     * @return The document creation response with upload URL
+     * Get document metadata from GCP cloud store via workflow orchestrator
+     * Served from the metadata cache while the download URL is still valid; concurrent
+     * lookups for the same document share a single orchestrator call
+     * @return The document response with download URL
      */
     public DocumentResponse getDocument(String documentId) throws WorkflowOrchestratorException {
         if (documentId == null) {
             throw new IllegalArgumentException("CreateDocumentRequest cannot be null");
         }
-        try {
+        try (ConversionMetrics.StageTimer timer = conversionMetrics.startStage(ConversionStage.ORCHESTRATOR_FETCH, null, null)) {
             log.info("Getting document: {}", documentId);
-            DocumentResponse document = workflowOrchestratorClient.getDocument(documentId);
+            DocumentResponse document = documentCacheConfig.isEnabled()
+                    ? documentMetadataCache.get(documentCacheKey(documentId), key -> workflowOrchestratorClient.getDocument(documentId))
+                    : workflowOrchestratorClient.getDocument(documentId);
             log.info("Successfully got document with ID: {}",documentId);
+            timer.success();
             return document;
         }catch (Exception e) {
             log.error("Unexpected error getting document {}: {}", documentId, e.getMessage(), e);
@@ -44,6 +63,13 @@ public class WorkflowOrchestratorService {
         }
     }
 
+    /**
+     * Document metadata is tenant-scoped, so the cache key includes the current tenant
+     */
+    private String documentCacheKey(String documentId) {
+        return TenantContextHolder.getCurrentTenantId() + ":" + documentId;
+    }
+
     /**
      * Get tenant information by tenant ID
      * @param tenantId The tenant ID
@@ -0,0 +1,74 @@
+package org.zendly.mediaconversionservice.audio;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SilenceSegmenterTest {
+
+    private static final int FRAME_BYTES = TestWavs.SAMPLE_RATE * SilenceSegmenter.FRAME_MS / 1000 * 2;
+
+    @Test
+    void segmentsEndInThePauseNearTheTargetLength() throws Exception {
+        byte[] wav = TestWavs.wav(TestWavs.toneWithSilences(25_000, 9_000, 9_200, 17_500, 17_700));
+
+        List<SilenceSegmenter.Segment> segments = segment(new SilenceSegmenter(10_000, 1_000, 2_000), wav);
+
+        // Cut before the last silent frame of each pause, the next segment starting one overlap earlier
+        assertEquals(List.of(0L, 8_180L, 16_680L), segments.stream().map(SilenceSegmenter.Segment::startMs).toList());
+        assertEquals(9_180, endMs(segments.get(0)));
+        assertEquals(17_680, endMs(segments.get(1)));
+        assertEquals(wav.length, segments.get(2).offset() + segments.get(2).length());
+    }
+
+    @Test
+    void evenEnergySegmentsKeepTheirFullLength() throws Exception {
+        byte[] wav = TestWavs.wav(TestWavs.toneWithSilences(25_000, 0, 25_000));
+
+        List<SilenceSegmenter.Segment> segments = segment(new SilenceSegmenter(10_000, 1_000, 2_000), wav);
+
+        assertEquals(List.of(0L, 9_000L, 18_000L), segments.stream().map(SilenceSegmenter.Segment::startMs).toList());
+        assertEquals(10_000, endMs(segments.get(0)));
+        assertEquals(19_000, endMs(segments.get(1)));
+    }
+
+    @Test
+    void shortRecordingIsOneSegment() throws Exception {
+        byte[] wav = TestWavs.wav(TestWavs.toneWithSilences(4_010));
+
+        List<SilenceSegmenter.Segment> segments = segment(new SilenceSegmenter(10_000, 1_000, 2_000), wav);
+
+        assertEquals(List.of(new SilenceSegmenter.Segment(44, wav.length - 44, 0)), segments);
+    }
+
+    @Test
+    void segmentsCoverTheWholeRecordingInWholeSampleFrames() throws Exception {
+        byte[] wav = TestWavs.wav(TestWavs.toneWithSilences(61_337, 5_000, 5_100, 31_000, 33_000, 47_250, 47_400));
+
+        List<SilenceSegmenter.Segment> segments = segment(new SilenceSegmenter(15_000, 1_500, 3_000), wav);
+
+        long covered = 44;
+        for (SilenceSegmenter.Segment segment : segments) {
+            assertEquals(0, segment.length() % 2);
+            assertTrue(segment.offset() <= covered, "gap before " + segment);
+            covered = segment.offset() + segment.length();
+        }
+        assertEquals(wav.length, covered);
+    }
+
+    private static List<SilenceSegmenter.Segment> segment(SilenceSegmenter segmenter, byte[] wav) throws IOException {
+        WavFormat format = WavFormat.parse(new ByteArrayInputStream(wav), wav.length).orElseThrow();
+        ByteArrayInputStream pcm = new ByteArrayInputStream(wav);
+        pcm.skipNBytes(format.dataOffset());
+        return segmenter.segment(pcm, format);
+    }
+
+    private static long endMs(SilenceSegmenter.Segment segment) {
+        return segment.startMs() + (long) segment.length() / FRAME_BYTES * SilenceSegmenter.FRAME_MS;
+    }
+}
@@ -0,0 +1,80 @@
+package org.zendly.mediaconversionservice.audio;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Builds small WAV files for the segmentation tests
+ */
+final class TestWavs {
+
+    static final int SAMPLE_RATE = 16000;
+
+    private TestWavs() {
+    }
+
+    /**
+     * 16 kHz mono 16-bit samples of a 440 Hz tone, with silence in the given millisecond ranges
+     * @param silences pairs of start and end positions
+     */
+    static short[] toneWithSilences(long durationMs, long... silences) {
+        short[] samples = new short[(int) (durationMs * SAMPLE_RATE / 1000)];
+        for (int i = 0; i < samples.length; i++) {
+            long ms = i * 1000L / SAMPLE_RATE;
+            boolean silent = false;
+            for (int s = 0; s + 1 < silences.length; s += 2) {
+                silent |= ms >= silences[s] && ms < silences[s + 1];
+            }
+            samples[i] = silent ? 0 : (short) (8000 * Math.sin(2 * Math.PI * 440 * i / SAMPLE_RATE));
+        }
+        return samples;
+    }
+
+    /**
+     * Mono 16-bit PCM WAV with a canonical 44-byte header
+     */
+    static byte[] wav(short[] samples) {
+        ByteBuffer pcm = ByteBuffer.allocate(samples.length * 2).order(ByteOrder.LITTLE_ENDIAN);
+        for (short sample : samples) {
+            pcm.putShort(sample);
+        }
+        return wav(1, 1, SAMPLE_RATE, 16, pcm.array(), pcm.capacity(), new byte[0]);
+    }
+
+    /**
+     * WAV with the given format fields and data, and any chunks placed between fmt and data
+     * @param declaredDataLength length written in the data chunk header, which may differ from the data
+     */
+    static byte[] wav(int audioFormat, int channels, int sampleRate, int bitsPerSample, byte[] data,
+                      long declaredDataLength, byte[] extraChunks) {
+        int blockAlign = channels * bitsPerSample / 8;
+        ByteBuffer header = ByteBuffer.allocate(36).order(ByteOrder.LITTLE_ENDIAN);
+        header.put(ascii("RIFF")).putInt(28 + extraChunks.length + 8 + data.length).put(ascii("WAVE"));
+        header.put(ascii("fmt ")).putInt(16).putShort((short) audioFormat).putShort((short) channels)
+                .putInt(sampleRate).putInt(sampleRate * blockAlign).putShort((short) blockAlign)
+                .putShort((short) bitsPerSample);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.writeBytes(header.array());
+        out.writeBytes(extraChunks);
+        out.writeBytes(ascii("data"));
+        out.writeBytes(ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt((int) declaredDataLength).array());
+        out.writeBytes(data);
+        return out.toByteArray();
+    }
+
+    /**
+     * A chunk of another type, with the pad byte RIFF requires after odd sizes
+     */
+    static byte[] chunk(String id, int size) {
+        ByteBuffer chunk = ByteBuffer.allocate(8 + size + (size & 1)).order(ByteOrder.LITTLE_ENDIAN);
+        chunk.put(ascii(id)).putInt(size);
+        return chunk.array();
+    }
+
+    private static byte[] ascii(String tag) {
+        return tag.getBytes(StandardCharsets.US_ASCII);
+    }
+}
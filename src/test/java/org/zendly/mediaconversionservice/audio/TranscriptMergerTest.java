@@ -0,0 +1,39 @@
+package org.zendly.mediaconversionservice.audio;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TranscriptMergerTest {
+
+    @Test
+    void wordsHeardOnBothSidesOfABoundaryAreKeptOnce() {
+        assertEquals("the quick brown fox jumps over the lazy dog",
+                TranscriptMerger.merge(List.of("the quick brown fox", "brown fox jumps over", "jumps over the lazy dog")));
+    }
+
+    @Test
+    void caseAndPunctuationAreIgnoredWhenMatching() {
+        assertEquals("Thanks for calling, Acme support. how can I help",
+                TranscriptMerger.merge(List.of("Thanks for calling, Acme support.", "acme Support how can I help")));
+    }
+
+    @Test
+    void longestOverlapWins() {
+        assertEquals("a b a b c", TranscriptMerger.merge(List.of("a b a b", "a b a b c")));
+    }
+
+    @Test
+    void segmentsWithoutOverlapAreJoined() {
+        assertEquals("first part second part", TranscriptMerger.merge(List.of("first part", "second part")));
+    }
+
+    @Test
+    void emptySegmentsAreSkipped() {
+        assertEquals("one two three", TranscriptMerger.merge(Arrays.asList("  one   two ", null, "", " ", "two three")));
+        assertEquals("", TranscriptMerger.merge(List.of()));
+    }
+}
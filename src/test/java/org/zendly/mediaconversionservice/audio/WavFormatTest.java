@@ -0,0 +1,77 @@
+package org.zendly.mediaconversionservice.audio;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WavFormatTest {
+
+    @Test
+    void canonicalHeader() throws Exception {
+        byte[] wav = TestWavs.wav(new short[TestWavs.SAMPLE_RATE * 3]);
+
+        WavFormat format = parse(wav).orElseThrow();
+
+        assertEquals(new WavFormat(1, 16000, 16, 2, 44, 96000), format);
+        assertTrue(format.isPcm16());
+        assertEquals(3000, format.durationMs());
+    }
+
+    @Test
+    void chunksBeforeDataAreSkippedWithTheirPadByte() throws Exception {
+        byte[] extra = concat(TestWavs.chunk("LIST", 27), TestWavs.chunk("fact", 4));
+        byte[] wav = TestWavs.wav(1, 2, 44100, 16, new byte[4 * 100], 400, extra);
+
+        WavFormat format = parse(wav).orElseThrow();
+
+        assertEquals(44 + 8 + 28 + 8 + 4, format.dataOffset());
+        assertEquals(400, format.dataLength());
+        assertEquals(4, format.blockAlign());
+        assertTrue(format.isPcm16());
+    }
+
+    @Test
+    void unsetDataLengthUsesTheFileSize() throws Exception {
+        for (long declared : new long[]{0, 0xFFFFFFFFL, 1_000_000}) {
+            // Streamed WAVs leave the length unset or wrong; the partial last sample frame is dropped
+            byte[] wav = TestWavs.wav(1, 1, 16000, 16, new byte[1001], declared, new byte[0]);
+
+            assertEquals(1000, parse(wav).orElseThrow().dataLength(), "declared " + declared);
+        }
+    }
+
+    @Test
+    void otherLayoutsAreNotPcm16() throws Exception {
+        byte[] wav = TestWavs.wav(1, 1, 8000, 8, new byte[800], 800, new byte[0]);
+
+        WavFormat format = parse(wav).orElseThrow();
+
+        assertFalse(format.isPcm16());
+        assertEquals(100, format.durationMs());
+    }
+
+    @Test
+    void compressedOrForeignContentIsRejected() throws Exception {
+        int ieeeFloat = 3;
+        assertFalse(parse(TestWavs.wav(ieeeFloat, 1, 16000, 32, new byte[400], 400, new byte[0])).isPresent());
+        assertFalse(parse("ID3 not a wav file at all".getBytes()).isPresent());
+        assertFalse(parse(Arrays.copyOf(TestWavs.wav(new short[100]), 30)).isPresent());
+    }
+
+    private static Optional<WavFormat> parse(byte[] wav) throws IOException {
+        return WavFormat.parse(new ByteArrayInputStream(wav), wav.length);
+    }
+
+    private static byte[] concat(byte[] first, byte[] second) {
+        byte[] joined = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, joined, first.length, second.length);
+        return joined;
+    }
+}
@@ -0,0 +1,116 @@
+package org.zendly.mediaconversionservice.client;
+
+import com.google.api.gax.core.NoCredentialsProvider;
+import com.google.api.gax.grpc.GrpcTransportChannel;
+import com.google.api.gax.rpc.FixedTransportChannelProvider;
+import com.google.cloud.vision.v1.AnnotateImageRequest;
+import com.google.cloud.vision.v1.AnnotateImageResponse;
+import com.google.cloud.vision.v1.BatchAnnotateImagesRequest;
+import com.google.cloud.vision.v1.BatchAnnotateImagesResponse;
+import com.google.cloud.vision.v1.ImageAnnotatorClient;
+import com.google.cloud.vision.v1.ImageAnnotatorSettings;
+import com.google.cloud.vision.v1.TextAnnotation;
+import io.grpc.ManagedChannel;
+import io.grpc.MethodDescriptor;
+import io.grpc.Server;
+import io.grpc.ServerServiceDefinition;
+import io.grpc.Status;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.protobuf.ProtoUtils;
+import io.grpc.stub.ServerCalls;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-process gRPC server standing in for the Vision ImageAnnotator
+ * Answers batchAnnotateImages with one response per image whose text is the image content, and records
+ * every batch it receives
+ */
+class FakeVisionServer implements AutoCloseable {
+
+    private static final String SERVICE = "google.cloud.vision.v1.ImageAnnotator";
+
+    private static final MethodDescriptor<BatchAnnotateImagesRequest, BatchAnnotateImagesResponse> BATCH_ANNOTATE =
+            MethodDescriptor.<BatchAnnotateImagesRequest, BatchAnnotateImagesResponse>newBuilder()
+                    .setType(MethodDescriptor.MethodType.UNARY)
+                    .setFullMethodName(MethodDescriptor.generateFullMethodName(SERVICE, "BatchAnnotateImages"))
+                    .setRequestMarshaller(ProtoUtils.marshaller(BatchAnnotateImagesRequest.getDefaultInstance()))
+                    .setResponseMarshaller(ProtoUtils.marshaller(BatchAnnotateImagesResponse.getDefaultInstance()))
+                    .build();
+
+    private final List<BatchAnnotateImagesRequest> batches = new CopyOnWriteArrayList<>();
+    private final Server server;
+    private final ManagedChannel channel;
+    private final ImageAnnotatorClient client;
+
+    private volatile int missingResponses;
+    private volatile Status failure;
+
+    FakeVisionServer() throws IOException {
+        String name = InProcessServerBuilder.generateName();
+        ServerServiceDefinition service = ServerServiceDefinition.builder(SERVICE)
+                .addMethod(BATCH_ANNOTATE, ServerCalls.asyncUnaryCall((request, observer) -> {
+                    batches.add(request);
+                    if (failure != null) {
+                        observer.onError(failure.asRuntimeException());
+                        return;
+                    }
+                    BatchAnnotateImagesResponse.Builder response = BatchAnnotateImagesResponse.newBuilder();
+                    int answered = Math.max(0, request.getRequestsCount() - missingResponses);
+                    for (AnnotateImageRequest image : request.getRequestsList().subList(0, answered)) {
+                        response.addResponses(response(image.getImage().getContent().toStringUtf8()));
+                    }
+                    observer.onNext(response.build());
+                    observer.onCompleted();
+                }))
+                .build();
+        this.server = InProcessServerBuilder.forName(name).directExecutor().addService(service).build().start();
+        this.channel = InProcessChannelBuilder.forName(name).directExecutor().build();
+        this.client = ImageAnnotatorClient.create(ImageAnnotatorSettings.newBuilder()
+                .setCredentialsProvider(NoCredentialsProvider.create())
+                .setTransportChannelProvider(FixedTransportChannelProvider.create(GrpcTransportChannel.create(channel)))
+                .build());
+    }
+
+    static AnnotateImageResponse response(String text) {
+        return AnnotateImageResponse.newBuilder()
+                .setFullTextAnnotation(TextAnnotation.newBuilder().setText(text))
+                .build();
+    }
+
+    ImageAnnotatorClient client() {
+        return client;
+    }
+
+    /**
+     * Batches received so far, in arrival order
+     */
+    List<BatchAnnotateImagesRequest> batches() {
+        return batches;
+    }
+
+    /**
+     * Leave the last images of each batch without a response
+     */
+    void dropResponses(int count) {
+        this.missingResponses = count;
+    }
+
+    /**
+     * Fail every call with this status
+     */
+    void fail(Status status) {
+        this.failure = status;
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        client.close();
+        channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        server.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,211 @@
+package org.zendly.mediaconversionservice.client;
+
+import com.google.cloud.vision.v1.AnnotateImageRequest;
+import com.google.cloud.vision.v1.AnnotateImageResponse;
+import com.google.cloud.vision.v1.BatchAnnotateImagesRequest;
+import com.google.cloud.vision.v1.Feature;
+import com.google.cloud.vision.v1.Image;
+import com.google.protobuf.ByteString;
+import io.grpc.Status;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.zendly.mediaconversionservice.config.GoogleVisionConfig;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VisionBatchClientTest {
+
+    private static final long TIMEOUT_SECONDS = 5;
+
+    private FakeVisionServer server;
+    private SimpleMeterRegistry meterRegistry;
+    private VisionBatchClient batchClient;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = new FakeVisionServer();
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (batchClient != null) {
+            batchClient.shutdown();
+        }
+        server.close();
+    }
+
+    @Test
+    void imagesWithinTheWindowShareOneCall() throws Exception {
+        batchClient = client(batch(500, 16, 1024 * 1024));
+
+        List<CompletableFuture<AnnotateImageResponse>> futures = annotate(3);
+
+        for (int i = 0; i < futures.size(); i++) {
+            assertEquals("image-" + i, text(futures.get(i)));
+        }
+        assertEquals(List.of(3), batchSizes());
+        assertEquals(1, meterRegistry.summary("vision.batch.size").count());
+    }
+
+    @Test
+    void windowSendsAPartialBatch() throws Exception {
+        batchClient = client(batch(20, 16, 1024 * 1024));
+
+        CompletableFuture<AnnotateImageResponse> future = batchClient.annotate(request("image-0", 0));
+
+        assertEquals("image-0", text(future));
+        assertEquals(List.of(1), batchSizes());
+    }
+
+    @Test
+    void fullBatchIsSentWithoutWaitingForTheWindow() throws Exception {
+        // A window far longer than the test timeout: only the size cap can send the first 16
+        batchClient = client(batch(60_000, 16, 1024 * 1024));
+
+        List<CompletableFuture<AnnotateImageResponse>> futures = annotate(20);
+
+        for (int i = 0; i < 16; i++) {
+            assertEquals("image-" + i, text(futures.get(i)));
+        }
+        assertEquals(List.of(16), batchSizes());
+
+        batchClient.shutdown();
+        for (int i = 16; i < 20; i++) {
+            assertEquals("image-" + i, text(futures.get(i)));
+        }
+        assertEquals(List.of(16, 4), batchSizes());
+    }
+
+    @Test
+    void batchIsSplitBeforeExceedingMaxBytes() throws Exception {
+        int imageBytes = 1000;
+        long requestSize = request("image-0", imageBytes).getSerializedSize();
+        // Room for two requests but not three
+        batchClient = client(batch(60_000, 16, requestSize * 2 + requestSize / 2));
+
+        List<CompletableFuture<AnnotateImageResponse>> futures = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            futures.add(batchClient.annotate(request("image-" + i, imageBytes)));
+        }
+        batchClient.shutdown();
+
+        for (CompletableFuture<AnnotateImageResponse> future : futures) {
+            future.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        }
+        assertEquals(List.of(2, 2, 1), batchSizes());
+        for (BatchAnnotateImagesRequest batch : server.batches()) {
+            assertTrue(batch.getSerializedSize() <= requestSize * 2 + requestSize / 2 + 16,
+                    "batch of " + batch.getSerializedSize() + " bytes");
+        }
+    }
+
+    @Test
+    void oversizedImageIsSentOnItsOwn() throws Exception {
+        batchClient = client(batch(60_000, 16, 100));
+
+        List<CompletableFuture<AnnotateImageResponse>> futures = new ArrayList<>();
+        futures.add(batchClient.annotate(request("small", 0)));
+        futures.add(batchClient.annotate(request("large", 1000)));
+        batchClient.shutdown();
+
+        for (CompletableFuture<AnnotateImageResponse> future : futures) {
+            future.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        }
+        assertEquals(List.of(1, 1), batchSizes());
+    }
+
+    @Test
+    void imagesWithoutAResponseFail() throws Exception {
+        server.dropResponses(1);
+        batchClient = client(batch(500, 3, 1024 * 1024));
+
+        List<CompletableFuture<AnnotateImageResponse>> futures = annotate(3);
+
+        assertEquals("image-0", text(futures.get(0)));
+        assertEquals("image-1", text(futures.get(1)));
+        ExecutionException failure = assertThrows(ExecutionException.class,
+                () -> futures.get(2).get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, failure.getCause());
+    }
+
+    @Test
+    void failedCallFailsEveryImageInTheBatch() throws Exception {
+        // Not a status the client retries
+        server.fail(Status.INVALID_ARGUMENT);
+        batchClient = client(batch(500, 2, 1024 * 1024));
+
+        List<CompletableFuture<AnnotateImageResponse>> futures = annotate(2);
+
+        for (CompletableFuture<AnnotateImageResponse> future : futures) {
+            assertThrows(ExecutionException.class, () -> future.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        }
+        assertEquals(List.of(2), batchSizes());
+    }
+
+    @Test
+    void disabledBatchingSendsOneCallPerImage() throws Exception {
+        GoogleVisionConfig.Batch batch = batch(500, 16, 1024 * 1024);
+        batch.setEnabled(false);
+        batchClient = client(batch);
+
+        List<CompletableFuture<AnnotateImageResponse>> futures = annotate(3);
+
+        for (int i = 0; i < futures.size(); i++) {
+            assertEquals("image-" + i, text(futures.get(i)));
+        }
+        assertEquals(List.of(1, 1, 1), batchSizes());
+    }
+
+    private VisionBatchClient client(GoogleVisionConfig.Batch batch) {
+        GoogleVisionConfig config = new GoogleVisionConfig();
+        config.setBatch(batch);
+        return new VisionBatchClient(server.client(), config, meterRegistry);
+    }
+
+    private static GoogleVisionConfig.Batch batch(long windowMs, int maxSize, long maxBytes) {
+        GoogleVisionConfig.Batch batch = new GoogleVisionConfig.Batch();
+        batch.setWindowMs(windowMs);
+        batch.setMaxSize(maxSize);
+        batch.setMaxBytes(maxBytes);
+        return batch;
+    }
+
+    private List<CompletableFuture<AnnotateImageResponse>> annotate(int count) {
+        List<CompletableFuture<AnnotateImageResponse>> futures = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            futures.add(batchClient.annotate(request("image-" + i, 0)));
+        }
+        return futures;
+    }
+
+    /**
+     * Request whose image content is the name, padded with spaces to at least the given size
+     */
+    private static AnnotateImageRequest request(String name, int size) {
+        String content = size > name.length() ? name + " ".repeat(size - name.length()) : name;
+        return AnnotateImageRequest.newBuilder()
+                .setImage(Image.newBuilder().setContent(ByteString.copyFromUtf8(content)))
+                .addFeatures(Feature.newBuilder().setType(Feature.Type.DOCUMENT_TEXT_DETECTION))
+                .build();
+    }
+
+    private static String text(CompletableFuture<AnnotateImageResponse> future) throws Exception {
+        return future.get(TIMEOUT_SECONDS, TimeUnit.SECONDS).getFullTextAnnotation().getText();
+    }
+
+    private List<Integer> batchSizes() {
+        return server.batches().stream().map(BatchAnnotateImagesRequest::getRequestsCount).toList();
+    }
+}
@@ -0,0 +1,105 @@
+package org.zendly.mediaconversionservice.concurrency;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.zendly.mediaconversionservice.exception.BulkheadFullException;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BulkheadTest {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void slotsUpToTheLimitAreGrantedImmediately() {
+        Bulkhead bulkhead = new Bulkhead(ConversionEngine.OCR, 2, 0, 0, 7);
+
+        Bulkhead.Permit first = bulkhead.acquire();
+        Bulkhead.Permit second = bulkhead.acquire();
+
+        assertEquals(2, bulkhead.getActiveCount());
+        first.close();
+        second.close();
+        assertEquals(0, bulkhead.getActiveCount());
+    }
+
+    @Test
+    void fullQueueIsRejectedWithoutWaiting() {
+        Bulkhead bulkhead = new Bulkhead(ConversionEngine.VISION, 1, 0, 10_000, 7);
+
+        try (Bulkhead.Permit ignored = bulkhead.acquire()) {
+            long start = System.nanoTime();
+            BulkheadFullException rejected = assertThrows(BulkheadFullException.class, bulkhead::acquire);
+
+            assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1), "rejection waited");
+            assertEquals(ConversionEngine.VISION, rejected.getEngine());
+            assertEquals(7, rejected.getRetryAfterSeconds());
+            assertEquals(0, bulkhead.getQueueDepth());
+        }
+    }
+
+    @Test
+    void queuedCallerGetsTheSlotWhenItIsReleased() throws Exception {
+        Bulkhead bulkhead = new Bulkhead(ConversionEngine.OCR, 1, 1, 10_000, 7);
+        Bulkhead.Permit holder = bulkhead.acquire();
+
+        Future<Integer> waiter = executor.submit(() -> {
+            try (Bulkhead.Permit ignored = bulkhead.acquire()) {
+                return bulkhead.getActiveCount();
+            }
+        });
+        awaitQueueDepth(bulkhead, 1);
+        // The queue holds one, so a third caller is turned away
+        assertThrows(BulkheadFullException.class, bulkhead::acquire);
+
+        holder.close();
+        int activeWhileWaiterRan = waiter.get(5, TimeUnit.SECONDS);
+        assertEquals(1, activeWhileWaiterRan);
+        assertEquals(0, bulkhead.getQueueDepth());
+        assertEquals(0, bulkhead.getActiveCount());
+    }
+
+    @Test
+    void waitBeyondTheLimitIsRejected() {
+        Bulkhead bulkhead = new Bulkhead(ConversionEngine.SPEECH, 1, 5, 50, 7);
+
+        try (Bulkhead.Permit ignored = bulkhead.acquire()) {
+            assertThrows(BulkheadFullException.class, bulkhead::acquire);
+            assertEquals(0, bulkhead.getQueueDepth());
+        }
+    }
+
+    @Test
+    void closingAPermitTwiceReleasesOneSlot() {
+        Bulkhead bulkhead = new Bulkhead(ConversionEngine.TEXT, 1, 0, 0, 7);
+
+        Bulkhead.Permit permit = bulkhead.acquire();
+        permit.close();
+        permit.close();
+
+        try (Bulkhead.Permit ignored = bulkhead.acquire()) {
+            assertThrows(BulkheadFullException.class, bulkhead::acquire);
+        }
+        assertEquals(0, bulkhead.getActiveCount());
+    }
+
+    private static void awaitQueueDepth(Bulkhead bulkhead, int depth) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (bulkhead.getQueueDepth() != depth && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(depth, bulkhead.getQueueDepth());
+    }
+}
@@ -0,0 +1,222 @@
+package org.zendly.mediaconversionservice.concurrency;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RequestCoalescerTest {
+
+    private static final int CALLERS = 4;
+
+    private final RequestCoalescer<String, String> coalescer = new RequestCoalescer<>("test");
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentCallersForOneKeyShareOneRun() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<String>> results = callConcurrently("doc", () -> {
+            runs.incrementAndGet();
+            started.countDown();
+            await(release);
+            return "text";
+        }, started);
+        assertEquals(1, coalescer.inFlightCount());
+        release.countDown();
+
+        for (Future<String> result : results) {
+            assertEquals("text", result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, runs.get());
+        assertEquals(0, coalescer.inFlightCount());
+    }
+
+    @Test
+    void failureIsSharedWithTheWaitingCallers() throws Exception {
+        IllegalStateException failure = new IllegalStateException("conversion failed");
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<String>> results = callConcurrently("doc", () -> {
+            runs.incrementAndGet();
+            started.countDown();
+            await(release);
+            throw failure;
+        }, started);
+        release.countDown();
+
+        for (Future<String> result : results) {
+            ExecutionException thrown = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+            assertSame(failure, thrown.getCause());
+        }
+        assertEquals(1, runs.get());
+        assertEquals(0, coalescer.inFlightCount());
+    }
+
+    @Test
+    void cancellableCallersDoNotShareARun() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ConversionCancellation cancellation = new ConversionCancellation("batch");
+
+        Future<String> cancellableLeader = executor.submit(() -> {
+            try (ConversionCancellation.Scope ignored = cancellation.bind()) {
+                return coalescer.execute("doc", () -> {
+                    runs.incrementAndGet();
+                    started.countDown();
+                    await(release);
+                    return "batch";
+                });
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // Neither joins the cancellable run nor is joined by the next cancellable caller
+        assertEquals("plain", coalescer.execute("doc", counted(runs, "plain")));
+        try (ConversionCancellation.Scope ignored = cancellation.bind()) {
+            assertEquals("own", coalescer.execute("doc", counted(runs, "own")));
+        }
+        release.countDown();
+
+        assertEquals("batch", cancellableLeader.get(5, TimeUnit.SECONDS));
+        assertEquals(3, runs.get());
+    }
+
+    @Test
+    void interruptedCallerStopsWaiting() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> leader = executor.submit(() -> coalescer.execute("doc", () -> {
+            started.countDown();
+            await(release);
+            return "text";
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        AtomicReference<RuntimeException> thrown = new AtomicReference<>();
+        Thread joiner = new Thread(() -> {
+            try {
+                coalescer.execute("doc", () -> "own run");
+            } catch (RuntimeException e) {
+                thrown.set(e);
+            }
+        });
+        joiner.start();
+        awaitWaiting(joiner);
+        joiner.interrupt();
+        joiner.join(5_000);
+
+        // Gave up while the shared run is still going
+        assertFalse(joiner.isAlive());
+        assertInstanceOf(CancellationException.class, thrown.get());
+        release.countDown();
+        assertEquals("text", leader.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void completedRunIsNotReused() {
+        AtomicInteger runs = new AtomicInteger();
+
+        assertEquals("run 1", coalescer.execute("doc", () -> "run " + runs.incrementAndGet()));
+        assertEquals("run 2", coalescer.execute("doc", () -> "run " + runs.incrementAndGet()));
+    }
+
+    @Test
+    void differentKeysRunIndependently() throws Exception {
+        CountDownLatch bothStarted = new CountDownLatch(2);
+
+        Future<String> first = executor.submit(() -> coalescer.execute("a", () -> {
+            bothStarted.countDown();
+            await(bothStarted);
+            return "a";
+        }));
+        Future<String> second = executor.submit(() -> coalescer.execute("b", () -> {
+            bothStarted.countDown();
+            await(bothStarted);
+            return "b";
+        }));
+
+        assertEquals("a", first.get(5, TimeUnit.SECONDS));
+        assertEquals("b", second.get(5, TimeUnit.SECONDS));
+    }
+
+    /**
+     * Start one caller, wait for its work to begin, then start the rest and wait until they are blocked on it
+     */
+    private List<Future<String>> callConcurrently(String key, Supplier<String> work,
+                                                  CountDownLatch started) throws Exception {
+        List<Future<String>> results = new ArrayList<>();
+        results.add(executor.submit(() -> coalescer.execute(key, work)));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        List<Thread> joiners = new ArrayList<>();
+        for (int i = 1; i < CALLERS; i++) {
+            CountDownLatch running = new CountDownLatch(1);
+            Thread[] caller = new Thread[1];
+            results.add(executor.submit(() -> {
+                caller[0] = Thread.currentThread();
+                running.countDown();
+                return coalescer.execute(key, work);
+            }));
+            assertTrue(running.await(5, TimeUnit.SECONDS));
+            joiners.add(caller[0]);
+        }
+        for (Thread joiner : joiners) {
+            awaitWaiting(joiner);
+        }
+        return results;
+    }
+
+    private static void awaitWaiting(Thread thread) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (thread.getState() != Thread.State.WAITING && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+
+    private static Supplier<String> counted(AtomicInteger runs, String result) {
+        return () -> {
+            runs.incrementAndGet();
+            return result;
+        };
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            if (!latch.await(5, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Timed out");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
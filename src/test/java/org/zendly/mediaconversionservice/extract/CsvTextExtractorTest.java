@@ -0,0 +1,77 @@
+package org.zendly.mediaconversionservice.extract;
+
+import org.apache.tika.sax.BodyContentHandler;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CsvTextExtractorTest {
+
+    private static final String HEADER = "name;note\r\n";
+    private static final String HEADER_TEXT = "name\tnote\n";
+
+    @Test
+    void quotesAndLineBreaksAreRemoved() throws Exception {
+        String csv = "a,\"b,c\",\"say \"\"hi\"\"\"\r\n\"two\r\nlines\",d\n";
+
+        assertEquals("a\tb,c\tsay \"hi\"\n" + "two  lines\td\n", extract(stream(csv)));
+    }
+
+    @Test
+    void stateCarriesAcrossEveryChunkBoundary() throws Exception {
+        // Past the decoding prefix the content arrives a byte at a time, so each quote, doubled quote and
+        // CRLF below is split between reads
+        String filler = "x;y\r\n".repeat(TextOutput.BUFFER_CHARS / 5 + 1);
+        String rows = "\"a;b\";\"say \"\"hi\"\"\"\r\n\"multi\r\nline\";plain\r\nlast;\"\"\"\"\r\n";
+        String csv = HEADER + filler + rows;
+        String expected = HEADER_TEXT + "x\ty\n".repeat(TextOutput.BUFFER_CHARS / 5 + 1)
+                + "a;b\tsay \"hi\"\n" + "multi  line\tplain\n" + "last\t\"\n";
+
+        assertEquals(expected, extract(new TrickleInputStream(csv.getBytes(StandardCharsets.UTF_8))));
+        assertEquals(expected, extract(stream(csv)));
+    }
+
+    @Test
+    void quotedCellSpanningTheFirstChunkBoundary() throws Exception {
+        // Header, filler and pad end four characters before the first 8192-char chunk does
+        int rows = (TextOutput.BUFFER_CHARS - 4 - HEADER.length()) / 4 - 1;
+        String pad = "z".repeat(TextOutput.BUFFER_CHARS - 4 - HEADER.length() - rows * 4 - 1) + "\n";
+        String csv = HEADER + "x;y\n".repeat(rows) + pad + "\"p;\"\"q\"\"\r\nr\";s\n";
+
+        assertEquals(HEADER_TEXT + "x\ty\n".repeat(rows) + pad + "p;\"q\"  r\ts\n", extract(stream(csv)));
+    }
+
+    @Test
+    void crlfSplitAcrossChunksIsOneLineBreak() throws Exception {
+        String csv = HEADER + "a;b\r\n".repeat(4000);
+
+        assertEquals(HEADER_TEXT + "a\tb\n".repeat(4000),
+                extract(new TrickleInputStream(csv.getBytes(StandardCharsets.UTF_8))));
+    }
+
+    @Test
+    void mostFrequentDelimiterInTheFirstRowWins() throws Exception {
+        assertEquals("a\tb\tc\n1\t2\t3\n", extract(stream("a|b|c\n1|2|3\n")));
+        assertEquals("a,b\tc\td\n", extract(stream("a,b;c;d\n")));
+        assertEquals("a\tb\n", extract(stream("a\tb\n")));
+    }
+
+    @Test
+    void delimitersInsideQuotesAreNotCounted() throws Exception {
+        assertEquals("x,y,z\tb\n1,2\t3\n", extract(stream("\"x,y,z\";b\n1,2;3\n")));
+    }
+
+    private static String extract(InputStream stream) throws Exception {
+        BodyContentHandler handler = new BodyContentHandler(-1);
+        new CsvTextExtractor().extract(stream, handler);
+        return handler.toString();
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
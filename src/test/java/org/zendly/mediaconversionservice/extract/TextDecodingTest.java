@@ -0,0 +1,96 @@
+package org.zendly.mediaconversionservice.extract;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class TextDecodingTest {
+
+    private static final int PREFIX_BYTES = 8192;
+    // Tika's detectors would follow this declaration, so decoding as UTF-8 shows the prefix check decided
+    private static final String MISLEADING_DECLARATION = "<meta charset=\"windows-1252\">";
+
+    @Test
+    void twoByteSequenceCutAtTheEndOfThePrefixIsUtf8() throws Exception {
+        // The prefix ends with the first byte of é
+        String text = MISLEADING_DECLARATION + "a".repeat(PREFIX_BYTES - MISLEADING_DECLARATION.length() - 1)
+                + "é and more";
+
+        assertEquals(text, read(text.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void threeByteSequenceCutAtTheEndOfThePrefixIsUtf8() throws Exception {
+        for (int cut = 1; cut <= 2; cut++) {
+            // The prefix ends with the first one or two bytes of €
+            String text = MISLEADING_DECLARATION + "a".repeat(PREFIX_BYTES - MISLEADING_DECLARATION.length() - cut)
+                    + "€ and more";
+
+            assertEquals(text, read(text.getBytes(StandardCharsets.UTF_8)));
+        }
+    }
+
+    @Test
+    void fourByteSequenceCutAtTheEndOfThePrefixIsUtf8() throws Exception {
+        // The prefix ends with the first two bytes of the emoji
+        String text = MISLEADING_DECLARATION + "a".repeat(PREFIX_BYTES - MISLEADING_DECLARATION.length() - 2)
+                + "😀 and more";
+
+        assertEquals(text, read(text.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void truncatedSequenceAtTheEndOfCompleteContentIsNotUtf8() throws Exception {
+        // In UTF-8 the final é (0xE9 in windows-1252) would start a three-byte sequence
+        String text = "Une tasse de cafe, s'il vous plait, et un autre cafe. Merci pour le café";
+
+        String decoded = read(text.getBytes(Charset.forName("windows-1252")));
+
+        assertFalse(decoded.contains("\uFFFD"), decoded);
+        assertEquals(text, decoded);
+    }
+
+    @Test
+    void invalidUtf8IsDecodedWithTheDetectedCharset() throws Exception {
+        String text = "café crème brûlée, naïve façade ".repeat(20);
+
+        assertEquals(text, read(text.getBytes(Charset.forName("windows-1252"))));
+    }
+
+    @Test
+    void byteOrderMarkDecidesAndIsSkipped() throws Exception {
+        String text = "héllo";
+
+        assertEquals(text, read(concat(new byte[]{(byte) 0xEF, (byte) 0xBB, (byte) 0xBF},
+                text.getBytes(StandardCharsets.UTF_8))));
+        assertEquals(text, read(concat(new byte[]{(byte) 0xFF, (byte) 0xFE}, text.getBytes(StandardCharsets.UTF_16LE))));
+        assertEquals(text, read(concat(new byte[]{(byte) 0xFE, (byte) 0xFF}, text.getBytes(StandardCharsets.UTF_16BE))));
+    }
+
+    private static String read(byte[] content) throws IOException {
+        try (Reader reader = TextDecoding.open(new ByteArrayInputStream(content))) {
+            StringBuilder text = new StringBuilder();
+            char[] buffer = new char[1024];
+            int read;
+            while ((read = reader.read(buffer)) >= 0) {
+                text.append(buffer, 0, read);
+            }
+            return text.toString();
+        }
+    }
+
+    private static byte[] concat(byte[] first, byte[] second) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.writeBytes(first);
+        out.writeBytes(second);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,40 @@
+package org.zendly.mediaconversionservice.extract;
+
+import java.io.InputStream;
+
+/**
+ * Returns one byte per read and reports nothing available, so readers above it see the content in the
+ * smallest pieces they accept
+ */
+class TrickleInputStream extends InputStream {
+
+    private final byte[] content;
+    private int position;
+
+    TrickleInputStream(byte[] content) {
+        this.content = content;
+    }
+
+    @Override
+    public int read() {
+        return position < content.length ? content[position++] & 0xFF : -1;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) {
+        if (length == 0) {
+            return 0;
+        }
+        int b = read();
+        if (b < 0) {
+            return -1;
+        }
+        buffer[offset] = (byte) b;
+        return 1;
+    }
+
+    @Override
+    public int available() {
+        return 0;
+    }
+}
@@ -0,0 +1,70 @@
+package org.zendly.mediaconversionservice.extract;
+
+import org.apache.tika.sax.BodyContentHandler;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class XmlTextExtractorTest {
+
+    @Test
+    void lineForEachElementWithText() throws Exception {
+        String xml = "<?xml version=\"1.0\"?><doc><title>Report</title><p>Some <b>bold</b> text</p>"
+                + "<!-- note --><p attr=\"x\"><![CDATA[raw <data>]]></p></doc>";
+
+        assertEquals("Report\nSome bold text\nraw <data>\n", extract(xml));
+    }
+
+    @Test
+    void internalEntityIsNotExpanded() {
+        String xml = "<!DOCTYPE r [<!ENTITY x \"expanded\">]><r>&x;</r>";
+
+        // Rejected, so the document is parsed by Tika instead
+        assertThrows(IOException.class, () -> extract(xml));
+    }
+
+    @Test
+    void externalEntityIsNotFetched() throws Exception {
+        Path secret = Files.createTempFile("xml-entity", ".txt");
+        try {
+            Files.writeString(secret, "secret");
+            String xml = "<!DOCTYPE r [<!ENTITY x SYSTEM \"" + secret.toUri() + "\">]><r>&x;</r>";
+
+            IOException failure = assertThrows(IOException.class, () -> extract(xml));
+            assertFalse(failure.getMessage().contains("secret"));
+        } finally {
+            Files.deleteIfExists(secret);
+        }
+    }
+
+    @Test
+    void entityExpansionBombIsRejected() {
+        StringBuilder xml = new StringBuilder("<!DOCTYPE r [<!ENTITY a \"aaaaaaaaaa\">");
+        for (char name = 'b'; name <= 'j'; name++) {
+            String previous = "&" + (char) (name - 1) + ";";
+            xml.append("<!ENTITY ").append(name).append(" \"").append(previous.repeat(10)).append("\">");
+        }
+        xml.append("]><r>&j;</r>");
+
+        assertThrows(IOException.class, () -> extract(xml.toString()));
+    }
+
+    @Test
+    void malformedXmlFails() {
+        assertThrows(IOException.class, () -> extract("<r><unclosed></r>"));
+    }
+
+    private static String extract(String xml) throws Exception {
+        BodyContentHandler handler = new BodyContentHandler(-1);
+        new XmlTextExtractor().extract(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)), handler);
+        return handler.toString();
+    }
+}